@@ -11,10 +11,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.CacheMode;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.factory.NewsFeedServiceFactory;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedService;
@@ -39,6 +42,7 @@ public class NewsFeedController {
             @RequestParam(defaultValue = "0", required = false) @Min(0) Integer pageNumber,
             @RequestParam(defaultValue = "createdAt", required = false) String sortedBy,
             @RequestParam(defaultValue = "DESC", required = false) String direction,
+            @RequestParam(value = "view", defaultValue = "FULL") FeedView view,
             @RequestParam(value = "cacheMode", defaultValue = "CACHE") CacheMode cacheMode
     ) {
         Map<String, Object> context = new HashMap<>();
@@ -46,6 +50,7 @@ public class NewsFeedController {
         context.put("pageNumber", pageNumber);
         context.put("sortedBy", sortedBy);
         context.put("direction", direction);
+        context.put("view", view);
         context.put("cacheMode", cacheMode);
 
         centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_ЗАПРОС",
@@ -64,7 +69,7 @@ public class NewsFeedController {
                     .build();
 
             NewsFeedService service = newsFeedServiceFactory.getService(cacheMode);
-            PageResponse<NewsFeedResponse> pageResponse = service.getPostsByFriends(user, pageRequest);
+            PageResponse<NewsFeedResponse> pageResponse = service.getPostsByFriends(user, pageRequest, view);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("contentSize", pageResponse.getContent().size());
@@ -80,4 +85,47 @@ public class NewsFeedController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Получение ленты новостей по курсору для текущего пользователя")
+    @GetMapping("/cursor")
+    public ResponseEntity<SliceResponse<NewsFeedResponse>> getNewsFeedByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10", required = false) @Min(1) Integer size,
+            @RequestParam(value = "view", defaultValue = "FULL") FeedView view,
+            @RequestParam(value = "cacheMode", defaultValue = "CACHE") CacheMode cacheMode
+    ) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("after", after);
+        context.put("size", size);
+        context.put("view", view);
+        context.put("cacheMode", cacheMode);
+
+        centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_КУРСОР_ЗАПРОС",
+                "Запрос ленты новостей по курсору для текущего пользователя", context);
+
+        try {
+            FeedCursor cursor = FeedCursor.parse(after);
+
+            User user = userService.getCurrentUser();
+            context.put("userId", user.getId());
+            context.put("username", user.getUsername());
+
+            NewsFeedService service = newsFeedServiceFactory.getService(cacheMode);
+            SliceResponse<NewsFeedResponse> sliceResponse = service.getPostsByFriendsAfter(user, cursor, size, view);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("contentSize", sliceResponse.getContent().size());
+            successContext.put("hasNext", sliceResponse.isHasNext());
+
+            centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_КУРСОР_УСПЕХ",
+                    "Лента новостей по курсору успешно получена", successContext);
+
+            return ResponseEntity.ok(sliceResponse);
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_НОВОСТЕЙ_КУРСОР_ОШИБКА",
+                    "Ошибка при получении ленты новостей по курсору", context, e);
+            throw e;
+        }
+    }
+}
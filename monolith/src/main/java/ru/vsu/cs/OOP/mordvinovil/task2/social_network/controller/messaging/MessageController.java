@@ -2,6 +2,7 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.controller.messaging;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
@@ -10,11 +11,16 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.messaging.MessageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationSummaryResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.CacheMode;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.factory.MessageServiceFactory;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.InboxService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageDeliveryService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.user.UserService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
@@ -28,6 +34,8 @@ import java.util.Map;
 public class MessageController {
     private final UserService userService;
     private final MessageServiceFactory messageServiceFactory;
+    private final InboxService inboxService;
+    private final MessageDeliveryService messageDeliveryService;
     private final CentralLogger centralLogger;
 
     @PreAuthorize("isAuthenticated()")
@@ -141,6 +149,85 @@ public class MessageController {
         }
     }
 
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Получить историю переписки с пользователем по курсору")
+    @GetMapping("/conversation/{userId}/history")
+    public ResponseEntity<SliceResponse<MessageResponse>> getConversationHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20", required = false) @Min(1) @Max(100) Integer size,
+            @RequestParam(value = "cacheMode", defaultValue = "CACHE") CacheMode cacheMode) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("targetUserId", userId);
+        context.put("before", before);
+        context.put("size", size);
+        context.put("cacheMode", cacheMode);
+
+        centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ЗАПРОС",
+                "Запрос истории переписки с пользователем по курсору", context);
+
+        try {
+            User user = userService.getCurrentUser();
+            context.put("userId", user.getId());
+
+            MessageService messageService = messageServiceFactory.getService(cacheMode);
+            SliceResponse<MessageResponse> response = messageService.getConversationHistory(userId, user, before, size);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("contentSize", response.getContent().size());
+            successContext.put("hasNext", response.isHasNext());
+
+            centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ПОЛУЧЕНА",
+                    "История переписки по курсору успешно получена", successContext);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            centralLogger.logError("ИСТОРИЯ_ПЕРЕПИСКИ_ОШИБКА",
+                    "Ошибка при получении истории переписки по курсору", context, e);
+            throw e;
+        }
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Получить входящие переписки с последним сообщением и количеством непрочитанных")
+    @GetMapping("/inbox")
+    public ResponseEntity<PageResponse<ConversationSummaryResponse>> getInbox(
+            @RequestParam(defaultValue = "20", required = false) @Min(1) Integer size,
+            @RequestParam(defaultValue = "0", required = false) @Min(0) Integer pageNumber
+    ) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("size", size);
+        context.put("pageNumber", pageNumber);
+
+        centralLogger.logInfo("ВХОДЯЩИЕ_ЗАПРОС",
+                "Запрос входящих переписок", context);
+
+        try {
+            User user = userService.getCurrentUser();
+            context.put("userId", user.getId());
+
+            var pageRequest = PageRequest.builder()
+                    .pageNumber(pageNumber)
+                    .size(size)
+                    .build();
+
+            PageResponse<ConversationSummaryResponse> response = inboxService.getInbox(user, pageRequest);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("contentSize", response.getContent().size());
+            successContext.put("totalElements", response.getTotalElements());
+
+            centralLogger.logInfo("ВХОДЯЩИЕ_ПОЛУЧЕНЫ",
+                    "Входящие переписки успешно получены", successContext);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            centralLogger.logError("ВХОДЯЩИЕ_ОШИБКА",
+                    "Ошибка при получении входящих переписок", context, e);
+            throw e;
+        }
+    }
+
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Получить отправленные сообщения")
     @GetMapping("/sent")
@@ -373,6 +460,64 @@ public class MessageController {
         }
     }
 
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Отметить прочитанными все полученные сообщения переписки до указанного включительно")
+    @PatchMapping("/conversation/{userId}/read")
+    public ResponseEntity<ConversationReadResponse> readConversation(@PathVariable Long userId,
+                                                                     @RequestParam(value = "upTo", required = false) Long upTo,
+                                                                     @RequestParam(value = "cacheMode", defaultValue = "CACHE") CacheMode cacheMode) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("otherUserId", userId);
+        context.put("upToMessageId", upTo);
+        context.put("cacheMode", cacheMode);
+
+        centralLogger.logInfo("ПЕРЕПИСКА_ПРОЧТЕНИЕ_ЗАПРОС",
+                "Запрос на отметку переписки как прочитанной", context);
+
+        try {
+            User user = userService.getCurrentUser();
+            context.put("userId", user.getId());
+
+            MessageService messageService = messageServiceFactory.getService(cacheMode);
+            ConversationReadResponse response = messageService.markConversationAsRead(userId, user, upTo);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("readCount", response.getReadCount());
+
+            centralLogger.logInfo("ПЕРЕПИСКА_ПРОЧИТАНА",
+                    "Переписка отмечена как прочитанная", successContext);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ПРОЧТЕНИЯ",
+                    "Ошибка при отметке переписки как прочитанной", context, e);
+            throw e;
+        }
+    }
+
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Сообщить собеседнику о наборе сообщения")
+    @PostMapping("/conversation/{userId}/typing")
+    public ResponseEntity<Void> typing(@PathVariable Long userId,
+                                       @RequestParam(value = "typing", defaultValue = "true") boolean typing) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("otherUserId", userId);
+        context.put("typing", typing);
+
+        try {
+            User user = userService.getCurrentUser();
+            context.put("userId", user.getId());
+
+            messageDeliveryService.sendTyping(userId, user, typing);
+
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ИНДИКАТОРА_НАБОРА",
+                    "Ошибка при отправке индикатора набора сообщения", context, e);
+            throw e;
+        }
+    }
+
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Удалить сообщение")
     @DeleteMapping("/{messageId}")
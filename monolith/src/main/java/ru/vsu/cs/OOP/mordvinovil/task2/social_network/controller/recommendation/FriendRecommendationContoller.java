@@ -36,13 +36,15 @@ public class FriendRecommendationContoller {
             @RequestParam(defaultValue = "1", required = false) @Min(1) Integer size,
             @RequestParam(defaultValue = "0", required = false) @Min(0) Integer pageNumber,
             @RequestParam(defaultValue = "createdAt", required = false) String sortedBy,
-            @RequestParam(defaultValue = "DESC", required = false) String direction
+            @RequestParam(defaultValue = "DESC", required = false) String direction,
+            @RequestParam(required = false) String strategy
     ) {
         Map<String, Object> context = new HashMap<>();
         context.put("size", size);
         context.put("pageNumber", pageNumber);
         context.put("sortedBy", sortedBy);
         context.put("direction", direction);
+        context.put("strategy", strategy);
 
         centralLogger.logInfo("РЕКОМЕНДАЦИИ_ДРУЗЕЙ_ЗАПРОС",
                 "Запрос рекомендаций друзей для текущего пользователя", context);
@@ -59,7 +61,7 @@ public class FriendRecommendationContoller {
                     .build();
 
             PageResponse<RecommendationFriendResponse> recommendationList =
-                    friendRecommendationService.getFriendRecommendations(currentUser.getId(), pageRequest.toPageable());
+                    friendRecommendationService.getFriendRecommendations(currentUser.getId(), pageRequest.toPageable(), strategy);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("contentSize", recommendationList.getContent().size());
@@ -0,0 +1,66 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedCursor {
+    private static final String SEPARATOR = ",";
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private LocalDateTime createdAt;
+    private Long postId;
+
+    /**
+     * Курсор начала ленты: все посты старше него
+     *
+     * @return курсор первой страницы
+     */
+    public static FeedCursor first() {
+        return new FeedCursor(LATEST, Long.MAX_VALUE);
+    }
+
+    /**
+     * Разбирает курсор вида {@code <createdAt>,<postId>}
+     *
+     * @param value строковое значение курсора, может быть пустым для первой страницы
+     * @return курсор
+     */
+    public static FeedCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return first();
+        }
+
+        int separatorIndex = value.lastIndexOf(SEPARATOR);
+        if (separatorIndex <= 0 || separatorIndex == value.length() - 1) {
+            throw new BadRequestException(ResponseMessageConstants.FAILURE_FEED_CURSOR_INVALID);
+        }
+
+        try {
+            return new FeedCursor(
+                    LocalDateTime.parse(value.substring(0, separatorIndex).trim()),
+                    Long.parseLong(value.substring(separatorIndex + 1).trim())
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException(ResponseMessageConstants.FAILURE_FEED_CURSOR_INVALID);
+        }
+    }
+
+    public boolean isFirst() {
+        return postId != null && postId == Long.MAX_VALUE;
+    }
+
+    public String encode() {
+        return createdAt + SEPARATOR + postId;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> content;
+    private Integer pageSize;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <T> SliceResponse<T> of(List<T> content, Integer pageSize, String nextCursor) {
+        return SliceResponse.<T>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
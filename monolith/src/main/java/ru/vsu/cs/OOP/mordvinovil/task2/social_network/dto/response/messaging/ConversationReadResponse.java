@@ -0,0 +1,31 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Результат отметки переписки как прочитанной")
+public class ConversationReadResponse {
+    @Schema(description = "ID прочитавшего пользователя")
+    private Long readerUserId;
+
+    @Schema(description = "ID собеседника, чьи сообщения прочитаны")
+    private Long peerUserId;
+
+    @Schema(description = "ID последнего прочитанного сообщения или null если прочитана вся переписка")
+    private Long upToMessageId;
+
+    @Schema(description = "Количество сообщений, помеченных как прочитанные", example = "200")
+    private Integer readCount;
+
+    @Schema(description = "Дата прочтения", example = "2000-01-01")
+    private LocalDateTime readAt;
+}
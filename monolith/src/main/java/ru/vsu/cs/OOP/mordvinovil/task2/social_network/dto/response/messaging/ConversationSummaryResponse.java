@@ -0,0 +1,34 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Сводка переписки во входящих")
+public class ConversationSummaryResponse {
+    @Schema(description = "ID собеседника")
+    private Long peerUserId;
+
+    @Schema(description = "Имя собеседника", example = "john_doe")
+    private String peerUsername;
+
+    @Schema(description = "ID последнего сообщения")
+    private Long lastMessageId;
+
+    @Schema(description = "Начало последнего сообщения", example = "Сегодня прекрасный день!")
+    private String lastMessagePreview;
+
+    @Schema(description = "Дата последнего сообщения", example = "2000-01-01")
+    private LocalDateTime lastMessageAt;
+
+    @Schema(description = "Количество непрочитанных сообщений", example = "3")
+    private Integer unreadCount;
+}
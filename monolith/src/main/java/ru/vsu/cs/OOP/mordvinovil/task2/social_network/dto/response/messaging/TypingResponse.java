@@ -0,0 +1,23 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Индикатор набора сообщения собеседником")
+public class TypingResponse {
+    @Schema(description = "ID набирающего пользователя")
+    private Long senderUserId;
+
+    @Schema(description = "Имя набирающего пользователя", example = "john_doe")
+    private String senderUsername;
+
+    @Schema(description = "true если пользователь набирает сообщение, false если перестал")
+    private boolean typing;
+}
@@ -30,6 +30,9 @@ public class CommentResponse {
     @Schema(description = "Данные о лайках на комментарий")
     private List<LikeCommentResponse> likeCommentResponseList;
 
+    @Schema(description = "Количество лайков на комментарий", example = "3")
+    private Long likeCount;
+
     @Schema(description = "Дата публикации", example = "2000-01-01")
     private LocalDateTime time;
 }
\ No newline at end of file
@@ -27,6 +27,15 @@ public class PostResponse {
     @Schema(description = "Данные о лайках на пост")
     private List<LikePostResponse> likePostResponseList;
 
+    @Schema(description = "Количество лайков на пост", example = "42")
+    private Long likeCount;
+
+    @Schema(description = "Количество комментариев под постом", example = "7")
+    private Long commentCount;
+
+    @Schema(description = "Поставил ли текущий пользователь лайк на пост", example = "true")
+    private Boolean likedByMe;
+
     @Schema(description = "Содержимое поста", example = "Сегодня прекрасный день!")
     private String content;
 
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -36,6 +37,11 @@ public class Comment extends BaseEntity {
     @Column(name = "image_url")
     private String imageUrl;
 
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false)
+    private Long likeCount = 0L;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
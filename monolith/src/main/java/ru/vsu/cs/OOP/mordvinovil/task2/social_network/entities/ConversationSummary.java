@@ -0,0 +1,44 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "conversation_summary",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_conversation_summary_owner_peer", columnNames = {"owner_id", "peer_id"})
+        },
+        indexes = {
+                @Index(name = "idx_conversation_summary_owner_last", columnList = "owner_id, last_message_at"),
+                @Index(name = "idx_conversation_summary_conversation", columnList = "conversation_id")
+        })
+public class ConversationSummary extends BaseEntity {
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "peer_id", referencedColumnName = "id")
+    private User peer;
+
+    @Column(name = "conversation_id", nullable = false, length = 41)
+    private String conversationId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", nullable = false, length = 100)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+}
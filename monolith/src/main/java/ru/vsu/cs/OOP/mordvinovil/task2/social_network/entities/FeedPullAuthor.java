@@ -0,0 +1,22 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "news_feed_pull_author",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_pull_author_author", columnNames = {"author_id"})
+        })
+public class FeedPullAuthor extends BaseEntity {
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "friend_count", nullable = false)
+    private Long friendCount;
+}
@@ -0,0 +1,34 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "news_feed_timeline",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_timeline_owner_post", columnNames = {"owner_id", "post_id"})
+        },
+        indexes = {
+                @Index(name = "idx_timeline_owner_created", columnList = "owner_id, post_created_at, post_id"),
+                @Index(name = "idx_timeline_author", columnList = "author_id")
+        })
+public class FeedTimelineEntry extends BaseEntity {
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+}
@@ -0,0 +1,19 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "news_feed_timeline_owner",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_timeline_owner_owner", columnNames = {"owner_id"})
+        })
+public class FeedTimelineOwner extends BaseEntity {
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+}
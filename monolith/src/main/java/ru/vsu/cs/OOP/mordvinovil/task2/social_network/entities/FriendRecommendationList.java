@@ -0,0 +1,33 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "friend_recommendation_list",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_recommendation_list_user", columnNames = {"user_id"})
+        })
+public class FriendRecommendationList extends BaseEntity {
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    @Column(name = "factor_names", nullable = false)
+    private String factorNames;
+
+    @Column(name = "candidate_count", nullable = false)
+    private Integer candidateCount;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+}
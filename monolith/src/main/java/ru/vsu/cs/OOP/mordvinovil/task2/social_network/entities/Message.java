@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation_created", columnList = "conversation_id, created_at, id")
+})
 public class Message extends BaseEntity {
     @ManyToOne(optional = false, targetEntity = User.class)
     @JoinColumn(name = "sender_id", referencedColumnName = "id")
@@ -24,6 +26,12 @@ public class Message extends BaseEntity {
     @JoinColumn(name = "receiver_id", referencedColumnName = "id")
     private User receiver;
 
+    /**
+     * Канонический идентификатор переписки: упорядоченная пара идентификаторов участников
+     */
+    @Column(name = "conversation_id", length = 41)
+    private String conversationId;
+
     @Column(name = "content", nullable = false, columnDefinition = "TEXT")
     private String content;
 
@@ -36,4 +44,23 @@ public class Message extends BaseEntity {
 
     @Column(name = "time_update", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Строит идентификатор переписки, одинаковый для обоих направлений
+     *
+     * @param userId1 первый участник
+     * @param userId2 второй участник
+     * @return идентификатор переписки вида "меньший:больший"
+     */
+    public static String conversationIdOf(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + ":" + Math.max(userId1, userId2);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void assignConversationId() {
+        if (conversationId == null && sender != null && receiver != null) {
+            conversationId = conversationIdOf(sender.getId(), receiver.getId());
+        }
+    }
 }
@@ -4,6 +4,7 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -15,7 +16,9 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_user_created", columnList = "user_id, created_at")
+})
 public class Post extends BaseEntity {
     @ManyToOne(optional = false, targetEntity = User.class)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -27,6 +30,16 @@ public class Post extends BaseEntity {
     @Column(name = "image_url")
     private String imageUrl;
 
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false)
+    private Long likeCount = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false)
+    private Long commentCount = 0L;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @BatchSize(size = 10)
     private Set<Comment> comments = new HashSet<>();
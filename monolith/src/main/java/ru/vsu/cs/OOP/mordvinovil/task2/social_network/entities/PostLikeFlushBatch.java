@@ -0,0 +1,22 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "post_like_flush_batch",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_post_like_flush_batch", columnNames = {"batch_id"})
+        },
+        indexes = {
+                @Index(name = "idx_post_like_flush_batch_created", columnList = "created_at")
+        })
+public class PostLikeFlushBatch extends BaseEntity {
+    @Column(name = "batch_id", nullable = false, length = 36)
+    private String batchId;
+}
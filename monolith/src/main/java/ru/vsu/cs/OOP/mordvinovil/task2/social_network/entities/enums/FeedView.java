@@ -0,0 +1,6 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums;
+
+public enum FeedView {
+    FULL,
+    COMPACT
+}
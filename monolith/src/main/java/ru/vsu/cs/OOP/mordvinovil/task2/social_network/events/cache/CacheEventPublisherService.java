@@ -45,10 +45,11 @@ public class CacheEventPublisherService {
      * @param source источник события
      * @param target целевой объект
      * @param postId идентификатор поста
+     * @param likerId идентификатор пользователя, убравшего лайк
      * @param likeId идентификатор лайка
      */
-    public void publishLikeDeleted(Object source, Object target, Long postId, Long likeId) {
-        publishEvent(eventFactory.createLikeDeletedEvent(source, target, postId, likeId));
+    public void publishLikeDeleted(Object source, Object target, Long postId, Long likerId, Long likeId) {
+        publishEvent(eventFactory.createLikeDeletedEvent(source, target, postId, likerId, likeId));
     }
 
     /**
@@ -110,6 +111,17 @@ public class CacheEventPublisherService {
         publishEvent(eventFactory.createPostEvent(source, target, postId));
     }
 
+    /**
+     * Публикует событие обновления профиля
+     *
+     * @param source источник события
+     * @param target целевой объект
+     * @param userId идентификатор владельца профиля
+     */
+    public void publishProfileUpdated(Object source, Object target, Long userId) {
+        publishEvent(eventFactory.createProfileUpdatedEvent(source, target, userId));
+    }
+
     /**
      * Публикует событие кеша
      *
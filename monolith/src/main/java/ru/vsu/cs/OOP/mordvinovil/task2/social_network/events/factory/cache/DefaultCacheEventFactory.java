@@ -25,8 +25,9 @@ public class DefaultCacheEventFactory extends AbstractCacheEventFactory {
     }
 
     @Override
-    public GenericCacheEvent createLikeDeletedEvent(Object source, Object target, Long postId, Long likeId) {
+    public GenericCacheEvent createLikeDeletedEvent(Object source, Object target, Long postId, Long likerId, Long likeId) {
         Map<String, Object> data = Map.of("postId", postId,
+                "likerId", likerId,
                 "likeId", likeId);
         return createEvent(source, target, data);
     }
@@ -64,4 +65,10 @@ public class DefaultCacheEventFactory extends AbstractCacheEventFactory {
         Map<String, Object> data = Map.of("postId", postId);
         return createEvent(source, target, data);
     }
+
+    @Override
+    public GenericCacheEvent createProfileUpdatedEvent(Object source, Object target, Long userId) {
+        Map<String, Object> data = Map.of("userId", userId);
+        return createEvent(source, target, data);
+    }
 }
@@ -0,0 +1,21 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class MessageSentEvent extends ApplicationEvent {
+    private final Long receiverId;
+    private final MessageResponse message;
+    private final LocalDateTime timeCreated;
+
+    public MessageSentEvent(Object source, Long receiverId, MessageResponse message) {
+        super(source);
+        this.receiverId = receiverId;
+        this.message = message;
+        this.timeCreated = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class MessagesReadEvent extends ApplicationEvent {
+    private final Long readerId;
+    private final Long senderId;
+    private final Long upToMessageId;
+    private final int readCount;
+    private final LocalDateTime timeCreated;
+
+    public MessagesReadEvent(Object source, Long readerId, Long senderId, Long upToMessageId, int readCount) {
+        super(source);
+        this.readerId = readerId;
+        this.senderId = senderId;
+        this.upToMessageId = upToMessageId;
+        this.readCount = readCount;
+        this.timeCreated = LocalDateTime.now();
+    }
+}
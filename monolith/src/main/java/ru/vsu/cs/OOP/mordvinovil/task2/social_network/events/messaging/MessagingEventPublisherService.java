@@ -0,0 +1,47 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessagingEventPublisherService {
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Публикует событие отправки сообщения для доставки получателю в реальном времени
+     *
+     * @param source источник события
+     * @param receiverId идентификатор получателя
+     * @param message созданное сообщение
+     */
+    public void publishMessageSent(Object source, Long receiverId, MessageResponse message) {
+        try {
+            eventPublisher.publishEvent(new MessageSentEvent(source, receiverId, message));
+        } catch (Exception e) {
+            log.error("Failed to publish message sent event: {} - {}", receiverId, message.getId(), e);
+        }
+    }
+
+    /**
+     * Публикует одно уведомление о прочтении для пачки сообщений переписки
+     *
+     * @param source источник события
+     * @param readerId идентификатор прочитавшего пользователя
+     * @param senderId идентификатор отправителя прочитанных сообщений
+     * @param upToMessageId идентификатор последнего прочитанного сообщения или null если прочитана вся переписка
+     * @param readCount количество прочитанных сообщений
+     */
+    public void publishMessagesRead(Object source, Long readerId, Long senderId, Long upToMessageId, int readCount) {
+        MessagesReadEvent event = new MessagesReadEvent(source, readerId, senderId, upToMessageId, readCount);
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            log.error("Failed to publish messages read event: {} - {}", event.getReaderId(), event.getSenderId(), e);
+        }
+    }
+}
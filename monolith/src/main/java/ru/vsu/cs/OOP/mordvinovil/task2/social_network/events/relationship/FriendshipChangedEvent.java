@@ -0,0 +1,22 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class FriendshipChangedEvent extends ApplicationEvent {
+    private final Long userId1;
+    private final Long userId2;
+    private final boolean friends;
+    private final LocalDateTime timeCreated;
+
+    public FriendshipChangedEvent(Object source, Long userId1, Long userId2, boolean friends) {
+        super(source);
+        this.userId1 = userId1;
+        this.userId2 = userId2;
+        this.friends = friends;
+        this.timeCreated = LocalDateTime.now();
+    }
+}
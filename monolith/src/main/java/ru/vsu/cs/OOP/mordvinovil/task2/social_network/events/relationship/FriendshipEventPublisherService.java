@@ -0,0 +1,43 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FriendshipEventPublisherService {
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Публикует событие появления дружбы между пользователями
+     *
+     * @param source источник события
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     */
+    public void publishFriendshipAdded(Object source, Long userId1, Long userId2) {
+        publishEvent(new FriendshipChangedEvent(source, userId1, userId2, true));
+    }
+
+    /**
+     * Публикует событие прекращения дружбы между пользователями
+     *
+     * @param source источник события
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     */
+    public void publishFriendshipRemoved(Object source, Long userId1, Long userId2) {
+        publishEvent(new FriendshipChangedEvent(source, userId1, userId2, false));
+    }
+
+    private void publishEvent(FriendshipChangedEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            log.error("Failed to publish friendship event: {} - {}", event.getUserId1(), event.getUserId2(), e);
+        }
+    }
+}
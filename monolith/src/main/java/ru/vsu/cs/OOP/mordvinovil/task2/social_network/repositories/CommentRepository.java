@@ -3,12 +3,16 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Comment;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.UserCountProjection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -29,6 +33,25 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Transactional(readOnly = true)
     Optional<Comment> findByIdWithLikes(@Param("commentId") Long commentId);
 
+    @Query("SELECT DISTINCT c FROM Comment c " +
+            "LEFT JOIN FETCH c.likes cl " +
+            "LEFT JOIN FETCH cl.user " +
+            "WHERE c.post.id IN :postIds")
+    List<Comment> fetchLikesByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query(value = "SELECT x.id FROM (" +
+            "    SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn " +
+            "    FROM comment c WHERE c.post_id IN (:postIds)" +
+            ") x WHERE x.rn <= :limit",
+            nativeQuery = true)
+    List<Long> findLatestCommentIdsByPostIdIn(@Param("postIds") Collection<Long> postIds, @Param("limit") int limit);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.creator " +
+            "WHERE c.id IN :commentIds " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findAllWithCreatorByIdIn(@Param("commentIds") Collection<Long> commentIds);
+
     @Query("SELECT COUNT(DISTINCT l1.comment) FROM Like l1 " +
             "WHERE l1.user.id = :user1 " +
             "AND l1.comment IS NOT NULL " +
@@ -39,4 +62,27 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
             "    AND l2.comment IS NOT NULL" +
             ")")
     int countCommonCommentLikes(@Param("user1") Long user1, @Param("user2") Long user2);
-}
\ No newline at end of file
+
+    @Query("SELECT l2.user.id AS userId, COUNT(DISTINCT l1.comment.id) AS count FROM Like l1, Like l2 " +
+            "WHERE l1.user.id = :userId " +
+            "AND l1.comment IS NOT NULL " +
+            "AND l2.comment.id = l1.comment.id " +
+            "AND l2.user.id IN :candidateIds " +
+            "GROUP BY l2.user.id")
+    List<UserCountProjection> countCommonCommentLikesByCandidates(@Param("userId") Long userId,
+                                                                  @Param("candidateIds") Collection<Long> candidateIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.likeCount = " +
+            "CASE WHEN c.likeCount + :delta < 0 THEN 0 ELSE c.likeCount + :delta END " +
+            "WHERE c.id = :commentId")
+    int incrementLikeCount(@Param("commentId") Long commentId, @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE comment c SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id) " +
+            "WHERE c.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id)",
+            nativeQuery = true)
+    int reconcileLikeCounts();
+}
@@ -0,0 +1,110 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.ConversationSummary;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+    @Query(value = "SELECT s FROM ConversationSummary s JOIN FETCH s.peer WHERE s.ownerId = :ownerId " +
+            "ORDER BY s.lastMessageAt DESC, s.lastMessageId DESC",
+            countQuery = "SELECT COUNT(s) FROM ConversationSummary s WHERE s.ownerId = :ownerId")
+    Page<ConversationSummary> findInbox(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    /**
+     * Записывает сообщение в сводку переписки владельца. Последнее сообщение заменяется,
+     * только если новое сообщение позже сохраненного, счетчик непрочитанных увеличивается всегда
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO conversation_summary " +
+            "(owner_id, peer_id, conversation_id, last_message_id, last_message_preview, last_message_at, unread_count, created_at) " +
+            "VALUES (:ownerId, :peerId, :conversationId, :messageId, :preview, :sentAt, :unreadIncrement, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (owner_id, peer_id) DO UPDATE SET " +
+            "last_message_preview = CASE WHEN EXCLUDED.last_message_id > conversation_summary.last_message_id " +
+            "THEN EXCLUDED.last_message_preview ELSE conversation_summary.last_message_preview END, " +
+            "last_message_at = CASE WHEN EXCLUDED.last_message_id > conversation_summary.last_message_id " +
+            "THEN EXCLUDED.last_message_at ELSE conversation_summary.last_message_at END, " +
+            "last_message_id = GREATEST(EXCLUDED.last_message_id, conversation_summary.last_message_id), " +
+            "unread_count = conversation_summary.unread_count + EXCLUDED.unread_count",
+            nativeQuery = true)
+    int upsertLastMessage(@Param("ownerId") Long ownerId,
+                          @Param("peerId") Long peerId,
+                          @Param("conversationId") String conversationId,
+                          @Param("messageId") Long messageId,
+                          @Param("preview") String preview,
+                          @Param("sentAt") LocalDateTime sentAt,
+                          @Param("unreadIncrement") int unreadIncrement);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversation_summary SET unread_count = GREATEST(unread_count - :count, 0) " +
+            "WHERE owner_id = :ownerId AND peer_id = :peerId",
+            nativeQuery = true)
+    int decrementUnread(@Param("ownerId") Long ownerId,
+                        @Param("peerId") Long peerId,
+                        @Param("count") int count);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ConversationSummary s SET s.lastMessagePreview = :preview " +
+            "WHERE s.conversationId = :conversationId AND s.lastMessageId = :messageId")
+    int updatePreview(@Param("conversationId") String conversationId,
+                      @Param("messageId") Long messageId,
+                      @Param("preview") String preview);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ConversationSummary s SET s.lastMessageId = :messageId, s.lastMessagePreview = :preview, " +
+            "s.lastMessageAt = :sentAt WHERE s.conversationId = :conversationId AND s.lastMessageId = :replacedMessageId")
+    int replaceLastMessage(@Param("conversationId") String conversationId,
+                           @Param("replacedMessageId") Long replacedMessageId,
+                           @Param("messageId") Long messageId,
+                           @Param("preview") String preview,
+                           @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConversationSummary s WHERE s.conversationId = :conversationId")
+    int deleteByConversation(@Param("conversationId") String conversationId);
+
+    /**
+     * Проверяет, есть ли сообщение, у отправителя или получателя которого нет сводки переписки.
+     * Останавливается на первом таком сообщении и не агрегирует таблицу сообщений
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM messages m " +
+            "WHERE NOT EXISTS (SELECT 1 FROM conversation_summary s " +
+            "WHERE s.owner_id = m.sender_id AND s.peer_id = m.receiver_id) " +
+            "OR NOT EXISTS (SELECT 1 FROM conversation_summary s " +
+            "WHERE s.owner_id = m.receiver_id AND s.peer_id = m.sender_id))",
+            nativeQuery = true)
+    boolean existsMessageWithoutSummary();
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO conversation_summary " +
+            "(owner_id, peer_id, conversation_id, last_message_id, last_message_preview, last_message_at, unread_count, created_at) " +
+            "SELECT p.owner_id, p.peer_id, m.conversation_id, m.id, SUBSTRING(m.content, 1, 100), m.created_at, " +
+            "(SELECT COUNT(*) FROM messages u WHERE u.conversation_id = m.conversation_id " +
+            "AND u.receiver_id = p.owner_id AND u.status <> 'READ'), CURRENT_TIMESTAMP " +
+            "FROM (" +
+            "    SELECT x.owner_id, x.peer_id, MAX(x.id) AS last_id FROM (" +
+            "        SELECT sender_id AS owner_id, receiver_id AS peer_id, id FROM messages " +
+            "        UNION ALL " +
+            "        SELECT receiver_id AS owner_id, sender_id AS peer_id, id FROM messages" +
+            "    ) x GROUP BY x.owner_id, x.peer_id" +
+            ") p " +
+            "JOIN messages m ON m.id = p.last_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM conversation_summary s " +
+            "WHERE s.owner_id = p.owner_id AND s.peer_id = p.peer_id)",
+            nativeQuery = true)
+    int backfillFromMessages();
+}
@@ -0,0 +1,31 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FeedPullAuthor;
+
+import java.util.List;
+
+@Repository
+public interface FeedPullAuthorRepository extends JpaRepository<FeedPullAuthor, Long> {
+    boolean existsByAuthorId(Long authorId);
+
+    @Query(value = "SELECT a.author_id FROM news_feed_pull_author a " +
+            "JOIN relation_ship r ON (r.user_sender_id = :userId AND r.user_receiver_id = a.author_id) " +
+            "OR (r.user_receiver_id = :userId AND r.user_sender_id = a.author_id) " +
+            "WHERE r.status = 'ACCEPTED'",
+            nativeQuery = true)
+    List<Long> findPullAuthorIdsAmongFriends(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO news_feed_pull_author (author_id, friend_count, created_at) " +
+            "VALUES (:authorId, :friendCount, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markPullAuthor(@Param("authorId") Long authorId, @Param("friendCount") Long friendCount);
+}
@@ -0,0 +1,27 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FeedTimelineOwner;
+
+@Repository
+public interface FeedTimelineOwnerRepository extends JpaRepository<FeedTimelineOwner, Long> {
+    boolean existsByOwnerId(Long ownerId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO news_feed_timeline_owner (owner_id, created_at) " +
+            "VALUES (:ownerId, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markBackfilled(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FeedTimelineOwner o WHERE o.ownerId = :ownerId")
+    int unmarkBackfilled(@Param("ownerId") Long ownerId);
+}
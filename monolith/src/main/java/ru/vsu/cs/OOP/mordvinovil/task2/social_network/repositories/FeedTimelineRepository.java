@@ -0,0 +1,117 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FeedTimelineEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FeedTimelineRepository extends JpaRepository<FeedTimelineEntry, Long> {
+    @Query("SELECT t.postId FROM FeedTimelineEntry t " +
+            "WHERE t.ownerId = :ownerId " +
+            "ORDER BY t.postCreatedAt DESC, t.postId DESC")
+    List<Long> findPostIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT t FROM FeedTimelineEntry t " +
+            "WHERE t.ownerId = :ownerId AND t.authorId NOT IN :authorIds " +
+            "ORDER BY t.postCreatedAt DESC, t.postId DESC")
+    List<FeedTimelineEntry> findByOwnerIdExcludingAuthors(@Param("ownerId") Long ownerId,
+                                                          @Param("authorIds") Collection<Long> authorIds,
+                                                          Pageable pageable);
+
+    @Query("SELECT t FROM FeedTimelineEntry t " +
+            "WHERE t.ownerId = :ownerId " +
+            "AND (t.postCreatedAt < :createdAt OR (t.postCreatedAt = :createdAt AND t.postId < :postId)) " +
+            "ORDER BY t.postCreatedAt DESC, t.postId DESC")
+    List<FeedTimelineEntry> findByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("postId") Long postId,
+                                                Pageable pageable);
+
+    @Query("SELECT t FROM FeedTimelineEntry t " +
+            "WHERE t.ownerId = :ownerId AND t.authorId NOT IN :authorIds " +
+            "AND (t.postCreatedAt < :createdAt OR (t.postCreatedAt = :createdAt AND t.postId < :postId)) " +
+            "ORDER BY t.postCreatedAt DESC, t.postId DESC")
+    List<FeedTimelineEntry> findByOwnerIdBeforeExcludingAuthors(@Param("ownerId") Long ownerId,
+                                                                @Param("authorIds") Collection<Long> authorIds,
+                                                                @Param("createdAt") LocalDateTime createdAt,
+                                                                @Param("postId") Long postId,
+                                                                Pageable pageable);
+
+    boolean existsByOwnerId(Long ownerId);
+
+    long countByOwnerId(Long ownerId);
+
+    long countByOwnerIdAndAuthorIdNotIn(Long ownerId, Collection<Long> authorIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO news_feed_timeline (owner_id, post_id, author_id, post_created_at, created_at) " +
+            "SELECT DISTINCT CASE WHEN r.user_sender_id = :authorId THEN r.user_receiver_id ELSE r.user_sender_id END, " +
+            ":postId, :authorId, :postCreatedAt, CURRENT_TIMESTAMP " +
+            "FROM relation_ship r " +
+            "WHERE (r.user_sender_id = :authorId OR r.user_receiver_id = :authorId) " +
+            "AND r.status = 'ACCEPTED' " +
+            "AND EXISTS (SELECT 1 FROM news_feed_timeline_owner o WHERE o.owner_id = " +
+            "CASE WHEN r.user_sender_id = :authorId THEN r.user_receiver_id ELSE r.user_sender_id END) " +
+            "ON CONFLICT (owner_id, post_id) DO NOTHING",
+            nativeQuery = true)
+    int fanOutToFriends(@Param("authorId") Long authorId,
+                        @Param("postId") Long postId,
+                        @Param("postCreatedAt") LocalDateTime postCreatedAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO news_feed_timeline (owner_id, post_id, author_id, post_created_at, created_at) " +
+            "SELECT :ownerId, p.id, p.user_id, p.created_at, CURRENT_TIMESTAMP " +
+            "FROM posts p " +
+            "WHERE p.user_id IN (" +
+            "    SELECT CASE WHEN r.user_sender_id = :ownerId THEN r.user_receiver_id ELSE r.user_sender_id END " +
+            "    FROM relation_ship r " +
+            "    WHERE (r.user_sender_id = :ownerId OR r.user_receiver_id = :ownerId) " +
+            "    AND r.status = 'ACCEPTED'" +
+            ") " +
+            "AND p.user_id NOT IN (SELECT a.author_id FROM news_feed_pull_author a) " +
+            "AND NOT EXISTS (" +
+            "    SELECT 1 FROM news_feed_timeline t WHERE t.owner_id = :ownerId AND t.post_id = p.id" +
+            ") " +
+            "ORDER BY p.created_at DESC " +
+            "LIMIT :limit " +
+            "ON CONFLICT (owner_id, post_id) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromFriends(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO news_feed_timeline (owner_id, post_id, author_id, post_created_at, created_at) " +
+            "SELECT :ownerId, p.id, p.user_id, p.created_at, CURRENT_TIMESTAMP " +
+            "FROM posts p " +
+            "WHERE p.user_id = :authorId " +
+            "AND p.user_id NOT IN (SELECT a.author_id FROM news_feed_pull_author a) " +
+            "AND EXISTS (SELECT 1 FROM news_feed_timeline_owner o WHERE o.owner_id = :ownerId) " +
+            "AND NOT EXISTS (" +
+            "    SELECT 1 FROM news_feed_timeline t WHERE t.owner_id = :ownerId AND t.post_id = p.id" +
+            ") " +
+            "ORDER BY p.created_at DESC " +
+            "LIMIT :limit " +
+            "ON CONFLICT (owner_id, post_id) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromAuthor(@Param("ownerId") Long ownerId,
+                           @Param("authorId") Long authorId,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FeedTimelineEntry t " +
+            "WHERE (t.ownerId = :userId1 AND t.authorId = :userId2) " +
+            "OR (t.ownerId = :userId2 AND t.authorId = :userId1)")
+    int deleteBetween(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+}
@@ -0,0 +1,34 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FriendRecommendationList;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface FriendRecommendationListRepository extends JpaRepository<FriendRecommendationList, Long> {
+    Optional<FriendRecommendationList> findByUserId(Long userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO friend_recommendation_list " +
+            "(user_id, computed_at, factor_names, candidate_count, payload, created_at) " +
+            "VALUES (:userId, :computedAt, :factorNames, :candidateCount, :payload, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "computed_at = EXCLUDED.computed_at, " +
+            "factor_names = EXCLUDED.factor_names, " +
+            "candidate_count = EXCLUDED.candidate_count, " +
+            "payload = EXCLUDED.payload",
+            nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("computedAt") LocalDateTime computedAt,
+               @Param("factorNames") String factorNames,
+               @Param("candidateCount") int candidateCount,
+               @Param("payload") byte[] payload);
+}
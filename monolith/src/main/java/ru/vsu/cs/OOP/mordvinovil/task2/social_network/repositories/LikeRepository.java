@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Like;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.UserCountProjection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,6 +31,11 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     Page<Like> findByCommentId(@Param("commentId") Long commentId,
                                Pageable pageable);
 
+    @Query("SELECT l.post.id FROM Like l " +
+            "WHERE l.user.id = :userId " +
+            "AND l.post.id IN :postIds")
+    List<Long> findLikedPostIdsByUserIdAndPostIdIn(@Param("userId") Long userId,
+                                                   @Param("postIds") Collection<Long> postIds);
 
     @Query("SELECT COUNT(DISTINCT l1.post) FROM Like l1 " +
             "WHERE l1.user.id = :user1 " +
@@ -39,4 +47,13 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
             "    AND l2.post IS NOT NULL" +
             ")")
     int countCommonLikes(@Param("user1") Long user1, @Param("user2") Long user2);
+
+    @Query("SELECT l2.user.id AS userId, COUNT(DISTINCT l1.post.id) AS count FROM Like l1, Like l2 " +
+            "WHERE l1.user.id = :userId " +
+            "AND l1.post IS NOT NULL " +
+            "AND l2.post.id = l1.post.id " +
+            "AND l2.user.id IN :candidateIds " +
+            "GROUP BY l2.user.id")
+    List<UserCountProjection> countCommonLikesByCandidates(@Param("userId") Long userId,
+                                                           @Param("candidateIds") Collection<Long> candidateIds);
 }
@@ -2,17 +2,22 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -22,10 +27,23 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
                              @Param("status") MessageStatus status,
                              @Param("updatedAt") LocalDate updatedAt);
 
-    @Query("SELECT m FROM Message m WHERE ((m.sender.id = :senderId AND m.receiver.id = :receiverId) OR (m.sender.id = :receiverId AND m.receiver.id = :senderId)) AND m.status = :status")
-    Optional<List<Message>> findMessagesBetweenUsersByStatus(@Param("senderId") Long senderId,
-                                                             @Param("receiverId") Long receiverId,
-                                                             @Param("status") MessageStatus status);
+    /**
+     * Помечает прочитанными все непрочитанные сообщения получателя в переписке
+     * вплоть до указанного сообщения включительно одним запросом
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.status = :status, m.updatedAt = :updatedAt " +
+            "WHERE m.conversationId = :conversationId AND m.receiver.id = :receiverId " +
+            "AND m.id <= :upToMessageId AND m.status <> :status")
+    int markConversationStatusUpTo(@Param("conversationId") String conversationId,
+                                   @Param("receiverId") Long receiverId,
+                                   @Param("upToMessageId") Long upToMessageId,
+                                   @Param("status") MessageStatus status,
+                                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId AND m.status = :status")
+    Optional<List<Message>> findByConversationIdAndStatus(@Param("conversationId") String conversationId,
+                                                          @Param("status") MessageStatus status);
 
     @Query("SELECT COUNT(m) FROM Message m WHERE (m.sender.id = :userId OR m.receiver.id = :userId) " +
             "AND m.status = :status")
@@ -33,17 +51,35 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
                                @Param("status") MessageStatus status);
 
 
-    @Query("SELECT m FROM Message m WHERE (m.sender.id = :senderId AND m.receiver.id = :receiverId) " +
-            "OR (m.sender.id = :receiverId AND m.receiver.id = :senderId)")
-    Optional<Page<Message>> findMessagesBetweenUsers(@Param("senderId") Long senderId,
-                                                     @Param("receiverId") Long receiverId,
-                                                     Pageable pageable);
+    @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId")
+    Optional<Page<Message>> findByConversationId(@Param("conversationId") String conversationId,
+                                                 Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findLatestInConversation(@Param("conversationId") String conversationId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.conversationId = :conversationId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :messageId)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findInConversationBefore(@Param("conversationId") String conversationId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("messageId") Long messageId,
+                                            Pageable pageable);
 
-    @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM Message m " +
-            "WHERE (m.sender.id = :user1 AND m.receiver.id = :user2) " +
-            "OR (m.sender.id = :user2 AND m.receiver.id = :user1)")
-    boolean existsConversationBetweenUsers(@Param("user1") Long user1, @Param("user2") Long user2);
+    boolean existsByConversationId(String conversationId);
 
+    @Query("SELECT DISTINCT m.conversationId FROM Message m WHERE m.conversationId IN :conversationIds")
+    Set<String> findExistingConversationIds(@Param("conversationIds") Collection<String> conversationIds);
+
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE messages SET conversation_id = CONCAT(" +
+            "CAST(LEAST(sender_id, receiver_id) AS VARCHAR(20)), ':', " +
+            "CAST(GREATEST(sender_id, receiver_id) AS VARCHAR(20))) " +
+            "WHERE conversation_id IS NULL",
+            nativeQuery = true)
+    int backfillConversationIds();
 
     Optional<Page<Message>> findBySenderId(Long senderId, Pageable pageable);
     Optional<Page<Message>> findByReceiverIdAndStatus(Long receiverId, MessageStatus status, Pageable pageable);
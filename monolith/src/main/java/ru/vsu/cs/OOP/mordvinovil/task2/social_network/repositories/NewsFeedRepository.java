@@ -1,6 +1,5 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,26 +7,45 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NewsFeedRepository extends JpaRepository<Post, Long> {
 
-    @Query("SELECT DISTINCT p FROM Post p " +
+    @Query("SELECT p FROM Post p " +
             "JOIN FETCH p.user " +
+            "WHERE p.id IN :postIds")
+    List<Post> findAllWithUserByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT DISTINCT p FROM Post p " +
             "LEFT JOIN FETCH p.comments c " +
             "LEFT JOIN FETCH c.creator " +
-            "LEFT JOIN FETCH c.likes cl " +
-            "LEFT JOIN FETCH cl.user " +
+            "WHERE p.id IN :postIds")
+    List<Post> fetchCommentsByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT DISTINCT p FROM Post p " +
             "LEFT JOIN FETCH p.likes l " +
             "LEFT JOIN FETCH l.user " +
-            "WHERE p.user.id IN (" +
-            "    SELECT r.receiver.id FROM Relationship r " +
-            "    WHERE r.sender.id = :userId " +
-            "    AND r.status = FriendshipStatus.ACCEPTED" +
-            ") OR p.user.id IN (" +
-            "    SELECT r.sender.id FROM Relationship r " +
-            "    WHERE r.receiver.id = :userId " +
-            "    AND r.status = FriendshipStatus.ACCEPTED" +
-            ") " +
-            "ORDER BY p.createdAt DESC")
-    Page<Post> findPostsByFriends(@Param("userId") Long userId, Pageable pageable);
+            "WHERE p.id IN :postIds")
+    List<Post> fetchLikesByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT p FROM Post p " +
+            "JOIN FETCH p.user " +
+            "WHERE p.user.id IN :authorIds " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findRecentPostsByAuthorIds(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT p FROM Post p " +
+            "JOIN FETCH p.user " +
+            "WHERE p.user.id IN :authorIds " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :postId)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findRecentPostsByAuthorIdsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("postId") Long postId,
+                                                Pageable pageable);
+
+    long countByUserIdIn(Collection<Long> authorIds);
 }
\ No newline at end of file
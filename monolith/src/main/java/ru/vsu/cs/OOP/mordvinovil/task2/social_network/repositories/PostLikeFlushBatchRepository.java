@@ -0,0 +1,21 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.PostLikeFlushBatch;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PostLikeFlushBatchRepository extends JpaRepository<PostLikeFlushBatch, Long> {
+    boolean existsByBatchId(String batchId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostLikeFlushBatch b WHERE b.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
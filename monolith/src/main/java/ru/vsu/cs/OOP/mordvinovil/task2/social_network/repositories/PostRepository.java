@@ -4,13 +4,16 @@ import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Transactional
 @Repository
@@ -28,4 +31,53 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "LEFT JOIN FETCH c.likes " +
             "WHERE p.id = :postId")
     Optional<Post> findByIdWithCommentsAndLikes(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = " +
+            "CASE WHEN p.likeCount + :delta < 0 THEN 0 ELSE p.likeCount + :delta END " +
+            "WHERE p.id = :postId")
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = " +
+            "CASE WHEN p.commentCount + :delta < 0 THEN 0 ELSE p.commentCount + :delta END " +
+            "WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    /**
+     * Применяет пачку изменений счетчиков лайков одной командой вместе с записью идентификатора пачки.
+     * Если пачка уже записана, изменения не применяются: повтор сброса после сбоя не удваивает лайки
+     */
+    @Modifying
+    @Query(value = "WITH batch AS (" +
+            "    INSERT INTO post_like_flush_batch (batch_id, created_at) VALUES (:batchId, CURRENT_TIMESTAMP) " +
+            "    ON CONFLICT DO NOTHING RETURNING batch_id" +
+            ") " +
+            "UPDATE posts p SET like_count = GREATEST(p.like_count + d.delta, 0) " +
+            "FROM unnest(CAST(:postIds AS BIGINT[]), CAST(:deltas AS BIGINT[])) AS d(post_id, delta) " +
+            "WHERE p.id = d.post_id AND EXISTS (SELECT 1 FROM batch)",
+            nativeQuery = true)
+    int applyLikeCountDeltas(@Param("batchId") String batchId,
+                             @Param("postIds") Long[] postIds,
+                             @Param("deltas") Long[] deltas);
+
+    @Modifying
+    @Query(value = "UPDATE posts p SET comment_count = (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id) " +
+            "WHERE p.comment_count <> (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id)",
+            nativeQuery = true)
+    int reconcileCommentCounts();
+
+    /**
+     * Приводит счетчик лайков к числу строк лайков у постов, где они расходятся.
+     * Посты с еще не сброшенными отложенными изменениями пропускаются, иначе сброс применил бы их повторно
+     */
+    @Modifying
+    @Query(value = "UPDATE posts p SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id) " +
+            "WHERE p.like_count <> (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id) " +
+            "AND p.id <> ALL(CAST(:excludedPostIds AS BIGINT[]))",
+            nativeQuery = true)
+    int reconcileLikeCounts(@Param("excludedPostIds") Long[] excludedPostIds);
+
+    @Query("SELECT DISTINCT p.user.id FROM Post p WHERE p.id IN :postIds")
+    Set<Long> findOwnerIdsByIdIn(@Param("postIds") Collection<Long> postIds);
 }
@@ -2,10 +2,15 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
 
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.ProfileAttributesProjection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +18,8 @@ import java.util.Optional;
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
     Optional<Profile> findByUser(User user);
     Optional<Profile> findByUserId(Long id);
+
+    @Query("SELECT p.user.id AS userId, p.city AS city, p.dateOfBirth AS dateOfBirth " +
+            "FROM Profile p WHERE p.user.id IN :userIds")
+    List<ProfileAttributesProjection> findAttributesByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
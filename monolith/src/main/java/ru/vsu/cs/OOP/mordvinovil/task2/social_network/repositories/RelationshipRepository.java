@@ -9,7 +9,10 @@ import org.springframework.stereotype.Repository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Relationship;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.FriendshipEdgeProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.UserCountProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -75,6 +78,39 @@ public interface RelationshipRepository extends JpaRepository<Relationship, Long
             "FROM Relationship r WHERE (r.receiver.id = :userId OR r.sender.id = :userId) AND r.status = :status")
     Set<Long> findFriendIdsByUserId(@Param("userId") Long userId, @Param("status") FriendshipStatus status);
 
+    @Query("SELECT DISTINCT CASE WHEN r.receiver.id IN :userIds THEN r.sender.id ELSE r.receiver.id END " +
+            "FROM Relationship r WHERE (r.receiver.id IN :userIds OR r.sender.id IN :userIds) AND r.status = :status")
+    Set<Long> findFriendIdsByUserIdIn(@Param("userIds") Collection<Long> userIds,
+                                      @Param("status") FriendshipStatus status);
+
+    @Query(value = "SELECT f.candidate_id AS userId, COUNT(DISTINCT f.friend_id) AS count FROM (" +
+            "    SELECT r.user_sender_id AS candidate_id, r.user_receiver_id AS friend_id FROM relation_ship r " +
+            "    WHERE r.status = :status AND r.user_sender_id IN (:candidateIds) " +
+            "    UNION ALL " +
+            "    SELECT r.user_receiver_id, r.user_sender_id FROM relation_ship r " +
+            "    WHERE r.status = :status AND r.user_receiver_id IN (:candidateIds)" +
+            ") f " +
+            "WHERE f.friend_id IN (" +
+            "    SELECT CASE WHEN u.user_sender_id = :userId THEN u.user_receiver_id ELSE u.user_sender_id END " +
+            "    FROM relation_ship u " +
+            "    WHERE (u.user_sender_id = :userId OR u.user_receiver_id = :userId) AND u.status = :status" +
+            ") " +
+            "GROUP BY f.candidate_id",
+            nativeQuery = true)
+    List<UserCountProjection> countMutualFriendsByCandidates(@Param("userId") Long userId,
+                                                             @Param("candidateIds") Collection<Long> candidateIds,
+                                                             @Param("status") String status);
+
+    @Query("SELECT r.id AS id, r.sender.id AS senderId, r.receiver.id AS receiverId FROM Relationship r " +
+            "WHERE r.status = :status AND r.id > :afterId ORDER BY r.id")
+    List<FriendshipEdgeProjection> findEdgesByStatusAfter(@Param("status") FriendshipStatus status,
+                                                          @Param("afterId") Long afterId,
+                                                          Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Relationship r " +
+            "WHERE (r.receiver.id = :userId OR r.sender.id = :userId) AND r.status = :status")
+    long countFriendsByUserId(@Param("userId") Long userId, @Param("status") FriendshipStatus status);
+
     @Query("SELECT p FROM Profile p " +
             "JOIN User u ON p.user = u " +
             "WHERE p.city = :city " +
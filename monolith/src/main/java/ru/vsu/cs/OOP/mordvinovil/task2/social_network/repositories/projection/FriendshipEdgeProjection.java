@@ -0,0 +1,7 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection;
+
+public interface FriendshipEdgeProjection {
+    Long getId();
+    Long getSenderId();
+    Long getReceiverId();
+}
@@ -0,0 +1,9 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection;
+
+import java.time.LocalDate;
+
+public interface ProfileAttributesProjection {
+    Long getUserId();
+    String getCity();
+    LocalDate getDateOfBirth();
+}
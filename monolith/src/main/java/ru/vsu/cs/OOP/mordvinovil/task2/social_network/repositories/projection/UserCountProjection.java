@@ -0,0 +1,6 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection;
+
+public interface UserCountProjection {
+    Long getUserId();
+    Long getCount();
+}
@@ -15,7 +15,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 
 import java.time.Duration;
 
@@ -79,24 +79,6 @@ public class CacheConfig {
         return redisTemplate;
     }
 
-    @Bean
-    public RedisTemplate<String, PageResponse<RecommendationFriendResponse>> redisRecommendationTemplate(
-            RedisConnectionFactory redisConnectionFactory,
-            ObjectMapper objectMapper
-    ) {
-        RedisTemplate<String, PageResponse<RecommendationFriendResponse>> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(redisConnectionFactory);
-
-        redisTemplate.setKeySerializer(new StringRedisSerializer());
-
-        var serializer = new Jackson2JsonRedisSerializer<>(objectMapper,
-                objectMapper.getTypeFactory().constructParametricType(PageResponse.class, RecommendationFriendResponse.class));
-        redisTemplate.setValueSerializer(serializer);
-
-        redisTemplate.afterPropertiesSet();
-        return redisTemplate;
-    }
-
     @Bean
     public CacheManager cacheManager(
             RedisConnectionFactory connectionFactory,
@@ -105,11 +87,11 @@ public class CacheConfig {
         var newsFeedSerializer = new Jackson2JsonRedisSerializer<>(objectMapper,
                 objectMapper.getTypeFactory().constructParametricType(PageResponse.class, NewsFeedResponse.class));
 
-        var messageSerializer = new Jackson2JsonRedisSerializer<>(objectMapper,
-                objectMapper.getTypeFactory().constructParametricType(PageResponse.class, MessageResponse.class));
+        var newsFeedCursorSerializer = new Jackson2JsonRedisSerializer<>(objectMapper,
+                objectMapper.getTypeFactory().constructParametricType(SliceResponse.class, NewsFeedResponse.class));
 
-        var recommendationSerializer = new Jackson2JsonRedisSerializer<>(objectMapper,
-                objectMapper.getTypeFactory().constructParametricType(PageResponse.class, RecommendationFriendResponse.class));
+        var messageSerializer = new Jackson2JsonRedisSerializer<>(objectMapper,
+                objectMapper.getTypeFactory().constructParametricType(SliceResponse.class, MessageResponse.class));
 
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
@@ -123,22 +105,28 @@ public class CacheConfig {
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(newsFeedSerializer));
 
+        RedisCacheConfiguration newsCursorCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofHours(1))
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(newsFeedCursorSerializer));
+
         RedisCacheConfiguration messageConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(Duration.ofDays(7))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(messageSerializer));
 
-        RedisCacheConfiguration recommendationConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofDays(1))
+        RedisCacheConfiguration messageTailConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(recommendationSerializer));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(messageSerializer));
 
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withCacheConfiguration("newsFeed", newsCacheConfig)
+                .withCacheConfiguration("newsFeedCursor", newsCursorCacheConfig)
                 .withCacheConfiguration("conversation", messageConfig)
-                .withCacheConfiguration("friendRecommendation", recommendationConfig)
+                .withCacheConfiguration("conversationTail", messageTailConfig)
                 .transactionAware()
                 .build();
     }
@@ -106,6 +106,7 @@ public class ModelMapperConfig {
                     mapper.map(Comment::getContent, CommentResponse::setContent);
                     mapper.map(Comment::getImageUrl, CommentResponse::setImageUrl);
                     mapper.map(Comment::getCreatedAt, CommentResponse::setTime);
+                    mapper.map(Comment::getLikeCount, CommentResponse::setLikeCount);
                     mapper.using(commentLikesConverter).map(Comment::getLikes, CommentResponse::setLikeCommentResponseList);
                 });
 
@@ -117,6 +118,7 @@ public class ModelMapperConfig {
                 map().setContent(source.getContent());
                 map().setImageUrl(source.getImageUrl());
                 map().setTime(source.getCreatedAt());
+                map().setLikeCount(source.getLikeCount());
             }
         });
     }
@@ -182,6 +184,8 @@ public class ModelMapperConfig {
             postResponse.setContent(post.getContent());
             postResponse.setImageUrl(post.getImageUrl());
             postResponse.setTime(post.getCreatedAt());
+            postResponse.setLikeCount(post.getLikeCount());
+            postResponse.setCommentCount(post.getCommentCount());
 
             if (post.getComments() != null) {
                 List<CommentResponse> commentResponses = post.getComments().stream()
@@ -204,12 +208,36 @@ public class ModelMapperConfig {
             return postResponse;
         };
 
+        Converter<Post, PostResponse> postToCompactPostResponseConverter = context -> {
+            Post post = context.getSource();
+            PostResponse postResponse = new PostResponse();
+
+            postResponse.setId(post.getId());
+            postResponse.setUsername(post.getUser().getUsername());
+            postResponse.setContent(post.getContent());
+            postResponse.setImageUrl(post.getImageUrl());
+            postResponse.setTime(post.getCreatedAt());
+            postResponse.setLikeCount(post.getLikeCount());
+            postResponse.setCommentCount(post.getCommentCount());
+            postResponse.setCommentResponseList(List.of());
+            postResponse.setLikePostResponseList(List.of());
+
+            return postResponse;
+        };
+
         modelMapper.createTypeMap(Post.class, NewsFeedResponse.class, "fullNewsFeed")
                 .addMappings(mapper -> {
                     mapper.map(Post::getId, NewsFeedResponse::setId);
                     mapper.map(src -> src.getUser().getUsername(), NewsFeedResponse::setAuthor);
                     mapper.using(postToPostResponseConverter).map(source -> source, NewsFeedResponse::setPostResponse);
                 });
+
+        modelMapper.createTypeMap(Post.class, NewsFeedResponse.class, "compactNewsFeed")
+                .addMappings(mapper -> {
+                    mapper.map(Post::getId, NewsFeedResponse::setId);
+                    mapper.map(src -> src.getUser().getUsername(), NewsFeedResponse::setAuthor);
+                    mapper.using(postToCompactPostResponseConverter).map(source -> source, NewsFeedResponse::setPostResponse);
+                });
     }
 
     private void configurePostMappings(ModelMapper modelMapper) {
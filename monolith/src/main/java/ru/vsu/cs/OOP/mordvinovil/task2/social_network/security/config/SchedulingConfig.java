@@ -0,0 +1,9 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.security.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
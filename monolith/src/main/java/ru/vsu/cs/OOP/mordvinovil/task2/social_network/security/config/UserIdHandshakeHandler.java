@@ -0,0 +1,48 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.security.config;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.security.filters.UserDetailsImpl;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Регистрирует WebSocket-сессию под идентификатором пользователя вместо имени.
+ * Сервисы доставки адресуют кадры по идентификатору получателя, а пользовательские
+ * очереди /user/... разрешаются по имени принципала сессии, поэтому имена должны совпадать
+ */
+public class UserIdHandshakeHandler extends DefaultHandshakeHandler {
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        Principal principal = super.determineUser(request, wsHandler, attributes);
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return new UserIdAuthenticationToken(userDetails, authentication);
+        }
+        return principal;
+    }
+
+    /**
+     * Аутентификация рукопожатия, имя которой равно идентификатору пользователя
+     */
+    private static final class UserIdAuthenticationToken extends UsernamePasswordAuthenticationToken {
+        private final String userId;
+
+        private UserIdAuthenticationToken(UserDetailsImpl userDetails, Authentication source) {
+            super(userDetails, null, source.getAuthorities());
+            this.userId = userDetails.getId().toString();
+            setDetails(source.getDetails());
+        }
+
+        @Override
+        public String getName() {
+            return userId;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws/notifications")
+                .setHandshakeHandler(new UserIdHandshakeHandler())
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
@@ -8,6 +8,9 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.post.LikePost
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface LikeService {
     LikeCommentResponse likeComment(User currentUser, LikeCommentRequest request);
     LikePostResponse likePost(User currentUser, LikePostRequest request);
@@ -16,4 +19,5 @@ public interface LikeService {
 
     PageResponse<LikePostResponse> getLikesByPost(Long postId, PageRequest pageRequest);
     PageResponse<LikeCommentResponse> getLikesByComment(Long commentId, PageRequest pageRequest);
+    Set<Long> getLikedPostIds(User currentUser, Collection<Long> postIds);
 }
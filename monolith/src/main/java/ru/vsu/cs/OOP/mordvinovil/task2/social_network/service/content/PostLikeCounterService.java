@@ -0,0 +1,12 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface PostLikeCounterService {
+    void increment(Long postId, long delta);
+    Map<Long, Long> getPendingDeltas(Collection<Long> postIds);
+    Set<Long> getPendingPostIds();
+    int flush();
+}
@@ -1,16 +1,23 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.cache;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.GenericCacheEvent;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedCacheService;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
@@ -19,13 +26,16 @@ public class CacheEventHandlerImpl implements CacheEventHandler {
     private final NewsFeedCacheService cacheService;
     private final CentralLogger centralLogger;
 
+    private final Set<Long> pendingPostIds = ConcurrentHashMap.newKeySet();
+
     /**
-     * Обрабатывает событие кеша
+     * Обрабатывает событие кеша: запоминает пост до ближайшего сброса окна,
+     * повторные события по тому же посту внутри окна схлопываются. Пост запоминается только после фиксации
+     * транзакции, чтобы сброс не выполнился раньше записи и не закешировал старое состояние
      *
      * @param event событие кеша
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleCacheEvent(GenericCacheEvent event) {
         Map<String, Object> context = new HashMap<>();
         context.put("data", event.getAdditionalData());
@@ -34,13 +44,50 @@ public class CacheEventHandlerImpl implements CacheEventHandler {
         try {
             Long postId = (Long) event.getData("postId");
             if (postId != null) {
-                cacheService.evictCachePostForFriends(postId);
-                centralLogger.logInfo("ИЗМЕНЕНИЕ_КЕША_УСПЕХ",
-                        "Кеш успешно обновлён", context);
+                pendingPostIds.add(postId);
             }
         } catch (Exception e) {
             centralLogger.logError("ИЗМЕНЕНИЕ_КЕША_ОШИБКА",
                     "Ошибка при обновлении кеша", context, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Сбрасывает накопленные за окно события: одна инвалидация на каждый различный пост
+     * и на каждого затронутого пользователя. При ошибке посты возвращаются в буфер до следующего окна
+     *
+     * @return количество обработанных постов
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.coalesce-window:1000}")
+    public int flushPendingInvalidations() {
+        List<Long> postIds = new ArrayList<>();
+        Iterator<Long> iterator = pendingPostIds.iterator();
+        while (iterator.hasNext()) {
+            postIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("postsCount", postIds.size());
+
+        try {
+            cacheService.evictCachePostsForFriends(postIds);
+            centralLogger.logInfo("ИЗМЕНЕНИЕ_КЕША_УСПЕХ",
+                    "Кеш успешно обновлён", context);
+        } catch (Exception e) {
+            pendingPostIds.addAll(postIds);
+            centralLogger.logError("ИЗМЕНЕНИЕ_КЕША_ОШИБКА",
+                    "Ошибка при обновлении кеша", context, e);
+        }
+        return postIds.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPendingInvalidations();
+    }
+}
@@ -0,0 +1,7 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.feed;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipChangedEvent;
+
+public interface FeedTimelineEventHandler {
+    void handleFriendshipChanged(FriendshipChangedEvent event);
+}
@@ -0,0 +1,42 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.feed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipChangedEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedTimelineEventHandlerImpl implements FeedTimelineEventHandler {
+    private final NewsFeedTimelineService newsFeedTimelineService;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Применяет изменение дружбы к предвычисленным лентам после фиксации транзакции,
+     * чтобы лента не расходилась с отношениями при откате
+     *
+     * @param event событие изменения дружбы
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleFriendshipChanged(FriendshipChangedEvent event) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId1", event.getUserId1());
+        context.put("userId2", event.getUserId2());
+        context.put("friends", event.isFriends());
+
+        try {
+            newsFeedTimelineService.applyFriendshipChange(event.getUserId1(), event.getUserId2(), event.isFriends());
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_ТАЙМЛАЙН_ОШИБКА_ОБНОВЛЕНИЯ",
+                    "Ошибка при обновлении лент по изменению дружбы", context, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.graph;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.GenericCacheEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.GenericNotificationEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipChangedEvent;
+
+public interface EdgeStrengthCacheEventHandler {
+    void handleCacheEvent(GenericCacheEvent event);
+    void handleNotificationEvent(GenericNotificationEvent event);
+    void handleFriendshipChanged(FriendshipChangedEvent event);
+}
@@ -0,0 +1,94 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.graph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.NotificationType;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.GenericCacheEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.GenericNotificationEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipChangedEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.EdgeStrengthCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EdgeStrengthCacheEventHandlerImpl implements EdgeStrengthCacheEventHandler {
+    private final EdgeStrengthCache edgeStrengthCache;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Инвалидирует силу связи пользователя, поставившего или убравшего лайк, либо обновившего профиль
+     *
+     * @param event событие кеша
+     */
+    @EventListener
+    public void handleCacheEvent(GenericCacheEvent event) {
+        try {
+            invalidateUser(event.getData("likerId"));
+            invalidateUser(event.getData("userId"));
+        } catch (Exception e) {
+            logError(event.getAdditionalData(), e);
+        }
+    }
+
+    /**
+     * Инвалидирует силу связи пары собеседников при новом сообщении
+     *
+     * @param event событие уведомления
+     */
+    @EventListener
+    public void handleNotificationEvent(GenericNotificationEvent event) {
+        if (event.getNotificationType() != NotificationType.NEW_MESSAGE) {
+            return;
+        }
+
+        try {
+            if (event.getData("sender") instanceof Long senderId && event.getTargetUserId() != null) {
+                edgeStrengthCache.invalidatePair(senderId, event.getTargetUserId());
+            }
+        } catch (Exception e) {
+            logError(event.getAdditionalData(), e);
+        }
+    }
+
+    /**
+     * Инвалидирует силу связи обоих пользователей при изменении дружбы,
+     * так как меняется число общих друзей со всеми их соседями
+     *
+     * @param event событие изменения дружбы
+     */
+    @EventListener
+    public void handleFriendshipChanged(FriendshipChangedEvent event) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId1", event.getUserId1());
+        context.put("userId2", event.getUserId2());
+        context.put("friends", event.isFriends());
+
+        try {
+            edgeStrengthCache.invalidateUser(event.getUserId1());
+            edgeStrengthCache.invalidateUser(event.getUserId2());
+        } catch (Exception e) {
+            centralLogger.logError("СИЛА_СВЯЗИ_ОШИБКА_ИНВАЛИДАЦИИ",
+                    "Ошибка при инвалидации кеша силы связи", context, e);
+        }
+    }
+
+    private void invalidateUser(Object userId) {
+        if (userId instanceof Long id) {
+            edgeStrengthCache.invalidateUser(id);
+        }
+    }
+
+    private void logError(Map<String, Object> data, Exception e) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("data", data);
+
+        centralLogger.logError("СИЛА_СВЯЗИ_ОШИБКА_ИНВАЛИДАЦИИ",
+                "Ошибка при инвалидации кеша силы связи", context, e);
+    }
+}
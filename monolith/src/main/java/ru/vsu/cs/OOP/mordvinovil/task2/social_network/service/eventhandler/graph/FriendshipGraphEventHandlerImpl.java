@@ -0,0 +1,44 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.graph;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipChangedEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.sketch.FriendSetSketchIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendshipGraphEventHandlerImpl implements FriendshipGraphEventHandler {
+    private final FriendshipGraphProvider graphProvider;
+    private final FriendSetSketchIndex sketchIndex;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Применяет изменение дружбы к графу в памяти, затем к скетчам множеств друзей,
+     * чтобы скетчи, перестраиваемые по графу, уже видели изменение
+     *
+     * @param event событие изменения дружбы
+     */
+    @EventListener
+    public void handleFriendshipChanged(FriendshipChangedEvent event) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId1", event.getUserId1());
+        context.put("userId2", event.getUserId2());
+        context.put("friends", event.isFriends());
+
+        try {
+            graphProvider.applyEdgeChange(event.getUserId1(), event.getUserId2(), event.isFriends());
+            sketchIndex.applyEdgeChange(event.getUserId1(), event.getUserId2(), event.isFriends());
+        } catch (Exception e) {
+            centralLogger.logError("ГРАФ_ДРУЗЕЙ_ОШИБКА_ОБНОВЛЕНИЯ",
+                    "Ошибка при обновлении графа дружбы", context, e);
+        }
+    }
+}
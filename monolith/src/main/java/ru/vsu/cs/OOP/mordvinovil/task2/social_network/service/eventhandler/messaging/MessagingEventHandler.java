@@ -0,0 +1,9 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.messaging;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessageSentEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessagesReadEvent;
+
+public interface MessagingEventHandler {
+    void handleMessageSent(MessageSentEvent event);
+    void handleMessagesRead(MessagesReadEvent event);
+}
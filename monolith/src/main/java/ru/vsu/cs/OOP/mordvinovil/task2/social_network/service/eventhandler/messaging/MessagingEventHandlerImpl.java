@@ -0,0 +1,49 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessageSentEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessagesReadEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageDeliveryService;
+
+/**
+ * Доставляет события переписки в реальном времени только после фиксации транзакции,
+ * чтобы клиент не получил сообщение или прочтение, которые затем откатились
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagingEventHandlerImpl implements MessagingEventHandler {
+    private final MessageDeliveryService messageDeliveryService;
+
+    /**
+     * Доставляет новое сообщение получателю
+     *
+     * @param event событие отправки сообщения
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Override
+    public void handleMessageSent(MessageSentEvent event) {
+        messageDeliveryService.deliverMessage(event.getReceiverId(), event.getMessage());
+    }
+
+    /**
+     * Доставляет отправителю одно уведомление о прочтении на всю пачку прочитанных сообщений
+     *
+     * @param event событие прочтения сообщений
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Override
+    public void handleMessagesRead(MessagesReadEvent event) {
+        ConversationReadResponse receipt = ConversationReadResponse.builder()
+                .readerUserId(event.getReaderId())
+                .peerUserId(event.getSenderId())
+                .upToMessageId(event.getUpToMessageId())
+                .readCount(event.getReadCount())
+                .readAt(event.getTimeCreated())
+                .build();
+        messageDeliveryService.deliverReadReceipt(event.getSenderId(), receipt);
+    }
+}
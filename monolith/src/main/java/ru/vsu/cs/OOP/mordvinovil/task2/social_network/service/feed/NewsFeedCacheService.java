@@ -1,7 +1,11 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed;
 
+import java.util.Collection;
+
 public interface NewsFeedCacheService {
+    long getFeedGeneration(Long userId);
     void evictNewsFeedCacheForUser(Long userId);
     void evictNewsFeedCacheForUsers(Iterable<Long> userIds);
     void evictCachePostForFriends(Long postId);
+    void evictCachePostsForFriends(Collection<Long> postIds);
 }
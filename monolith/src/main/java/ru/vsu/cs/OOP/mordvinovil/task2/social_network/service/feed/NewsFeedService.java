@@ -1,10 +1,14 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed;
 
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 
 public interface NewsFeedService {
-    PageResponse<NewsFeedResponse> getPostsByFriends(User currentUser, PageRequest pageRequest);
+    PageResponse<NewsFeedResponse> getPostsByFriends(User currentUser, PageRequest pageRequest, FeedView view);
+    SliceResponse<NewsFeedResponse> getPostsByFriendsAfter(User currentUser, FeedCursor cursor, Integer size, FeedView view);
 }
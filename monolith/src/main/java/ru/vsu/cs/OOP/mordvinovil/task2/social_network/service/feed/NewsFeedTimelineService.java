@@ -0,0 +1,14 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed;
+
+import org.springframework.data.domain.Page;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+
+public interface NewsFeedTimelineService {
+    void fanOutPost(Post post);
+    Page<Long> getTimelinePage(Long userId, PageRequest pageRequest);
+    TimelineSlice getTimelineSlice(Long userId, FeedCursor cursor, int size);
+    int rebuildTimeline(Long userId);
+    void applyFriendshipChange(Long userId1, Long userId2, boolean friends);
+}
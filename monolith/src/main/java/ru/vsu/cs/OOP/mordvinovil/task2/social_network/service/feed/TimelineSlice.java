@@ -0,0 +1,21 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed;
+
+import lombok.Data;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
+
+import java.util.List;
+
+/**
+ * Порция предвычисленной ленты: идентификаторы постов и курсор следующей порции.
+ * Курсор строится по ключу сортировки последней прочитанной строки ленты, поэтому не зависит
+ * от того, какие посты остались после сборки ответа
+ */
+@Data
+public final class TimelineSlice {
+    private final List<Long> postIds;
+    private final FeedCursor nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
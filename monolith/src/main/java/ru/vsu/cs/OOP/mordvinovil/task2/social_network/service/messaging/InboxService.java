@@ -0,0 +1,16 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationSummaryResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+
+public interface InboxService {
+    PageResponse<ConversationSummaryResponse> getInbox(User currentUser, PageRequest pageRequest);
+    void recordMessageSent(Message message);
+    void recordMessageRead(Message message);
+    void recordConversationRead(Long readerId, Long senderId, int readCount);
+    void recordMessageEdited(Message message);
+    void recordMessageDeleted(Message message);
+}
@@ -1,6 +1,12 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging;
 
+import java.util.Collection;
+
 public interface MessageCacheService {
     void evictConversationCache(Long userId1, Long userId2);
+    long getConversationTailGeneration(Long userId1, Long userId2);
+    long getConversationHistoryGeneration(Long userId1, Long userId2);
+    void evictConversationTail(Long userId1, Long userId2);
     void evictConversationCacheForUser(Long userId);
+    void evictConversationCacheForUsers(Collection<Long> userIds);
 }
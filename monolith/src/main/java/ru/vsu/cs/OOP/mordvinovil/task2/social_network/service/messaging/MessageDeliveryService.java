@@ -0,0 +1,11 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+
+public interface MessageDeliveryService {
+    void deliverMessage(Long targetUserId, MessageResponse message);
+    void deliverReadReceipt(Long targetUserId, ConversationReadResponse receipt);
+    void sendTyping(Long receiverUserId, User currentUser, boolean typing);
+}
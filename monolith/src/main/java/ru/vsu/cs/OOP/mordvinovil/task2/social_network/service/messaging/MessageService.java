@@ -2,8 +2,10 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging;
 
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.messaging.MessageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.Service;
 
@@ -11,11 +13,13 @@ public interface MessageService extends Service<MessageRequest, User, MessageRes
     MessageResponse create(MessageRequest request, User currentUser);
     MessageResponse getMessageById(Long messageId, User currentUser);
     PageResponse<MessageResponse> getConversation(Long otherUserId, User currentUser, PageRequest pageRequest);
+    SliceResponse<MessageResponse> getConversationHistory(Long otherUserId, User currentUser, Long beforeMessageId, Integer size);
     PageResponse<MessageResponse> getSentMessages(User currentUser, PageRequest pageRequest);
     PageResponse<MessageResponse> getReceivedMessages(User currentUser, PageRequest pageRequest);
     PageResponse<MessageResponse> getReadMessages(User currentUser, PageRequest pageRequest);
     MessageResponse markAsReceived(Long messageId, User currentUser);
     MessageResponse markAsRead(Long messageId, User currentUser);
+    ConversationReadResponse markConversationAsRead(Long otherUserId, User currentUser, Long upToMessageId);
     MessageResponse editMessage(Long messageId, MessageRequest request, User currentUser);
     void deleteMessage(Long messageId, User currentUser);
 }
@@ -15,6 +15,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPub
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.CommentService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
@@ -29,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
     private final EntityMapper entityMapper;
     private final ContentFactory contentFactory;
     private final CommentValidator commentValidator;
@@ -61,6 +63,7 @@ public class CommentServiceImpl implements CommentService {
             Long postOwnerId = post.getUser().getId();
             Comment comment = contentFactory.createComment(currentUser, post, request.getContent(), request.getImageUrl());
             Comment savedComment = commentRepository.save(comment);
+            postRepository.incrementCommentCount(post.getId(), 1);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("commentId", savedComment.getId());
@@ -146,6 +149,7 @@ public class CommentServiceImpl implements CommentService {
 
             Comment comment = entityUtils.getComment(commentId);
             commentRepository.delete(comment);
+            postRepository.incrementCommentCount(comment.getPost().getId(), -1);
 
             centralLogger.logInfo("КОММЕНТАРИЙ_УДАЛЕН",
                     "Комментарий успешно удален", context);
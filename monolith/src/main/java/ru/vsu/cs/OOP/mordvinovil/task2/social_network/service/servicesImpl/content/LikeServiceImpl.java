@@ -19,22 +19,29 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPub
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.like.LikeNotFoundException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.LikeRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.LikeService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.factory.LikeFactory;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.LikeValidator;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LikeServiceImpl implements LikeService {
     private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final PostLikeCounterService postLikeCounterService;
     private final EntityMapper entityMapper;
     private final EntityUtils entityUtils;
     private final LikeFactory likeFactory;
@@ -68,6 +75,7 @@ public class LikeServiceImpl implements LikeService {
 
             Like like = likeFactory.createCommentLike(currentUser, request.getCommentId());
             Like savedLike = likeRepository.save(like);
+            commentRepository.incrementLikeCount(comment.getId(), 1);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("likeId", savedLike.getId());
@@ -111,6 +119,7 @@ public class LikeServiceImpl implements LikeService {
 
             Like like = likeFactory.createPostLike(currentUser, request.getPostId());
             Like savedLike = likeRepository.save(like);
+            postLikeCounterService.increment(post.getId(), 1);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("likeId", savedLike.getId());
@@ -201,6 +210,32 @@ public class LikeServiceImpl implements LikeService {
         }
     }
 
+    /**
+     * Определяет, какие из постов страницы лайкнул текущий пользователь, одним запросом
+     *
+     * @param currentUser текущий пользователь
+     * @param postIds идентификаторы постов страницы
+     * @return идентификаторы постов, лайкнутых пользователем
+     */
+    @Override
+    public Set<Long> getLikedPostIds(User currentUser, Collection<Long> postIds) {
+        if (currentUser == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", currentUser.getId());
+        context.put("postsCount", postIds.size());
+
+        try {
+            return new HashSet<>(likeRepository.findLikedPostIdsByUserIdAndPostIdIn(currentUser.getId(), postIds));
+        } catch (Exception e) {
+            centralLogger.logError("ЛАЙКИ_ПОСТЫ_ОШИБКА_ПРОВЕРКИ",
+                    "Ошибка при проверке лайков пользователя на постах", context, e);
+            throw e;
+        }
+    }
+
     /**
      * Удаляет лайк с комментария
      *
@@ -226,6 +261,7 @@ public class LikeServiceImpl implements LikeService {
 
             LikeCommentResponse response = entityMapper.map(like, LikeCommentResponse.class);
             likeRepository.delete(like);
+            commentRepository.incrementLikeCount(commentId, -1);
 
             centralLogger.logInfo("ЛАЙК_КОММЕНТАРИЙ_УДАЛЕН",
                     "Лайк с комментария успешно удален", context);
@@ -263,11 +299,12 @@ public class LikeServiceImpl implements LikeService {
 
             LikePostResponse response = entityMapper.map(like, LikePostResponse.class);
             likeRepository.delete(like);
+            postLikeCounterService.increment(postId, -1);
 
             centralLogger.logInfo("ЛАЙК_ПОСТ_УДАЛЕН",
                     "Лайк с поста успешно удален", context);
 
-            cacheEventPublisherService.publishLikeDeleted(this, like, postId, like.getId());
+            cacheEventPublisherService.publishLikeDeleted(this, like, postId, currentUser.getId(), like.getId());
             return response;
         } catch (Exception e) {
             centralLogger.logError("ЛАЙК_ПОСТ_ОШИБКА_УДАЛЕНИЯ",
@@ -14,7 +14,10 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.LikeService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.storage.FileStorageServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
@@ -22,7 +25,9 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.factory.ContentFacto
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.PostValidator;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +39,9 @@ public class PostServiceImpl implements PostService {
     private final PostValidator postValidator;
     private final EntityUtils entityUtils;
     private final CacheEventPublisherService cacheEventPublisherService;
+    private final NewsFeedTimelineService newsFeedTimelineService;
+    private final LikeService likeService;
+    private final PostLikeCounterService postLikeCounterService;
     private final CentralLogger centralLogger;
 
     /**
@@ -59,6 +67,7 @@ public class PostServiceImpl implements PostService {
 
             Post post = contentFactory.createPost(user, request.getContent(), request.getImageUrl());
             Post savedPost = postRepository.save(post);
+            newsFeedTimelineService.fanOutPost(savedPost);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("postId", savedPost.getId());
@@ -95,6 +104,9 @@ public class PostServiceImpl implements PostService {
         try {
             Page<Post> posts =
                     postRepository.getAllPostsByUserWithCommentsAndLikes(user, pageRequest.toPageable());
+            List<Long> postIds = posts.getContent().stream().map(Post::getId).toList();
+            Set<Long> likedPostIds = likeService.getLikedPostIds(user, postIds);
+            Map<Long, Long> pendingLikes = postLikeCounterService.getPendingDeltas(postIds);
 
             Map<String, Object> resultContext = new HashMap<>(context);
             resultContext.put("totalPosts", posts.getTotalElements());
@@ -102,9 +114,12 @@ public class PostServiceImpl implements PostService {
             centralLogger.logInfo("ПОСТЫ_ПОЛЬЗОВАТЕЛЯ_ПОЛУЧЕНЫ",
                     "Посты пользователя успешно получены", resultContext);
 
-            return PageResponse.of(posts.map(
-                    post -> entityMapper.mapWithName(post, PostResponse.class, "withDetails")
-            ));
+            return PageResponse.of(posts.map(post -> {
+                PostResponse response = entityMapper.mapWithName(post, PostResponse.class, "withDetails");
+                response.setLikedByMe(likedPostIds.contains(post.getId()));
+                response.setLikeCount(post.getLikeCount() + pendingLikes.getOrDefault(post.getId(), 0L));
+                return response;
+            }));
         } catch (Exception e) {
             centralLogger.logError("ПОСТЫ_ПОЛЬЗОВАТЕЛЯ_ОШИБКА_ПОЛУЧЕНИЯ",
                     "Ошибка при получении постов пользователя", context, e);
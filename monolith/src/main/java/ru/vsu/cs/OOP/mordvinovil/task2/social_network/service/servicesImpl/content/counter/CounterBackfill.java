@@ -0,0 +1,55 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.counter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сверяет счетчики лайков и комментариев с фактическими строками при каждом старте приложения.
+ * Сверка построчная и обновляет только расходящиеся строки, поэтому исправляет и записи,
+ * созданные до появления счетчиков, и изменения экземпляров старой версии во время поэтапного обновления.
+ * Посты с еще не сброшенными изменениями лайков пропускаются и сверяются при следующем старте
+ */
+@Component
+@RequiredArgsConstructor
+public class CounterBackfill {
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostLikeCounterService postLikeCounterService;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Сверяет счетчики существующих постов и комментариев после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Map<String, Object> context = new HashMap<>();
+
+        try {
+            Long[] pendingPostIds = postLikeCounterService.getPendingPostIds().toArray(Long[]::new);
+            context.put("pendingPosts", pendingPostIds.length);
+
+            int updatedPostLikes = postRepository.reconcileLikeCounts(pendingPostIds);
+            int updatedPostComments = postRepository.reconcileCommentCounts();
+            int updatedComments = commentRepository.reconcileLikeCounts();
+            if (updatedPostLikes > 0 || updatedPostComments > 0 || updatedComments > 0) {
+                context.put("updatedPostLikes", updatedPostLikes);
+                context.put("updatedPostComments", updatedPostComments);
+                context.put("updatedComments", updatedComments);
+                centralLogger.logInfo("СЧЕТЧИКИ_ЗАПОЛНЕНЫ",
+                        "Счетчики лайков и комментариев сверены с фактическими записями", context);
+            }
+        } catch (Exception e) {
+            centralLogger.logError("СЧЕТЧИКИ_ОШИБКА_ЗАПОЛНЕНИЯ",
+                    "Ошибка при сверке счетчиков лайков и комментариев", context, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.counter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "likes.counter.write-behind", havingValue = "false")
+public class JpaPostLikeCounterServiceImpl implements PostLikeCounterService {
+    private final PostRepository postRepository;
+
+    /**
+     * Сразу изменяет счетчик лайков поста в базе данных
+     *
+     * @param postId идентификатор поста
+     * @param delta изменение счетчика
+     */
+    @Override
+    public void increment(Long postId, long delta) {
+        postRepository.incrementLikeCount(postId, delta);
+    }
+
+    /**
+     * Отложенных изменений нет: счетчик в базе всегда актуален
+     *
+     * @param postIds идентификаторы постов
+     * @return пустая карта
+     */
+    @Override
+    public Map<Long, Long> getPendingDeltas(Collection<Long> postIds) {
+        return Map.of();
+    }
+
+    /**
+     * Постов с отложенными изменениями нет: счетчик в базе всегда актуален
+     *
+     * @return пустое множество
+     */
+    @Override
+    public Set<Long> getPendingPostIds() {
+        return Set.of();
+    }
+
+    /**
+     * Сбрасывать нечего: изменения применяются сразу
+     *
+     * @return всегда 0
+     */
+    @Override
+    public int flush() {
+        return 0;
+    }
+}
@@ -0,0 +1,314 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.counter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostLikeFlushBatchRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@ConditionalOnProperty(name = "likes.counter.write-behind", havingValue = "true", matchIfMissing = true)
+public class RedisPostLikeCounterServiceImpl implements PostLikeCounterService {
+    @Value("${likes.counter.shards:8}")
+    private int shards;
+
+    @Value("${likes.counter.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final PostRepository postRepository;
+    private final PostLikeFlushBatchRepository postLikeFlushBatchRepository;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Все ключи счетчика содержат общий хеш-тег, поэтому попадают в один слот Redis Cluster
+     * и могут передаваться в один скрипт
+     */
+    private static final String SHARD_KEY_PREFIX = "{postLikes}::post:";
+    private static final String DIRTY_KEY = "{postLikes}::dirty";
+    private static final String PROCESSING_KEY = "{postLikes}::processing";
+    private static final String PROCESSING_BATCH_KEY = "{postLikes}::processing-batch";
+    private static final String FLUSH_LOCK_KEY = "{postLikes}::flush-lock";
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofMinutes(1);
+    private static final Duration BATCH_RETENTION = Duration.ofDays(1);
+
+    /**
+     * Переносит изменения выбранных постов из шардов в хеш обработки одной атомарной операцией
+     * и присваивает пачке идентификатор. Если хеш обработки остался от прерванного сброса,
+     * новые изменения не забираются, а возвращается он сам с прежним идентификатором.
+     * KEYS: множество помеченных постов, хеш обработки, идентификатор пачки, затем шарды постов по порядку;
+     * ARGV: новый идентификатор пачки, число шардов, затем идентификаторы постов
+     */
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local function current() " +
+            "  if redis.call('EXISTS', KEYS[2]) == 0 then return {} end " +
+            "  if redis.call('EXISTS', KEYS[3]) == 0 then redis.call('SET', KEYS[3], ARGV[1]) end " +
+            "  local result = {redis.call('GET', KEYS[3])} " +
+            "  for _, value in ipairs(redis.call('HGETALL', KEYS[2])) do result[#result + 1] = value end " +
+            "  return result " +
+            "end " +
+            "if redis.call('EXISTS', KEYS[2]) == 1 then return current() end " +
+            "local shards = tonumber(ARGV[2]) " +
+            "for i = 3, #ARGV do " +
+            "  redis.call('SREM', KEYS[1], ARGV[i]) " +
+            "  local delta = 0 " +
+            "  for shard = 1, shards do " +
+            "    local value = redis.call('GETDEL', KEYS[3 + (i - 3) * shards + shard]) " +
+            "    if value then delta = delta + tonumber(value) end " +
+            "  end " +
+            "  if delta ~= 0 then redis.call('HINCRBY', KEYS[2], ARGV[i], delta) end " +
+            "end " +
+            "redis.call('DEL', KEYS[3]) " +
+            "return current()",
+            List.class);
+
+    /**
+     * Удаляет хеш обработки, только если он принадлежит записанной в базу пачке
+     */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[2]) == ARGV[1] then return redis.call('DEL', KEYS[1], KEYS[2]) end " +
+            "return 0",
+            Long.class);
+
+    /**
+     * Снимает блокировку сброса, только если она все еще принадлежит этому сбросу
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    public RedisPostLikeCounterServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                           PostRepository postRepository,
+                                           PostLikeFlushBatchRepository postLikeFlushBatchRepository,
+                                           CentralLogger centralLogger) {
+        this.redisTemplate = redisTemplate;
+        this.postRepository = postRepository;
+        this.postLikeFlushBatchRepository = postLikeFlushBatchRepository;
+        this.centralLogger = centralLogger;
+    }
+
+    /**
+     * Изменяет счетчик лайков в случайном шарде Redis и помечает пост для сброса в базу.
+     * Горячий пост распределяет инкременты по нескольким ключам и не блокирует свою строку в posts.
+     * Внутри транзакции изменение откладывается до ее фиксации, чтобы откаченный лайк не попал в счетчик
+     *
+     * @param postId идентификатор поста
+     * @param delta изменение счетчика
+     */
+    @Override
+    public void increment(Long postId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementShard(postId, delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                incrementShard(postId, delta);
+            }
+        });
+    }
+
+    /**
+     * Получает еще не сброшенные в базу изменения счетчиков одним запросом ко всем шардам,
+     * включая изменения, уже снятые с шардов, но еще не записанные текущим сбросом.
+     * Хеш обработки не учитывается, если его пачка уже записана в базу и ждет удаления из Redis
+     *
+     * @param postIds идентификаторы постов
+     * @return ненулевые отложенные изменения по идентификатору поста
+     */
+    @Override
+    public Map<Long, Long> getPendingDeltas(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> orderedIds = new ArrayList<>(postIds);
+        List<String> keys = new ArrayList<>(orderedIds.size() * shards);
+        for (Long postId : orderedIds) {
+            for (int shard = 0; shard < shards; shard++) {
+                keys.add(shardKey(postId, shard));
+            }
+        }
+
+        List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+        List<Object> processing = redisTemplate.opsForHash().multiGet(PROCESSING_KEY,
+                orderedIds.stream().<Object>map(String::valueOf).toList());
+
+        Map<Long, Long> deltas = new HashMap<>();
+        if (values != null) {
+            for (int i = 0; i < values.size(); i++) {
+                long value = toLong(values.get(i));
+                if (value != 0) {
+                    deltas.merge(orderedIds.get(i / shards), value, Long::sum);
+                }
+            }
+        }
+        if (processing != null && processing.stream().anyMatch(value -> value != null) && !isProcessingBatchApplied()) {
+            for (int i = 0; i < processing.size(); i++) {
+                long value = toLong(processing.get(i));
+                if (value != 0) {
+                    deltas.merge(orderedIds.get(i), value, Long::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Получает посты, изменения счетчиков которых еще не записаны в базу:
+     * помеченные для сброса и снятые с шардов текущим или прерванным сбросом
+     *
+     * @return идентификаторы постов с отложенными изменениями
+     */
+    @Override
+    public Set<Long> getPendingPostIds() {
+        Set<Long> postIds = new HashSet<>();
+        Set<Object> dirty = redisTemplate.opsForSet().members(DIRTY_KEY);
+        if (dirty != null) {
+            dirty.forEach(postId -> postIds.add(toLong(postId)));
+        }
+        Set<Object> processing = redisTemplate.opsForHash().keys(PROCESSING_KEY);
+        if (processing != null) {
+            processing.forEach(postId -> postIds.add(toLong(postId)));
+        }
+        return postIds;
+    }
+
+    /**
+     * Сбрасывает накопленные изменения в счетчики постов одним пакетным обновлением.
+     * Изменения пачки сначала атомарно переносятся в хеш обработки под новым идентификатором пачки.
+     * Идентификатор записывается в базу той же командой, что и изменения, поэтому повтор пачки
+     * после ошибки или падения процесса между записью в базу и удалением хеша ничего не меняет
+     *
+     * @return количество постов, счетчики которых обновлены
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval:5000}")
+    public int flush() {
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, lockToken, FLUSH_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+
+        try {
+            List<Object> drained = drain();
+            if (drained.size() < 3) {
+                return 0;
+            }
+
+            String batchId = drained.get(0).toString();
+            int size = (drained.size() - 1) / 2;
+            Long[] postIds = new Long[size];
+            Long[] deltas = new Long[size];
+            for (int i = 0; i < size; i++) {
+                postIds[i] = toLong(drained.get(2 * i + 1));
+                deltas[i] = toLong(drained.get(2 * i + 2));
+            }
+
+            Map<String, Object> context = new HashMap<>();
+            context.put("batchId", batchId);
+            context.put("dirtyPosts", size);
+
+            try {
+                int flushed = postRepository.applyLikeCountDeltas(batchId, postIds, deltas);
+                redisTemplate.execute(COMPLETE_SCRIPT, List.of(PROCESSING_KEY, PROCESSING_BATCH_KEY), batchId);
+                postLikeFlushBatchRepository.deleteCreatedBefore(LocalDateTime.now().minus(BATCH_RETENTION));
+
+                context.put("flushedPosts", flushed);
+                centralLogger.logInfo("ЛАЙКИ_СЧЕТЧИК_СБРОШЕН",
+                        "Отложенные изменения счетчиков лайков сброшены в базу", context);
+
+                return flushed;
+            } catch (Exception e) {
+                centralLogger.logError("ЛАЙКИ_СЧЕТЧИК_ОШИБКА_СБРОСА",
+                        "Ошибка при сбросе счетчиков лайков в базу, пачка будет повторена", context, e);
+                return 0;
+            }
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(FLUSH_LOCK_KEY), lockToken);
+        }
+    }
+
+    /**
+     * Выбирает очередную пачку помеченных постов и переносит их изменения из шардов в хеш обработки
+     *
+     * @return идентификатор пачки, затем идентификаторы постов и изменения поочередно
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> drain() {
+        Set<Object> candidates = redisTemplate.opsForSet().distinctRandomMembers(DIRTY_KEY, flushBatchSize);
+        List<Object> postIds = candidates != null ? new ArrayList<>(candidates) : List.of();
+
+        List<String> keys = new ArrayList<>(3 + postIds.size() * shards);
+        keys.add(DIRTY_KEY);
+        keys.add(PROCESSING_KEY);
+        keys.add(PROCESSING_BATCH_KEY);
+        for (Object postId : postIds) {
+            for (int shard = 0; shard < shards; shard++) {
+                keys.add(shardKey(toLong(postId), shard));
+            }
+        }
+
+        Object[] args = new Object[2 + postIds.size()];
+        args[0] = UUID.randomUUID().toString();
+        args[1] = shards;
+        for (int i = 0; i < postIds.size(); i++) {
+            args[2 + i] = postIds.get(i);
+        }
+
+        List<Object> drained = redisTemplate.execute(DRAIN_SCRIPT, keys, args);
+        return drained != null ? drained : List.of();
+    }
+
+    /**
+     * Проверяет, записана ли в базу пачка из хеша обработки
+     */
+    private boolean isProcessingBatchApplied() {
+        Object batchId = redisTemplate.opsForValue().get(PROCESSING_BATCH_KEY);
+        return batchId != null && postLikeFlushBatchRepository.existsByBatchId(batchId.toString());
+    }
+
+    private void incrementShard(Long postId, long delta) {
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        redisTemplate.opsForValue().increment(shardKey(postId, shard), delta);
+        redisTemplate.opsForSet().add(DIRTY_KEY, postId);
+    }
+
+    private String shardKey(Long postId, int shard) {
+        return SHARD_KEY_PREFIX + postId + ":shard:" + shard;
+    }
+
+    private long toLong(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return Long.parseLong(value.toString());
+    }
+}
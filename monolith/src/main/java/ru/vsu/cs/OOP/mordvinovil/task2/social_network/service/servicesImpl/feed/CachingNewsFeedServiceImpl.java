@@ -4,26 +4,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedService;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.TimelineSlice;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CachingNewsFeedServiceImpl implements NewsFeedService {
-    private final NewsFeedRepository newsFeedRepository;
-    private final EntityMapper entityMapper;
+    private final NewsFeedTimelineService newsFeedTimelineService;
+    private final NewsFeedResponseAssembler newsFeedResponseAssembler;
     private final CentralLogger centralLogger;
 
     /**
@@ -31,45 +35,88 @@ public class CachingNewsFeedServiceImpl implements NewsFeedService {
      *
      * @param currentUser текущий пользователь
      * @param pageRequest параметры пагинации
+     * @param view представление элементов ленты
      * @return страница с постами друзей в ленте новостей (кешированная)
      */
     @Cacheable(
             value = "newsFeed",
             key = "'user:' + #currentUser.id + " +
+                    "':gen:' + @newsFeedCacheServiceImpl.getFeedGeneration(#currentUser.id) + " +
                     "':page:' + #pageRequest.pageNumber + '" + ":size:' + " +
-                    "#pageRequest.size + ':sort:' + #pageRequest.sortBy + " + "':dir:' + #pageRequest.direction")
+                    "#pageRequest.size + ':sort:' + #pageRequest.sortBy + " + "':dir:' + #pageRequest.direction + ':view:' + #view")
     @Override
-    public PageResponse<NewsFeedResponse> getPostsByFriends(User currentUser, PageRequest pageRequest) {
+    public PageResponse<NewsFeedResponse> getPostsByFriends(User currentUser, PageRequest pageRequest, FeedView view) {
         Map<String, Object> context = new HashMap<>();
         context.put("userId", currentUser.getId());
         context.put("page", pageRequest.getPageNumber());
         context.put("size", pageRequest.getSize());
         context.put("sortBy", pageRequest.getSortBy());
         context.put("direction", pageRequest.getDirection());
+        context.put("view", view);
 
         centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_ПОЛУЧЕНИЕ_С_КЕШИРОВАНИЕМ",
                 "Получение ленты новостей с кешированием", context);
 
         try {
-            Page<Post> posts = newsFeedRepository.findPostsByFriends(currentUser.getId(),
-                    pageRequest.toPageable());
+            Page<Long> postIds = newsFeedTimelineService.getTimelinePage(currentUser.getId(), pageRequest);
+            List<NewsFeedResponse> content = newsFeedResponseAssembler.assemble(postIds.getContent(), view, currentUser);
 
             Map<String, Object> resultContext = new HashMap<>(context);
-            resultContext.put("totalPosts", posts.getTotalElements());
-            resultContext.put("currentPagePosts", posts.getContent().size());
+            resultContext.put("totalPosts", postIds.getTotalElements());
+            resultContext.put("currentPagePosts", content.size());
 
             centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_ПОЛУЧЕНА_С_КЕШИРОВАНИЕМ",
                     "Лента новостей успешно получена с кешированием", resultContext);
 
-            PageResponse<NewsFeedResponse> response = PageResponse.of(posts.map(
-                    post -> entityMapper.mapWithName(post, NewsFeedResponse.class, "fullNewsFeed")
-            ));
-
-            return response;
+            return PageResponse.of(new PageImpl<>(content, postIds.getPageable(), postIds.getTotalElements()));
         } catch (Exception e) {
             centralLogger.logError("ЛЕНТА_НОВОСТЕЙ_ОШИБКА_ПОЛУЧЕНИЯ_С_КЕШИРОВАНИЕМ",
                     "Ошибка при получении ленты новостей с кешированием", context, e);
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Получает порцию ленты новостей после курсора без подсчета общего количества постов с кешированием
+     *
+     * @param currentUser текущий пользователь
+     * @param cursor позиция последнего полученного поста
+     * @param size размер порции
+     * @param view представление элементов ленты
+     * @return порция постов друзей с курсором следующей порции (кешированная)
+     */
+    @Cacheable(
+            value = "newsFeedCursor",
+            key = "'user:' + #currentUser.id + ':gen:' + @newsFeedCacheServiceImpl.getFeedGeneration(#currentUser.id) + ':after:' + #cursor.encode() + ':size:' + #size + ':view:' + #view")
+    @Override
+    public SliceResponse<NewsFeedResponse> getPostsByFriendsAfter(User currentUser, FeedCursor cursor, Integer size, FeedView view) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", currentUser.getId());
+        context.put("cursor", cursor.encode());
+        context.put("size", size);
+        context.put("view", view);
+
+        centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_КУРСОР_ПОЛУЧЕНИЕ_С_КЕШИРОВАНИЕМ",
+                "Получение порции ленты новостей по курсору с кешированием", context);
+
+        try {
+            TimelineSlice slice = newsFeedTimelineService.getTimelineSlice(currentUser.getId(), cursor, size);
+            List<NewsFeedResponse> content = newsFeedResponseAssembler.assemble(slice.getPostIds(), view, currentUser);
+
+            String nextCursor = slice.hasNext() ? slice.getNextCursor().encode() : null;
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("currentSlicePosts", content.size());
+            resultContext.put("hasNext", slice.hasNext());
+
+            centralLogger.logInfo("ЛЕНТА_НОВОСТЕЙ_КУРСОР_ПОЛУЧЕНА_С_КЕШИРОВАНИЕМ",
+                    "Порция ленты новостей по курсору успешно получена с кешированием", resultContext);
+
+            return SliceResponse.of(content, size, nextCursor);
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_НОВОСТЕЙ_КУРСОР_ОШИБКА_ПОЛУЧЕНИЯ_С_КЕШИРОВАНИЕМ",
+                    "Ошибка при получении порции ленты новостей по курсору с кешированием", context, e);
+            throw e;
+        }
+    }
+}
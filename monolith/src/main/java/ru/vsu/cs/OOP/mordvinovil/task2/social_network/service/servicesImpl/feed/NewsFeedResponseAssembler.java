@@ -0,0 +1,89 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.post.CommentResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.post.PostResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Comment;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.LikeService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.timeline.NewsFeedPostHydrator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class NewsFeedResponseAssembler {
+    @Value("${feed.preview.comments-size:3}")
+    private int commentsPreviewSize;
+
+    private final NewsFeedPostHydrator newsFeedPostHydrator;
+    private final LikeService likeService;
+    private final PostLikeCounterService postLikeCounterService;
+    private final EntityMapper entityMapper;
+
+    public NewsFeedResponseAssembler(NewsFeedPostHydrator newsFeedPostHydrator,
+                                     LikeService likeService,
+                                     PostLikeCounterService postLikeCounterService,
+                                     EntityMapper entityMapper) {
+        this.newsFeedPostHydrator = newsFeedPostHydrator;
+        this.likeService = likeService;
+        this.postLikeCounterService = postLikeCounterService;
+        this.entityMapper = entityMapper;
+    }
+
+    /**
+     * Собирает ответы ленты по идентификаторам постов в выбранном представлении
+     *
+     * @param postIds идентификаторы постов в порядке ленты
+     * @param view представление: полные коллекции или счетчики с превью комментариев
+     * @param currentUser владелец ленты, для которого отмечаются лайкнутые посты
+     * @return элементы ленты в том же порядке
+     */
+    @Transactional
+    public List<NewsFeedResponse> assemble(List<Long> postIds, FeedView view, User currentUser) {
+        List<NewsFeedResponse> responses = view == FeedView.COMPACT
+                ? assembleCompact(postIds)
+                : newsFeedPostHydrator.hydrate(postIds).stream()
+                        .map(post -> entityMapper.mapWithName(post, NewsFeedResponse.class, "fullNewsFeed"))
+                        .collect(Collectors.toList());
+
+        Set<Long> likedPostIds = likeService.getLikedPostIds(currentUser, postIds);
+        Map<Long, Long> pendingLikes = postLikeCounterService.getPendingDeltas(postIds);
+        responses.forEach(response -> {
+            PostResponse postResponse = response.getPostResponse();
+            postResponse.setLikedByMe(likedPostIds.contains(response.getId()));
+            postResponse.setLikeCount(postResponse.getLikeCount() + pendingLikes.getOrDefault(response.getId(), 0L));
+        });
+
+        return responses;
+    }
+
+    /**
+     * Собирает элементы ленты со счетчиками лайков и комментариев и несколькими последними комментариями
+     *
+     * @param postIds идентификаторы постов в порядке ленты
+     * @return элементы ленты в том же порядке
+     */
+    private List<NewsFeedResponse> assembleCompact(List<Long> postIds) {
+        List<Post> posts = newsFeedPostHydrator.hydrateSummary(postIds);
+        Map<Long, List<Comment>> previews = newsFeedPostHydrator.loadCommentPreviews(postIds, commentsPreviewSize);
+
+        return posts.stream()
+                .map(post -> {
+                    NewsFeedResponse response = entityMapper.mapWithName(post, NewsFeedResponse.class, "compactNewsFeed");
+                    response.getPostResponse().setCommentResponseList(
+                            entityMapper.mapList(previews.getOrDefault(post.getId(), List.of()), CommentResponse.class));
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -1,7 +1,8 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.cache;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
@@ -12,50 +13,73 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipR
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedCacheService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class NewsFeedCacheServiceImpl implements NewsFeedCacheService {
+    @Value("${cache.eviction.batch-size:500}")
+    private int evictionBatchSize;
+
     private final PostRepository postRepository;
     private final RelationshipRepository relationshipRepository;
     private final RedisTemplate<String, Object> redisTemplate;
     private final CentralLogger centralLogger;
 
-    private static final String CACHE_KEY_PREFIX = "newsFeed::user:";
+    private static final String GENERATION_KEY_PREFIX = "newsFeedGeneration::user:";
+
+    public NewsFeedCacheServiceImpl(PostRepository postRepository,
+                                    RelationshipRepository relationshipRepository,
+                                    RedisTemplate<String, Object> redisTemplate,
+                                    CentralLogger centralLogger) {
+        this.postRepository = postRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.redisTemplate = redisTemplate;
+        this.centralLogger = centralLogger;
+    }
+
+    /**
+     * Получает текущее поколение кеша ленты пользователя, входящее в ключи страничной и курсорной ленты
+     *
+     * @param userId идентификатор пользователя
+     * @return номер поколения, 0 если лента еще не инвалидировалась
+     */
+    @Override
+    public long getFeedGeneration(Long userId) {
+        Object generation = redisTemplate.opsForValue().get(GENERATION_KEY_PREFIX + userId);
+        if (generation == null) {
+            return 0L;
+        }
+        return generation instanceof Number number ? number.longValue() : Long.parseLong(generation.toString());
+    }
 
     /**
-     * Очищает кеш ленты новостей для конкретного пользователя
+     * Инвалидирует кеш ленты новостей пользователя одним INCR счетчика поколения.
+     * Страницы прошлых поколений больше не запрашиваются и удаляются Redis по TTL
      *
      * @param userId идентификатор пользователя
      */
+    @Override
     public void evictNewsFeedCacheForUser(Long userId) {
         Map<String, Object> context = new HashMap<>();
         context.put("userId", userId);
 
-        centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИСТКА_ПОЛЬЗОВАТЕЛЬ",
-                "Очистка кеша ленты новостей для пользователя", context);
-
         try {
-            String pattern = CACHE_KEY_PREFIX + userId + ":*";
-            Set<String> keys = redisTemplate.keys(pattern);
-
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
+            Long generation = redisTemplate.opsForValue().increment(GENERATION_KEY_PREFIX + userId);
 
-                Map<String, Object> successContext = new HashMap<>(context);
-                successContext.put("deletedKeysCount", keys.size());
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("generation", generation);
 
-                centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИЩЕН_ПОЛЬЗОВАТЕЛЬ",
-                        "Кеш ленты новостей очищен для пользователя", successContext);
-            } else {
-                centralLogger.logInfo("КЕШ_ЛЕНТА_НЕ_НАЙДЕН_ПОЛЬЗОВАТЕЛЬ",
-                        "Кеш ленты новостей не найден для пользователя", context);
-            }
+            centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИЩЕН_ПОЛЬЗОВАТЕЛЬ",
+                    "Поколение кеша ленты новостей увеличено для пользователя", successContext);
         } catch (Exception e) {
             centralLogger.logError("КЕШ_ЛЕНТА_ОШИБКА_ОЧИСТКИ_ПОЛЬЗОВАТЕЛЬ",
                     "Ошибка при очистке кеша ленты новостей для пользователя", context, e);
@@ -63,55 +87,62 @@ public class NewsFeedCacheServiceImpl implements NewsFeedCacheService {
     }
 
     /**
-     * Очищает кеш ленты новостей для нескольких пользователей
+     * Инвалидирует кеш ленты новостей для нескольких пользователей.
+     * Счетчики поколений увеличиваются конвейером Redis пачками не больше cache.eviction.batch-size.
+     * Ошибка Redis пробрасывается, чтобы вызывающий мог повторить инвалидацию: повторный INCR лишь
+     * еще раз сменяет поколение
      *
      * @param userIds идентификаторы пользователей
      */
+    @Override
     public void evictNewsFeedCacheForUsers(Iterable<Long> userIds) {
-        Map<String, Object> context = new HashMap<>();
-        context.put("userIdsCount", ((Set<Long>) userIds).size());
-
-        centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИСТКА_ПОЛЬЗОВАТЕЛИ",
-                "Очистка кеша ленты новостей для нескольких пользователей", context);
-
-        int totalDeleted = 0;
+        List<Long> batch = new ArrayList<>(evictionBatchSize);
+        int invalidated = 0;
         for (Long userId : userIds) {
-            try {
-                String pattern = CACHE_KEY_PREFIX + userId + ":*";
-                Set<String> keys = redisTemplate.keys(pattern);
-
-                if (keys != null && !keys.isEmpty()) {
-                    redisTemplate.delete(keys);
-                    totalDeleted += keys.size();
-
-                    Map<String, Object> userContext = new HashMap<>();
-                    userContext.put("userId", userId);
-                    userContext.put("deletedKeysCount", keys.size());
-
-                    centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИЩЕН_ПОЛЬЗОВАТЕЛЬ_ИЗ_СПИСКА",
-                            "Кеш ленты новостей очищен для пользователя из списка", userContext);
-                }
-            } catch (Exception e) {
-                Map<String, Object> errorContext = new HashMap<>();
-                errorContext.put("userId", userId);
-
-                centralLogger.logError("КЕШ_ЛЕНТА_ОШИБКА_ОЧИСТКИ_ПОЛЬЗОВАТЕЛЬ_ИЗ_СПИСКА",
-                        "Ошибка при очистке кеша ленты новостей для пользователя из списка", errorContext, e);
+            batch.add(userId);
+            if (batch.size() >= evictionBatchSize) {
+                invalidated += incrementGenerations(batch);
+                batch.clear();
             }
         }
+        if (!batch.isEmpty()) {
+            invalidated += incrementGenerations(batch);
+        }
 
-        Map<String, Object> resultContext = new HashMap<>(context);
-        resultContext.put("totalDeletedKeys", totalDeleted);
+        Map<String, Object> resultContext = new HashMap<>();
+        resultContext.put("invalidatedUsers", invalidated);
 
         centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИЩЕН_ВСЕ_ПОЛЬЗОВАТЕЛИ",
                 "Кеш ленты новостей очищен для всех пользователей из списка", resultContext);
     }
 
+    private int incrementGenerations(List<Long> userIds) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.stringCommands().incr(
+                            (GENERATION_KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+            return userIds.size();
+        } catch (Exception e) {
+            Map<String, Object> errorContext = new HashMap<>();
+            errorContext.put("batchSize", userIds.size());
+            errorContext.put("firstUserId", userIds.get(0));
+
+            centralLogger.logError("КЕШ_ЛЕНТА_ОШИБКА_ОЧИСТКИ_ПАЧКИ",
+                    "Ошибка при очистке кеша ленты новостей для пачки пользователей", errorContext, e);
+            throw e;
+        }
+    }
+
     /**
      * Очищает кеш ленты новостей для друзей автора поста
      *
      * @param postId идентификатор поста
      */
+    @Override
     public void evictCachePostForFriends(Long postId) {
         Map<String, Object> context = new HashMap<>();
         context.put("postId", postId);
@@ -132,8 +163,10 @@ public class NewsFeedCacheServiceImpl implements NewsFeedCacheService {
             Set<Long> friendsOwnerPost = relationshipRepository.findFriendIdsByUserId(
                     ownerPost.getId(), FriendshipStatus.ACCEPTED);
 
-            evictNewsFeedCacheForUser(ownerPost.getId());
-            evictNewsFeedCacheForUsers(friendsOwnerPost);
+            Set<Long> affectedUsers = new LinkedHashSet<>(friendsOwnerPost.size() + 1);
+            affectedUsers.add(ownerPost.getId());
+            affectedUsers.addAll(friendsOwnerPost);
+            evictNewsFeedCacheForUsers(affectedUsers);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("postOwnerId", ownerPost.getId());
@@ -148,4 +181,45 @@ public class NewsFeedCacheServiceImpl implements NewsFeedCacheService {
                     "Ошибка при инвалидации кеша ленты новостей для поста и друзей автора", context, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Очищает кеш ленты новостей для авторов нескольких постов и их друзей.
+     * Авторы и друзья загружаются двумя запросами, каждый затронутый пользователь инвалидируется один раз.
+     * Ошибка пробрасывается, чтобы вызывающий мог повторить инвалидацию
+     *
+     * @param postIds идентификаторы постов
+     */
+    @Override
+    public void evictCachePostsForFriends(Collection<Long> postIds) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("postsCount", postIds.size());
+
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<Long> ownerIds = postRepository.findOwnerIdsByIdIn(postIds);
+            if (ownerIds.isEmpty()) {
+                centralLogger.logInfo("КЕШ_ЛЕНТА_ПОСТЫ_НЕ_НАЙДЕНЫ",
+                        "Посты не найдены при очистке кеша ленты новостей", context);
+                return;
+            }
+
+            Set<Long> affectedUsers = new LinkedHashSet<>(ownerIds);
+            affectedUsers.addAll(relationshipRepository.findFriendIdsByUserIdIn(ownerIds, FriendshipStatus.ACCEPTED));
+            evictNewsFeedCacheForUsers(affectedUsers);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("ownersCount", ownerIds.size());
+            successContext.put("totalAffectedUsers", affectedUsers.size());
+
+            centralLogger.logInfo("КЕШ_ЛЕНТА_ОЧИЩЕН_ПОСТЫ_ДРУЗЬЯ",
+                    "Кеш ленты новостей инвалидирован для постов и друзей их авторов", successContext);
+        } catch (Exception e) {
+            centralLogger.logError("КЕШ_ЛЕНТА_ОШИБКА_ОЧИСТКИ_ПОСТЫ_ДРУЗЬЯ",
+                    "Ошибка при инвалидации кеша ленты новостей для постов и друзей их авторов", context, e);
+            throw e;
+        }
+    }
+}
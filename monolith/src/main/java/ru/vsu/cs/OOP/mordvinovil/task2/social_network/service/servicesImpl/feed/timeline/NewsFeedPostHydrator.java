@@ -0,0 +1,95 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.timeline;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Comment;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class NewsFeedPostHydrator {
+    private final NewsFeedRepository newsFeedRepository;
+    private final CommentRepository commentRepository;
+
+    /**
+     * Загружает посты страницы ленты вместе с комментариями и лайками.
+     * Каждая коллекция подгружается отдельным запросом по идентификаторам постов в одном контексте
+     * персистентности, поэтому декартово произведение комментариев и лайков не возникает
+     *
+     * @param postIds идентификаторы постов в порядке ленты
+     * @return посты в том же порядке
+     */
+    @Transactional
+    public List<Post> hydrate(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Post> postsById = newsFeedRepository.findAllWithUserByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity(), (first, second) -> first));
+
+        if (!postsById.isEmpty()) {
+            newsFeedRepository.fetchCommentsByIdIn(postsById.keySet());
+            commentRepository.fetchLikesByPostIdIn(postsById.keySet());
+            newsFeedRepository.fetchLikesByIdIn(postsById.keySet());
+        }
+
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Загружает посты страницы ленты только с авторами, без коллекций комментариев и лайков
+     *
+     * @param postIds идентификаторы постов в порядке ленты
+     * @return посты в том же порядке
+     */
+    @Transactional
+    public List<Post> hydrateSummary(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Post> postsById = newsFeedRepository.findAllWithUserByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity(), (first, second) -> first));
+
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Загружает несколько последних комментариев для каждого поста одним запросом
+     *
+     * @param postIds идентификаторы постов
+     * @param previewSize максимальное количество комментариев на пост
+     * @return последние комментарии, сгруппированные по идентификатору поста
+     */
+    @Transactional
+    public Map<Long, List<Comment>> loadCommentPreviews(Collection<Long> postIds, int previewSize) {
+        if (postIds.isEmpty() || previewSize <= 0) {
+            return Map.of();
+        }
+
+        List<Long> commentIds = commentRepository.findLatestCommentIdsByPostIdIn(postIds, previewSize);
+        if (commentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return commentRepository.findAllWithCreatorByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getPost().getId(), Collectors.toList()));
+    }
+}
@@ -0,0 +1,323 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.timeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FeedTimelineEntry;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedPullAuthorRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedTimelineOwnerRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedTimelineRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.TimelineSlice;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class NewsFeedTimelineServiceImpl implements NewsFeedTimelineService {
+    @Value("${feed.timeline.backfill-size:200}")
+    private int backfillSize;
+
+    @Value("${feed.timeline.fan-out-threshold:1000}")
+    private long fanOutThreshold;
+
+    private final FeedTimelineRepository feedTimelineRepository;
+    private final FeedPullAuthorRepository feedPullAuthorRepository;
+    private final FeedTimelineOwnerRepository feedTimelineOwnerRepository;
+    private final NewsFeedRepository newsFeedRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final CentralLogger centralLogger;
+
+    private static final Comparator<TimelineSlot> RECENT_FIRST =
+            Comparator.comparing(TimelineSlot::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(TimelineSlot::postId, Comparator.reverseOrder());
+
+    public NewsFeedTimelineServiceImpl(FeedTimelineRepository feedTimelineRepository,
+                                       FeedPullAuthorRepository feedPullAuthorRepository,
+                                       FeedTimelineOwnerRepository feedTimelineOwnerRepository,
+                                       NewsFeedRepository newsFeedRepository,
+                                       RelationshipRepository relationshipRepository,
+                                       CentralLogger centralLogger) {
+        this.feedTimelineRepository = feedTimelineRepository;
+        this.feedPullAuthorRepository = feedPullAuthorRepository;
+        this.feedTimelineOwnerRepository = feedTimelineOwnerRepository;
+        this.newsFeedRepository = newsFeedRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.centralLogger = centralLogger;
+    }
+
+    /**
+     * Раскладывает новый пост в предвычисленные ленты всех друзей автора.
+     * Посты авторов с числом друзей выше порога не раскладываются и подмешиваются в ленту при чтении.
+     * Ленты еще не заполненных владельцев пропускаются: пост попадет в них при первом заполнении
+     *
+     * @param post сохраненный пост
+     */
+    @Override
+    public void fanOutPost(Post post) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("postId", post.getId());
+        context.put("authorId", post.getUser().getId());
+
+        centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_РАССЫЛКА",
+                "Рассылка поста в ленты друзей автора", context);
+
+        try {
+            if (isPullAuthor(post.getUser().getId())) {
+                centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_РАССЫЛКА_ПРОПУЩЕНА",
+                        "Автор с большим числом друзей, пост будет подмешан при чтении ленты", context);
+                return;
+            }
+
+            LocalDateTime postCreatedAt = post.getCreatedAt() != null ? post.getCreatedAt() : LocalDateTime.now();
+            int inserted = feedTimelineRepository.fanOutToFriends(post.getUser().getId(), post.getId(), postCreatedAt);
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("timelinesUpdated", inserted);
+
+            centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_РАЗОСЛАН",
+                    "Пост разослан в ленты друзей автора", successContext);
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_ТАЙМЛАЙН_ОШИБКА_РАССЫЛКИ",
+                    "Ошибка при рассылке поста в ленты друзей", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Получает страницу предвычисленной ленты пользователя: диапазон идентификаторов постов
+     * из таймлайна, дополненный свежими постами авторов без рассылки
+     *
+     * @param userId идентификатор владельца ленты
+     * @param pageRequest параметры пагинации
+     * @return страница идентификаторов постов ленты
+     */
+    @Override
+    public Page<Long> getTimelinePage(Long userId, PageRequest pageRequest) {
+        Pageable pageable = org.springframework.data.domain.PageRequest.of(pageRequest.getPageNumber(), pageRequest.getSize());
+
+        rebuildTimeline(userId);
+        long total = feedTimelineRepository.countByOwnerId(userId);
+
+        List<Long> pullAuthorIds = feedPullAuthorRepository.findPullAuthorIdsAmongFriends(userId);
+        if (pullAuthorIds.isEmpty()) {
+            List<Long> postIds = feedTimelineRepository.findPostIdsByOwnerId(userId, pageable);
+            return new PageImpl<>(postIds, pageable, total);
+        }
+
+        Pageable window = org.springframework.data.domain.PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+        List<FeedTimelineEntry> pushed =
+                feedTimelineRepository.findByOwnerIdExcludingAuthors(userId, pullAuthorIds, window);
+        List<Post> pulled = newsFeedRepository.findRecentPostsByAuthorIds(pullAuthorIds, window);
+
+        List<Long> postIds = mergeByRecency(pushed, pulled).stream()
+                .map(TimelineSlot::postId)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+
+        long mergedTotal = feedTimelineRepository.countByOwnerIdAndAuthorIdNotIn(userId, pullAuthorIds)
+                + newsFeedRepository.countByUserIdIn(pullAuthorIds);
+
+        return new PageImpl<>(postIds, pageable, mergedTotal);
+    }
+
+    /**
+     * Получает порцию ленты пользователя после курсора без подсчета общего количества и смещения:
+     * каждая следующая порция читается по индексу таймлайна с позиции курсора.
+     * Курсор следующей порции берется из ключа сортировки последней строки порции
+     *
+     * @param userId идентификатор владельца ленты
+     * @param cursor позиция последнего полученного поста
+     * @param size размер порции
+     * @return порция идентификаторов постов ленты с курсором следующей порции
+     */
+    @Override
+    public TimelineSlice getTimelineSlice(Long userId, FeedCursor cursor, int size) {
+        Pageable lookahead = org.springframework.data.domain.PageRequest.of(0, size + 1);
+
+        if (cursor.isFirst()) {
+            rebuildTimeline(userId);
+        }
+
+        List<Long> pullAuthorIds = feedPullAuthorRepository.findPullAuthorIdsAmongFriends(userId);
+        List<TimelineSlot> slots;
+        if (pullAuthorIds.isEmpty()) {
+            slots = feedTimelineRepository.findByOwnerIdBefore(userId, cursor.getCreatedAt(), cursor.getPostId(), lookahead)
+                    .stream()
+                    .map(entry -> new TimelineSlot(entry.getPostId(), entry.getPostCreatedAt()))
+                    .collect(Collectors.toList());
+        } else {
+            List<FeedTimelineEntry> pushed = feedTimelineRepository.findByOwnerIdBeforeExcludingAuthors(
+                    userId, pullAuthorIds, cursor.getCreatedAt(), cursor.getPostId(), lookahead);
+            List<Post> pulled = newsFeedRepository.findRecentPostsByAuthorIdsBefore(
+                    pullAuthorIds, cursor.getCreatedAt(), cursor.getPostId(), lookahead);
+            slots = mergeByRecency(pushed, pulled);
+        }
+
+        boolean hasNext = slots.size() > size;
+        List<TimelineSlot> pageSlots = hasNext ? slots.subList(0, size) : slots;
+
+        FeedCursor nextCursor = null;
+        if (hasNext) {
+            TimelineSlot last = pageSlots.get(pageSlots.size() - 1);
+            nextCursor = new FeedCursor(last.createdAt(), last.postId());
+        }
+
+        List<Long> postIds = pageSlots.stream()
+                .map(TimelineSlot::postId)
+                .collect(Collectors.toList());
+        return new TimelineSlice(postIds, nextCursor);
+    }
+
+    /**
+     * Заполняет ленту пользователя последними постами его друзей, если владелец еще не отмечен заполненным.
+     * Решение принимается по отметке владельца, а не по пустоте ленты: рассылка постов и новые дружбы
+     * пишут только в ленты отмеченных владельцев. Отметка ставится до заполнения, чтобы посты,
+     * разосланные во время заполнения, попали в ленту, и снимается, если заполнение не удалось
+     *
+     * @param userId идентификатор владельца ленты
+     * @return количество добавленных записей
+     */
+    @Override
+    public int rebuildTimeline(Long userId) {
+        if (feedTimelineOwnerRepository.existsByOwnerId(userId)) {
+            return 0;
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", userId);
+        context.put("backfillSize", backfillSize);
+
+        centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_ЗАПОЛНЕНИЕ",
+                "Заполнение ленты пользователя постами друзей", context);
+
+        try {
+            if (feedTimelineOwnerRepository.markBackfilled(userId) == 0) {
+                return 0;
+            }
+
+            int inserted;
+            try {
+                inserted = feedTimelineRepository.backfillFromFriends(userId, backfillSize);
+            } catch (RuntimeException e) {
+                feedTimelineOwnerRepository.unmarkBackfilled(userId);
+                throw e;
+            }
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("inserted", inserted);
+
+            centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_ЗАПОЛНЕНА",
+                    "Лента пользователя заполнена постами друзей", successContext);
+
+            return inserted;
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_ТАЙМЛАЙН_ОШИБКА_ЗАПОЛНЕНИЯ",
+                    "Ошибка при заполнении ленты пользователя", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Применяет изменение дружбы к лентам обоих пользователей: при разрыве дружбы удаляет
+     * посты каждого из ленты другого, при новой дружбе добавляет последние посты друг друга.
+     * Ленты еще не заполненных владельцев пропускаются, новый друг попадет в них при первом заполнении
+     *
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     * @param friends true, если пользователи стали друзьями
+     */
+    @Override
+    public void applyFriendshipChange(Long userId1, Long userId2, boolean friends) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId1", userId1);
+        context.put("userId2", userId2);
+        context.put("friends", friends);
+
+        try {
+            if (friends) {
+                int inserted = feedTimelineRepository.backfillFromAuthor(userId1, userId2, backfillSize)
+                        + feedTimelineRepository.backfillFromAuthor(userId2, userId1, backfillSize);
+                context.put("inserted", inserted);
+            } else {
+                context.put("deleted", feedTimelineRepository.deleteBetween(userId1, userId2));
+            }
+
+            centralLogger.logInfo("ЛЕНТА_ТАЙМЛАЙН_ДРУЖБА_ПРИМЕНЕНА",
+                    "Изменение дружбы применено к лентам пользователей", context);
+        } catch (Exception e) {
+            centralLogger.logError("ЛЕНТА_ТАЙМЛАЙН_ОШИБКА_ДРУЖБЫ",
+                    "Ошибка при применении изменения дружбы к лентам", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Проверяет, переведен ли автор в режим подмешивания при чтении, и переводит его,
+     * если число друзей достигло порога. Перевод необратим, чтобы посты автора не терялись между режимами,
+     * и идемпотентен при параллельных публикациях одного автора
+     *
+     * @param authorId идентификатор автора
+     * @return true, если посты автора не раскладываются по лентам
+     */
+    private boolean isPullAuthor(Long authorId) {
+        if (feedPullAuthorRepository.existsByAuthorId(authorId)) {
+            return true;
+        }
+
+        if (fanOutThreshold <= 0) {
+            return false;
+        }
+
+        long friendCount = relationshipRepository.countFriendsByUserId(authorId, FriendshipStatus.ACCEPTED);
+        if (friendCount < fanOutThreshold) {
+            return false;
+        }
+
+        feedPullAuthorRepository.markPullAuthor(authorId, friendCount);
+        return true;
+    }
+
+    /**
+     * Объединяет записи таймлайна и свежие посты авторов без рассылки в порядке убывания даты
+     *
+     * @param pushed записи предвычисленной ленты
+     * @param pulled посты, подмешиваемые при чтении
+     * @return позиции постов в порядке ленты без повторов
+     */
+    private List<TimelineSlot> mergeByRecency(List<FeedTimelineEntry> pushed, List<Post> pulled) {
+        List<TimelineSlot> slots = new ArrayList<>(pushed.size() + pulled.size());
+        pushed.forEach(entry -> slots.add(new TimelineSlot(entry.getPostId(), entry.getPostCreatedAt())));
+        pulled.forEach(post -> slots.add(new TimelineSlot(post.getId(), post.getCreatedAt())));
+        slots.sort(RECENT_FIRST);
+
+        Set<Long> seen = new HashSet<>();
+        List<TimelineSlot> merged = new ArrayList<>(slots.size());
+        for (TimelineSlot slot : slots) {
+            if (seen.add(slot.postId())) {
+                merged.add(slot);
+            }
+        }
+        return merged;
+    }
+
+    private record TimelineSlot(Long postId, LocalDateTime createdAt) {
+    }
+}
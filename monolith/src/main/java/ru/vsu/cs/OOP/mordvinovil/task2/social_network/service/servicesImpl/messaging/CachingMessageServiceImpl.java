@@ -3,27 +3,37 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.mess
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.messaging.MessageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessagingEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.InboxService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageCacheService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.factory.MessageFactory;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.MessageValidator;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.MessageStatusValidator.isStatusAllowed;
@@ -37,11 +47,14 @@ public class CachingMessageServiceImpl implements MessageService {
     private final MessageValidator messageValidator;
     private final EntityUtils entityUtils;
     private final NotificationEventPublisherService notificationEventPublisherService;
+    private final MessagingEventPublisherService messagingEventPublisherService;
+    private final InboxService inboxService;
     private final MessageCacheService messageCacheService;
     private final CentralLogger centralLogger;
 
     /**
-     * Создает новое сообщение
+     * Создает новое сообщение. После фиксации транзакции сообщение доставляется
+     * получателю через WebSocket, поэтому клиенту не нужно опрашивать переписку
      *
      * @param request запрос на создание сообщения
      * @param currentUser текущий пользователь-отправитель
@@ -65,6 +78,7 @@ public class CachingMessageServiceImpl implements MessageService {
             User receiver = entityUtils.getUser(request.getReceiverUserId());
             Message message = messageFactory.createMessage(currentUser, receiver, request);
             Message savedMessage = messageRepository.save(message);
+            inboxService.recordMessageSent(savedMessage);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("messageId", savedMessage.getId());
@@ -72,12 +86,15 @@ public class CachingMessageServiceImpl implements MessageService {
             centralLogger.logInfo("СООБЩЕНИЕ_СОЗДАНО",
                     "Сообщение успешно создано", successContext);
 
-            messageCacheService.evictConversationCache(currentUser.getId(), receiver.getId());
+            messageCacheService.evictConversationTail(currentUser.getId(), receiver.getId());
 
             notificationEventPublisherService.publishMessageReceived(this, request.getReceiverUserId(),
                     currentUser.getId(), message.getContent());
 
-            return entityMapper.map(savedMessage, MessageResponse.class);
+            MessageResponse response = entityMapper.map(savedMessage, MessageResponse.class);
+            messagingEventPublisherService.publishMessageSent(this, receiver.getId(), response);
+
+            return response;
         } catch (Exception e) {
             centralLogger.logError("СООБЩЕНИЕ_ОШИБКА_СОЗДАНИЯ",
                     "Ошибка при создании сообщения", context, e);
@@ -117,7 +134,9 @@ public class CachingMessageServiceImpl implements MessageService {
     }
 
     /**
-     * Получает переписку между текущим пользователем и другим пользователем с кешированием
+     * Получает переписку между текущим пользователем и другим пользователем по номеру страницы.
+     * Страницы не кешируются: каждое новое сообщение сдвигает их все. Для кешируемой прокрутки
+     * используется {@link #getConversationHistory}
      *
      * @param otherUserId идентификатор другого пользователя
      * @param currentUser текущий пользователь
@@ -125,10 +144,6 @@ public class CachingMessageServiceImpl implements MessageService {
      * @return страница с сообщениями переписки
      */
     @Override
-    @Cacheable(
-            value = "conversation",
-            key = "'conv:' + #currentUser.id + ':' + #otherUserId + ':page:' + #pageRequest.pageNumber + ':size:' + #pageRequest.size"
-    )
     public PageResponse<MessageResponse> getConversation(Long otherUserId, User currentUser, PageRequest pageRequest) {
         Map<String, Object> context = new HashMap<>();
         context.put("currentUserId", currentUser.getId());
@@ -136,28 +151,100 @@ public class CachingMessageServiceImpl implements MessageService {
         context.put("page", pageRequest.getPageNumber());
         context.put("size", pageRequest.getSize());
 
-        centralLogger.logInfo("ПЕРЕПИСКА_ПОЛУЧЕНИЕ_С_КЕШИРОВАНИЕМ",
-                "Получение переписки с кешированием", context);
+        centralLogger.logInfo("ПЕРЕПИСКА_ПОЛУЧЕНИЕ_ПОСТРАНИЧНО",
+                "Получение переписки по номеру страницы", context);
 
         try {
             Long id = entityUtils.getUser(otherUserId).getId();
-            Page<Message> messages = messageRepository.findMessagesBetweenUsers(currentUser.getId(),
-                            id, pageRequest.toPageable())
+            Page<Message> messages = messageRepository.findByConversationId(
+                            Message.conversationIdOf(currentUser.getId(), id), pageRequest.toPageable())
                     .orElse(Page.empty());
 
             Map<String, Object> resultContext = new HashMap<>(context);
             resultContext.put("totalMessages", messages.getTotalElements());
             resultContext.put("currentPageMessages", messages.getContent().size());
 
-            centralLogger.logInfo("ПЕРЕПИСКА_ПОЛУЧЕНА_С_КЕШИРОВАНИЕМ",
-                    "Переписка успешно получена с кешированием", resultContext);
+            centralLogger.logInfo("ПЕРЕПИСКА_ПОЛУЧЕНА_ПОСТРАНИЧНО",
+                    "Переписка успешно получена по номеру страницы", resultContext);
 
             return PageResponse.of(messages.map(
                     message -> entityMapper.map(message, MessageResponse.class))
             );
         } catch (Exception e) {
-            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ПОЛУЧЕНИЯ_С_КЕШИРОВАНИЕМ",
-                    "Ошибка при получении переписки с кешированием", context, e);
+            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ПОЛУЧЕНИЯ_ПОСТРАНИЧНО",
+                    "Ошибка при получении переписки по номеру страницы", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Получает порцию переписки старше курсора без подсчета общего количества сообщений.
+     * Порции старше курсора не меняются при отправке новых сообщений и кешируются надолго,
+     * последняя порция кешируется отдельно и сбрасывается при каждом новом сообщении
+     *
+     * @param otherUserId идентификатор другого пользователя
+     * @param currentUser текущий пользователь
+     * @param beforeMessageId идентификатор сообщения-курсора или null для последних сообщений
+     * @param size размер порции
+     * @return порция сообщений от новых к старым с курсором следующей порции
+     */
+    @Override
+    @Caching(cacheable = {
+            @Cacheable(
+                    value = "conversation",
+                    key = "'conv:' + T(ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message).conversationIdOf(#currentUser.id, #otherUserId) + ':gen:' + @messageCacheServiceImpl.getConversationHistoryGeneration(#currentUser.id, #otherUserId) + ':before:' + #beforeMessageId + ':size:' + #size",
+                    condition = "#beforeMessageId != null"
+            ),
+            @Cacheable(
+                    value = "conversationTail",
+                    key = "'conv:' + T(ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message).conversationIdOf(#currentUser.id, #otherUserId) + ':tail:' + @messageCacheServiceImpl.getConversationTailGeneration(#currentUser.id, #otherUserId) + ':size:' + #size",
+                    condition = "#beforeMessageId == null"
+            )
+    })
+    public SliceResponse<MessageResponse> getConversationHistory(Long otherUserId, User currentUser,
+                                                                 Long beforeMessageId, Integer size) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentUserId", currentUser.getId());
+        context.put("otherUserId", otherUserId);
+        context.put("beforeMessageId", beforeMessageId);
+        context.put("size", size);
+
+        centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ПОЛУЧЕНИЕ_С_КЕШИРОВАНИЕМ",
+                "Получение истории переписки по курсору с кешированием", context);
+
+        try {
+            Long id = entityUtils.getUser(otherUserId).getId();
+            String conversationId = Message.conversationIdOf(currentUser.getId(), id);
+
+            Slice<Message> messages;
+            if (beforeMessageId == null) {
+                messages = messageRepository.findLatestInConversation(conversationId, Pageable.ofSize(size));
+            } else {
+                Message cursor = entityUtils.getMessage(beforeMessageId);
+                if (!conversationId.equals(cursor.getConversationId())) {
+                    throw new BadRequestException(ResponseMessageConstants.FAILURE_MESSAGE_CURSOR_INVALID);
+                }
+                messages = messageRepository.findInConversationBefore(conversationId, cursor.getCreatedAt(),
+                        cursor.getId(), Pageable.ofSize(size));
+            }
+
+            List<MessageResponse> content = messages.map(
+                    message -> entityMapper.map(message, MessageResponse.class)).getContent();
+            String nextCursor = messages.hasNext() && !content.isEmpty()
+                    ? String.valueOf(content.get(content.size() - 1).getId())
+                    : null;
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("currentSliceMessages", content.size());
+            resultContext.put("hasNext", messages.hasNext());
+
+            centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ПОЛУЧЕНА_С_КЕШИРОВАНИЕМ",
+                    "История переписки по курсору успешно получена с кешированием", resultContext);
+
+            return SliceResponse.of(content, size, nextCursor);
+        } catch (Exception e) {
+            centralLogger.logError("ИСТОРИЯ_ПЕРЕПИСКИ_ОШИБКА_ПОЛУЧЕНИЯ_С_КЕШИРОВАНИЕМ",
+                    "Ошибка при получении истории переписки по курсору с кешированием", context, e);
             throw e;
         }
     }
@@ -335,6 +422,69 @@ public class CachingMessageServiceImpl implements MessageService {
         }
     }
 
+    /**
+     * Помечает прочитанными все полученные сообщения переписки до указанного включительно.
+     * Статусы меняются одним запросом, после чего один раз сбрасывается кеш переписки, уменьшается счетчик
+     * непрочитанных во входящих и публикуется одно уведомление о прочтении
+     *
+     * @param otherUserId идентификатор отправителя сообщений
+     * @param currentUser текущий пользователь-получатель
+     * @param upToMessageId идентификатор последнего прочитанного сообщения или null для всей переписки
+     * @return количество помеченных сообщений
+     */
+    @Transactional
+    @Override
+    public ConversationReadResponse markConversationAsRead(Long otherUserId, User currentUser, Long upToMessageId) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentUserId", currentUser.getId());
+        context.put("otherUserId", otherUserId);
+        context.put("upToMessageId", upToMessageId);
+
+        centralLogger.logInfo("ПЕРЕПИСКА_ПОМЕТКА_ПРОЧИТАНО_С_КЕШИРОВАНИЕМ",
+                "Пометка переписки как прочитанной с кешированием", context);
+
+        try {
+            Long id = entityUtils.getUser(otherUserId).getId();
+            String conversationId = Message.conversationIdOf(currentUser.getId(), id);
+
+            if (upToMessageId != null) {
+                Message cursor = entityUtils.getMessage(upToMessageId);
+                if (!conversationId.equals(cursor.getConversationId())) {
+                    throw new BadRequestException(ResponseMessageConstants.FAILURE_MESSAGE_CURSOR_INVALID);
+                }
+            }
+
+            LocalDateTime readAt = LocalDateTime.now();
+            int readCount = messageRepository.markConversationStatusUpTo(conversationId, currentUser.getId(),
+                    upToMessageId != null ? upToMessageId : Long.MAX_VALUE, MessageStatus.READ, readAt);
+
+            if (readCount > 0) {
+                inboxService.recordConversationRead(currentUser.getId(), id, readCount);
+                messageCacheService.evictConversationCache(currentUser.getId(), id);
+                messagingEventPublisherService.publishMessagesRead(this, currentUser.getId(), id,
+                        upToMessageId, readCount);
+            }
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("readCount", readCount);
+
+            centralLogger.logInfo("ПЕРЕПИСКА_ПОМЕЧЕНА_ПРОЧИТАНО_С_КЕШИРОВАНИЕМ",
+                    "Переписка помечена как прочитанная с кешированием", resultContext);
+
+            return ConversationReadResponse.builder()
+                    .readerUserId(currentUser.getId())
+                    .peerUserId(id)
+                    .upToMessageId(upToMessageId)
+                    .readCount(readCount)
+                    .readAt(readAt)
+                    .build();
+        } catch (Exception e) {
+            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ПОМЕТКИ_ПРОЧИТАНО_С_КЕШИРОВАНИЕМ",
+                    "Ошибка при пометке переписки как прочитанной с кешированием", context, e);
+            throw e;
+        }
+    }
+
     /**
      * Редактирует существующее сообщение
      *
@@ -365,6 +515,7 @@ public class CachingMessageServiceImpl implements MessageService {
             message.setImageUrl(request.getImageUrl());
             message.setUpdatedAt(LocalDateTime.now());
             Message updatedMessage = messageRepository.save(message);
+            inboxService.recordMessageEdited(updatedMessage);
 
             messageCacheService.evictConversationCache(currentUser.getId(), message.getReceiver().getId());
 
@@ -403,6 +554,7 @@ public class CachingMessageServiceImpl implements MessageService {
             Long senderId = message.getSender().getId();
 
             messageRepository.delete(message);
+            inboxService.recordMessageDeleted(message);
 
             messageCacheService.evictConversationCache(currentUser.getId(),
                     currentUser.getId().equals(senderId) ? receiverId : senderId);
@@ -452,6 +604,12 @@ public class CachingMessageServiceImpl implements MessageService {
             message.setStatus(newStatus);
             message.setUpdatedAt(LocalDateTime.now());
             messageRepository.save(message);
+
+            if (newStatus == MessageStatus.READ) {
+                inboxService.recordMessageRead(message);
+                messagingEventPublisherService.publishMessagesRead(this, currentUser.getId(),
+                        message.getSender().getId(), message.getId(), 1);
+            }
         }
 
         return entityMapper.map(message, MessageResponse.class);
@@ -0,0 +1,168 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationSummaryResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.ConversationSummary;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ConversationSummaryRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.InboxService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Сводки переписок для входящих: по строке на пару владелец-собеседник с последним сообщением
+ * и количеством непрочитанных. Сводки обновляются сервисами сообщений в их же транзакции,
+ * поэтому входящие читаются одним индексным запросом без агрегации по сообщениям
+ */
+@Service
+@RequiredArgsConstructor
+public class InboxServiceImpl implements InboxService {
+    static final int PREVIEW_LENGTH = 100;
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final MessageRepository messageRepository;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Получает переписки пользователя от последней активной к самой давней
+     *
+     * @param currentUser текущий пользователь
+     * @param pageRequest параметры пагинации, сортировка фиксирована
+     * @return страница со сводками переписок
+     */
+    @Override
+    public PageResponse<ConversationSummaryResponse> getInbox(User currentUser, PageRequest pageRequest) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", currentUser.getId());
+        context.put("page", pageRequest.getPageNumber());
+        context.put("size", pageRequest.getSize());
+
+        centralLogger.logInfo("ВХОДЯЩИЕ_ПОЛУЧЕНИЕ",
+                "Получение входящих переписок", context);
+
+        try {
+            Page<ConversationSummary> summaries = conversationSummaryRepository.findInbox(currentUser.getId(),
+                    org.springframework.data.domain.PageRequest.of(pageRequest.getPageNumber(), pageRequest.getSize()));
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("totalConversations", summaries.getTotalElements());
+            resultContext.put("currentPageConversations", summaries.getContent().size());
+
+            centralLogger.logInfo("ВХОДЯЩИЕ_ПОЛУЧЕНЫ",
+                    "Входящие переписки успешно получены", resultContext);
+
+            return PageResponse.of(summaries.map(InboxServiceImpl::toResponse));
+        } catch (Exception e) {
+            centralLogger.logError("ВХОДЯЩИЕ_ОШИБКА_ПОЛУЧЕНИЯ",
+                    "Ошибка при получении входящих переписок", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Учитывает новое сообщение в сводках отправителя и получателя
+     *
+     * @param message сохраненное сообщение
+     */
+    @Override
+    public void recordMessageSent(Message message) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        String preview = previewOf(message);
+
+        conversationSummaryRepository.upsertLastMessage(senderId, receiverId, message.getConversationId(),
+                message.getId(), preview, message.getCreatedAt(), 0);
+        conversationSummaryRepository.upsertLastMessage(receiverId, senderId, message.getConversationId(),
+                message.getId(), preview, message.getCreatedAt(), 1);
+    }
+
+    /**
+     * Уменьшает счетчик непрочитанных получателя. Вызывается только при переходе сообщения в статус READ
+     *
+     * @param message прочитанное сообщение
+     */
+    @Override
+    public void recordMessageRead(Message message) {
+        conversationSummaryRepository.decrementUnread(message.getReceiver().getId(), message.getSender().getId(), 1);
+    }
+
+    /**
+     * Уменьшает счетчик непрочитанных получателя на количество сообщений, прочитанных пачкой
+     *
+     * @param readerId идентификатор прочитавшего пользователя
+     * @param senderId идентификатор отправителя прочитанных сообщений
+     * @param readCount количество сообщений, перешедших в статус READ
+     */
+    @Override
+    public void recordConversationRead(Long readerId, Long senderId, int readCount) {
+        if (readCount > 0) {
+            conversationSummaryRepository.decrementUnread(readerId, senderId, readCount);
+        }
+    }
+
+    /**
+     * Обновляет превью, если отредактировано последнее сообщение переписки
+     *
+     * @param message отредактированное сообщение
+     */
+    @Override
+    public void recordMessageEdited(Message message) {
+        conversationSummaryRepository.updatePreview(message.getConversationId(), message.getId(), previewOf(message));
+    }
+
+    /**
+     * Учитывает удаление сообщения: снимает его с непрочитанных и, если оно было последним,
+     * заменяет предыдущим сообщением переписки. Сводки переписки без сообщений удаляются
+     *
+     * @param message удаленное сообщение
+     */
+    @Override
+    public void recordMessageDeleted(Message message) {
+        if (message.getStatus() != MessageStatus.READ) {
+            conversationSummaryRepository.decrementUnread(message.getReceiver().getId(), message.getSender().getId(), 1);
+        }
+
+        Optional<Message> latest = messageRepository.findLatestInConversation(message.getConversationId(), Pageable.ofSize(2))
+                .stream()
+                .filter(candidate -> !candidate.getId().equals(message.getId()))
+                .findFirst();
+        if (latest.isEmpty()) {
+            conversationSummaryRepository.deleteByConversation(message.getConversationId());
+            return;
+        }
+
+        Message previous = latest.get();
+        conversationSummaryRepository.replaceLastMessage(message.getConversationId(), message.getId(),
+                previous.getId(), previewOf(previous), previous.getCreatedAt());
+    }
+
+    static String previewOf(Message message) {
+        String content = message.getContent();
+        if (content == null) {
+            return "";
+        }
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+
+    private static ConversationSummaryResponse toResponse(ConversationSummary summary) {
+        return ConversationSummaryResponse.builder()
+                .peerUserId(summary.getPeer().getId())
+                .peerUsername(summary.getPeer().getUsername())
+                .lastMessageId(summary.getLastMessageId())
+                .lastMessagePreview(summary.getLastMessagePreview())
+                .lastMessageAt(summary.getLastMessageAt())
+                .unreadCount(summary.getUnreadCount())
+                .build();
+    }
+}
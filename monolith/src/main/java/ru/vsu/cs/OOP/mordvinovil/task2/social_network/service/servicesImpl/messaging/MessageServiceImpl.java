@@ -4,25 +4,34 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.messaging.MessageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessagingEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.InboxService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.factory.MessageFactory;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.MessageValidator;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.MessageStatusValidator.isStatusAllowed;
@@ -37,10 +46,13 @@ public class MessageServiceImpl implements MessageService {
     private final MessageValidator messageValidator;
     private final EntityUtils entityUtils;
     private final NotificationEventPublisherService notificationEventPublisherService;
+    private final MessagingEventPublisherService messagingEventPublisherService;
+    private final InboxService inboxService;
     private final CentralLogger centralLogger;
 
     /**
-     * Создает новое сообщение
+     * Создает новое сообщение. После фиксации транзакции сообщение доставляется
+     * получателю через WebSocket, поэтому клиенту не нужно опрашивать переписку
      *
      * @param request запрос на создание сообщения
      * @param currentUser текущий пользователь-отправитель
@@ -64,6 +76,7 @@ public class MessageServiceImpl implements MessageService {
             User receiver = entityUtils.getUser(request.getReceiverUserId());
             Message message = messageFactory.createMessage(currentUser, receiver, request);
             Message savedMessage = messageRepository.save(message);
+            inboxService.recordMessageSent(savedMessage);
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("messageId", savedMessage.getId());
@@ -74,7 +87,10 @@ public class MessageServiceImpl implements MessageService {
             notificationEventPublisherService.publishMessageReceived(this, request.getReceiverUserId(),
                     currentUser.getId(), message.getContent());
 
-            return entityMapper.map(savedMessage, MessageResponse.class);
+            MessageResponse response = entityMapper.map(savedMessage, MessageResponse.class);
+            messagingEventPublisherService.publishMessageSent(this, receiver.getId(), response);
+
+            return response;
         } catch (Exception e) {
             centralLogger.logError("СООБЩЕНИЕ_ОШИБКА_СОЗДАНИЯ",
                     "Ошибка при создании сообщения", context, e);
@@ -134,8 +150,8 @@ public class MessageServiceImpl implements MessageService {
 
         try {
             Long id = entityUtils.getUser(otherUserId).getId();
-            Page<Message> messages = messageRepository.findMessagesBetweenUsers(currentUser.getId(),
-                            id, pageRequest.toPageable())
+            Page<Message> messages = messageRepository.findByConversationId(
+                            Message.conversationIdOf(currentUser.getId(), id), pageRequest.toPageable())
                     .orElse(Page.empty());
 
             Map<String, Object> resultContext = new HashMap<>(context);
@@ -155,6 +171,64 @@ public class MessageServiceImpl implements MessageService {
         }
     }
 
+    /**
+     * Получает порцию переписки старше курсора без подсчета общего количества сообщений
+     *
+     * @param otherUserId идентификатор другого пользователя
+     * @param currentUser текущий пользователь
+     * @param beforeMessageId идентификатор сообщения-курсора или null для последних сообщений
+     * @param size размер порции
+     * @return порция сообщений от новых к старым с курсором следующей порции
+     */
+    @Override
+    public SliceResponse<MessageResponse> getConversationHistory(Long otherUserId, User currentUser,
+                                                                 Long beforeMessageId, Integer size) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentUserId", currentUser.getId());
+        context.put("otherUserId", otherUserId);
+        context.put("beforeMessageId", beforeMessageId);
+        context.put("size", size);
+
+        centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ПОЛУЧЕНИЕ",
+                "Получение истории переписки по курсору", context);
+
+        try {
+            Long id = entityUtils.getUser(otherUserId).getId();
+            String conversationId = Message.conversationIdOf(currentUser.getId(), id);
+
+            Slice<Message> messages;
+            if (beforeMessageId == null) {
+                messages = messageRepository.findLatestInConversation(conversationId, Pageable.ofSize(size));
+            } else {
+                Message cursor = entityUtils.getMessage(beforeMessageId);
+                if (!conversationId.equals(cursor.getConversationId())) {
+                    throw new BadRequestException(ResponseMessageConstants.FAILURE_MESSAGE_CURSOR_INVALID);
+                }
+                messages = messageRepository.findInConversationBefore(conversationId, cursor.getCreatedAt(),
+                        cursor.getId(), Pageable.ofSize(size));
+            }
+
+            List<MessageResponse> content = messages.map(
+                    message -> entityMapper.map(message, MessageResponse.class)).getContent();
+            String nextCursor = messages.hasNext() && !content.isEmpty()
+                    ? String.valueOf(content.get(content.size() - 1).getId())
+                    : null;
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("currentSliceMessages", content.size());
+            resultContext.put("hasNext", messages.hasNext());
+
+            centralLogger.logInfo("ИСТОРИЯ_ПЕРЕПИСКИ_ПОЛУЧЕНА",
+                    "История переписки по курсору успешно получена", resultContext);
+
+            return SliceResponse.of(content, size, nextCursor);
+        } catch (Exception e) {
+            centralLogger.logError("ИСТОРИЯ_ПЕРЕПИСКИ_ОШИБКА_ПОЛУЧЕНИЯ",
+                    "Ошибка при получении истории переписки по курсору", context, e);
+            throw e;
+        }
+    }
+
     /**
      * Получает отправленные сообщения пользователя
      *
@@ -322,6 +396,68 @@ public class MessageServiceImpl implements MessageService {
         }
     }
 
+    /**
+     * Помечает прочитанными все полученные сообщения переписки до указанного включительно.
+     * Статусы меняются одним запросом, после чего уменьшается счетчик
+     * непрочитанных во входящих и публикуется одно уведомление о прочтении
+     *
+     * @param otherUserId идентификатор отправителя сообщений
+     * @param currentUser текущий пользователь-получатель
+     * @param upToMessageId идентификатор последнего прочитанного сообщения или null для всей переписки
+     * @return количество помеченных сообщений
+     */
+    @Transactional
+    @Override
+    public ConversationReadResponse markConversationAsRead(Long otherUserId, User currentUser, Long upToMessageId) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("currentUserId", currentUser.getId());
+        context.put("otherUserId", otherUserId);
+        context.put("upToMessageId", upToMessageId);
+
+        centralLogger.logInfo("ПЕРЕПИСКА_ПОМЕТКА_ПРОЧИТАНО",
+                "Пометка переписки как прочитанной", context);
+
+        try {
+            Long id = entityUtils.getUser(otherUserId).getId();
+            String conversationId = Message.conversationIdOf(currentUser.getId(), id);
+
+            if (upToMessageId != null) {
+                Message cursor = entityUtils.getMessage(upToMessageId);
+                if (!conversationId.equals(cursor.getConversationId())) {
+                    throw new BadRequestException(ResponseMessageConstants.FAILURE_MESSAGE_CURSOR_INVALID);
+                }
+            }
+
+            LocalDateTime readAt = LocalDateTime.now();
+            int readCount = messageRepository.markConversationStatusUpTo(conversationId, currentUser.getId(),
+                    upToMessageId != null ? upToMessageId : Long.MAX_VALUE, MessageStatus.READ, readAt);
+
+            if (readCount > 0) {
+                inboxService.recordConversationRead(currentUser.getId(), id, readCount);
+                messagingEventPublisherService.publishMessagesRead(this, currentUser.getId(), id,
+                        upToMessageId, readCount);
+            }
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("readCount", readCount);
+
+            centralLogger.logInfo("ПЕРЕПИСКА_ПОМЕЧЕНА_ПРОЧИТАНО",
+                    "Переписка помечена как прочитанная", resultContext);
+
+            return ConversationReadResponse.builder()
+                    .readerUserId(currentUser.getId())
+                    .peerUserId(id)
+                    .upToMessageId(upToMessageId)
+                    .readCount(readCount)
+                    .readAt(readAt)
+                    .build();
+        } catch (Exception e) {
+            centralLogger.logError("ПЕРЕПИСКА_ОШИБКА_ПОМЕТКИ_ПРОЧИТАНО",
+                    "Ошибка при пометке переписки как прочитанной", context, e);
+            throw e;
+        }
+    }
+
     /**
      * Редактирует существующее сообщение
      *
@@ -352,6 +488,7 @@ public class MessageServiceImpl implements MessageService {
             message.setImageUrl(request.getImageUrl());
             message.setUpdatedAt(LocalDateTime.now());
             Message updatedMessage = messageRepository.save(message);
+            inboxService.recordMessageEdited(updatedMessage);
 
             centralLogger.logInfo("СООБЩЕНИЕ_ОБНОВЛЕНО",
                     "Сообщение успешно обновлено", context);
@@ -384,6 +521,7 @@ public class MessageServiceImpl implements MessageService {
             Message message = entityUtils.getMessage(messageId);
             messageValidator.validateMessageOwnership(currentUser, message);
             messageRepository.delete(message);
+            inboxService.recordMessageDeleted(message);
 
             centralLogger.logInfo("СООБЩЕНИЕ_УДАЛЕНО",
                     "Сообщение успешно удалено", context);
@@ -430,6 +568,12 @@ public class MessageServiceImpl implements MessageService {
             message.setStatus(newStatus);
             message.setUpdatedAt(LocalDateTime.now());
             messageRepository.save(message);
+
+            if (newStatus == MessageStatus.READ) {
+                inboxService.recordMessageRead(message);
+                messagingEventPublisherService.publishMessagesRead(this, currentUser.getId(),
+                        message.getSender().getId(), message.getId(), 1);
+            }
         }
 
         return entityMapper.map(message, MessageResponse.class);
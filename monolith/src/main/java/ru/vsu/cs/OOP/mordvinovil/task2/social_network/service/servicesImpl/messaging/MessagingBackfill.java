@@ -0,0 +1,71 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ConversationSummaryRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Дополняет данные сообщений, сохраненных до появления идентификатора переписки и сводок входящих.
+ * Сначала заполняются идентификаторы переписок, затем по ним строятся недостающие сводки.
+ * Новые сообщения получают и то и другое при создании, поэтому после первого запуска
+ * обновления затрагивают ноль строк, а агрегация сводок пропускается проверкой наличия сообщения без сводки
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagingBackfill {
+    private final MessageRepository messageRepository;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Заполняет недостающие идентификаторы переписок и сводки входящих после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfillConversationIds();
+        backfillInbox();
+    }
+
+    private void backfillConversationIds() {
+        Map<String, Object> context = new HashMap<>();
+
+        try {
+            int updated = messageRepository.backfillConversationIds();
+            if (updated > 0) {
+                context.put("updatedMessages", updated);
+                centralLogger.logInfo("СООБЩЕНИЯ_ИДЕНТИФИКАТОРЫ_ПЕРЕПИСОК_ЗАПОЛНЕНЫ",
+                        "Заполнены идентификаторы переписок у существующих сообщений", context);
+            }
+        } catch (Exception e) {
+            centralLogger.logError("СООБЩЕНИЯ_ОШИБКА_ЗАПОЛНЕНИЯ_ИДЕНТИФИКАТОРОВ_ПЕРЕПИСОК",
+                    "Ошибка при заполнении идентификаторов переписок", context, e);
+        }
+    }
+
+    private void backfillInbox() {
+        Map<String, Object> context = new HashMap<>();
+
+        try {
+            if (!conversationSummaryRepository.existsMessageWithoutSummary()) {
+                return;
+            }
+
+            int created = conversationSummaryRepository.backfillFromMessages();
+            if (created > 0) {
+                context.put("createdSummaries", created);
+                centralLogger.logInfo("ВХОДЯЩИЕ_СВОДКИ_ЗАПОЛНЕНЫ",
+                        "Построены сводки входящих для существующих переписок", context);
+            }
+        } catch (Exception e) {
+            centralLogger.logError("ВХОДЯЩИЕ_ОШИБКА_ЗАПОЛНЕНИЯ_СВОДОК",
+                    "Ошибка при построении сводок входящих", context, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.TypingResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.websocket.WebSocketMessage;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.message.SelfMessageException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageDeliveryService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Доставка сообщений, уведомлений о прочтении и индикаторов набора через STOMP-брокер.
+ * Все кадры идут в персональную очередь пользователя и различаются полем type,
+ * поэтому клиенту достаточно одной подписки вместо опроса переписки
+ */
+@Service
+@RequiredArgsConstructor
+public class WebSocketMessageDeliveryServiceImpl implements MessageDeliveryService {
+    static final String MESSAGES_DESTINATION = "/queue/messages";
+    static final String MESSAGE_TYPE = "MESSAGE";
+    static final String READ_RECEIPT_TYPE = "READ_RECEIPT";
+    static final String TYPING_TYPE = "TYPING";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final EntityUtils entityUtils;
+    private final CentralLogger centralLogger;
+
+    /**
+     * Доставляет новое сообщение получателю
+     *
+     * @param targetUserId идентификатор получателя
+     * @param message созданное сообщение
+     */
+    @Override
+    public void deliverMessage(Long targetUserId, MessageResponse message) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("messageId", message.getId());
+        send(targetUserId, WebSocketMessage.success(MESSAGE_TYPE, message), context);
+    }
+
+    /**
+     * Доставляет отправителю уведомление о прочтении его сообщений
+     *
+     * @param targetUserId идентификатор отправителя прочитанных сообщений
+     * @param receipt данные о прочтении
+     */
+    @Override
+    public void deliverReadReceipt(Long targetUserId, ConversationReadResponse receipt) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("readerUserId", receipt.getReaderUserId());
+        context.put("readCount", receipt.getReadCount());
+        send(targetUserId, WebSocketMessage.success(READ_RECEIPT_TYPE, receipt), context);
+    }
+
+    /**
+     * Сообщает собеседнику, что текущий пользователь начал или перестал набирать сообщение.
+     * Индикатор не сохраняется и не кешируется
+     *
+     * @param receiverUserId идентификатор собеседника
+     * @param currentUser текущий пользователь
+     * @param typing true если пользователь набирает сообщение
+     */
+    @Override
+    public void sendTyping(Long receiverUserId, User currentUser, boolean typing) {
+        Long id = entityUtils.getUser(receiverUserId).getId();
+        if (currentUser.getId().equals(id)) {
+            throw new SelfMessageException(ResponseMessageConstants.FAILURE_CREATE_SELF_MESSAGE);
+        }
+
+        TypingResponse response = TypingResponse.builder()
+                .senderUserId(currentUser.getId())
+                .senderUsername(currentUser.getUsername())
+                .typing(typing)
+                .build();
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("senderUserId", currentUser.getId());
+        context.put("typing", typing);
+        send(id, WebSocketMessage.success(TYPING_TYPE, response), context);
+    }
+
+    /**
+     * Отправляет кадр в очередь сообщений пользователя. Ошибка доставки не прерывает
+     * вызывающую операцию: клиент получит данные при следующем чтении переписки
+     */
+    private void send(Long targetUserId, WebSocketMessage<?> frame, Map<String, Object> context) {
+        context.put("targetUserId", targetUserId);
+        context.put("frameType", frame.getType());
+
+        try {
+            messagingTemplate.convertAndSendToUser(targetUserId.toString(), MESSAGES_DESTINATION, frame);
+
+            centralLogger.logInfo("WEB_SOCKET_СООБЩЕНИЯ_КАДР_ОТПРАВЛЕН",
+                    "Кадр переписки отправлен через WebSocket", context);
+        } catch (Exception e) {
+            centralLogger.logError("WEB_SOCKET_СООБЩЕНИЯ_ОШИБКА_ОТПРАВКИ",
+                    "Ошибка при отправке кадра переписки через WebSocket", context, e);
+        }
+    }
+}
@@ -1,66 +1,133 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging.cache;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.MessageCacheService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MessageCacheServiceImpl implements MessageCacheService {
+    @Value("${cache.eviction.batch-size:500}")
+    private int evictionBatchSize;
+
+    @Value("${cache.eviction.scan-count:1000}")
+    private int scanCount;
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final CentralLogger centralLogger;
 
-    private static final String CACHE_KEY_PREFIX = "conversation::";
+    private static final String CONVERSATION_SEGMENT = "::conv:";
+    private static final String CONVERSATION_KEY_PATTERN = "conversation*" + CONVERSATION_SEGMENT;
+    private static final String TAIL_GENERATION_KEY_PREFIX = "messageTailGeneration::conv:";
+    private static final String HISTORY_GENERATION_KEY_PREFIX = "messageHistoryGeneration::conv:";
+
+    public MessageCacheServiceImpl(RedisTemplate<String, Object> redisTemplate, CentralLogger centralLogger) {
+        this.redisTemplate = redisTemplate;
+        this.centralLogger = centralLogger;
+    }
 
     /**
-     * Очищает кеш переписки между двумя пользователями
+     * Инвалидирует кеш переписки между двумя пользователями: и неизменяемые порции истории, и последнюю порцию.
+     * Нужна, когда меняются уже отправленные сообщения (редактирование, удаление, смена статуса).
+     * Оба счетчика поколения увеличиваются после фиксации транзакции, без обхода ключей:
+     * порции со старыми поколениями больше не читаются и истекают по TTL
      *
      * @param userId1 идентификатор первого пользователя
      * @param userId2 идентификатор второго пользователя
      */
     @Override
     public void evictConversationCache(Long userId1, Long userId2) {
+        afterCommit(() -> incrementConversationGenerations(userId1, userId2));
+    }
+
+    private void incrementConversationGenerations(Long userId1, Long userId2) {
         Map<String, Object> context = new HashMap<>();
         context.put("userId1", userId1);
         context.put("userId2", userId2);
 
-        centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИСТКА_ДВОИХ",
-                "Очистка кеша переписки между двумя пользователями", context);
-
         try {
-            String pattern1 = CACHE_KEY_PREFIX + "conv:" + userId1 + ":" + userId2 + "*";
-            String pattern2 = CACHE_KEY_PREFIX + "conv:" + userId2 + ":" + userId1 + "*";
+            redisTemplate.opsForValue().increment(historyGenerationKey(userId1, userId2));
+            redisTemplate.opsForValue().increment(tailGenerationKey(userId1, userId2));
 
-            Set<String> keys1 = redisTemplate.keys(pattern1);
-            Set<String> keys2 = redisTemplate.keys(pattern2);
+            centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИЩЕН_ДВОИХ",
+                    "Поколения кеша переписки двух пользователей увеличены", context);
+        } catch (Exception e) {
+            centralLogger.logError("КЕШ_ПЕРЕПИСКИ_ОШИБКА_ОЧИСТКИ_ДВОИХ",
+                    "Ошибка при очистке кеша переписки для двух пользователей", context, e);
+        }
+    }
 
-            int totalDeleted = 0;
-            if (keys1 != null && !keys1.isEmpty()) {
-                redisTemplate.delete(keys1);
-                totalDeleted += keys1.size();
-            }
-            if (keys2 != null && !keys2.isEmpty()) {
-                redisTemplate.delete(keys2);
-                totalDeleted += keys2.size();
-            }
+    /**
+     * Получает поколение последней порции переписки, входящее в ключ ее кеша
+     *
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     * @return номер поколения, 0 если в переписку еще не писали после старта кеша
+     */
+    @Override
+    public long getConversationTailGeneration(Long userId1, Long userId2) {
+        return readGeneration(tailGenerationKey(userId1, userId2));
+    }
 
-            Map<String, Object> successContext = new HashMap<>(context);
-            successContext.put("deletedKeysCount", totalDeleted);
+    /**
+     * Получает поколение порций истории переписки старше курсора, входящее в ключ их кеша
+     *
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     * @return номер поколения, 0 если сообщения переписки еще не менялись после старта кеша
+     */
+    @Override
+    public long getConversationHistoryGeneration(Long userId1, Long userId2) {
+        return readGeneration(historyGenerationKey(userId1, userId2));
+    }
 
-            centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИЩЕН_ДВОИХ",
-                    "Кеш переписки очищен для двух пользователей", successContext);
+    /**
+     * Инвалидирует только последнюю порцию переписки одним INCR счетчика поколения.
+     * Новое сообщение не меняет порции старше курсора, поэтому они остаются в кеше.
+     * Внутри транзакции счетчик увеличивается после ее фиксации, иначе параллельное чтение
+     * успело бы закешировать порцию без нового сообщения под уже новым поколением
+     *
+     * @param userId1 идентификатор первого пользователя
+     * @param userId2 идентификатор второго пользователя
+     */
+    @Override
+    public void evictConversationTail(Long userId1, Long userId2) {
+        afterCommit(() -> incrementTailGeneration(userId1, userId2));
+    }
+
+    private void incrementTailGeneration(Long userId1, Long userId2) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId1", userId1);
+        context.put("userId2", userId2);
+
+        try {
+            Long generation = redisTemplate.opsForValue().increment(tailGenerationKey(userId1, userId2));
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("generation", generation);
 
+            centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ПОСЛЕДНЯЯ_ПОРЦИЯ_ОЧИЩЕНА",
+                    "Поколение последней порции переписки увеличено", successContext);
         } catch (Exception e) {
-            centralLogger.logError("КЕШ_ПЕРЕПИСКИ_ОШИБКА_ОЧИСТКИ_ДВОИХ",
-                    "Ошибка при очистке кеша переписки для двух пользователей", context, e);
+            centralLogger.logError("КЕШ_ПЕРЕПИСКИ_ОШИБКА_ОЧИСТКИ_ПОСЛЕДНЕЙ_ПОРЦИИ",
+                    "Ошибка при очистке последней порции переписки", context, e);
         }
     }
 
@@ -71,31 +138,127 @@ public class MessageCacheServiceImpl implements MessageCacheService {
      */
     @Override
     public void evictConversationCacheForUser(Long userId) {
+        evictConversationCacheForUsers(List.of(userId));
+    }
+
+    /**
+     * Очищает кеш всех переписок, в которых участвует хотя бы один из пользователей.
+     * Ключи находятся одним неблокирующим проходом SCAN и удаляются через UNLINK пачками ограниченного размера
+     *
+     * @param userIds идентификаторы пользователей
+     */
+    @Override
+    public void evictConversationCacheForUsers(Collection<Long> userIds) {
         Map<String, Object> context = new HashMap<>();
-        context.put("userId", userId);
+        context.put("userIdsCount", userIds.size());
+
+        centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИСТКА_ПОЛЬЗОВАТЕЛЕЙ",
+                "Очистка кеша переписки для пользователей", context);
 
-        centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИСТКА_ПОЛЬЗОВАТЕЛЯ",
-                "Очистка кеша переписки для пользователя", context);
+        if (userIds.isEmpty()) {
+            return;
+        }
 
         try {
-            String pattern = CACHE_KEY_PREFIX + "conv:" + userId + "*";
-            Set<String> keys = redisTemplate.keys(pattern);
+            Set<String> participants = new HashSet<>();
+            userIds.forEach(userId -> participants.add(String.valueOf(userId)));
 
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
+            int totalDeleted = scanAndUnlink(CONVERSATION_KEY_PATTERN + "*",
+                    key -> involvesAny(key, participants));
 
-                Map<String, Object> successContext = new HashMap<>(context);
-                successContext.put("deletedKeysCount", keys.size());
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("deletedKeysCount", totalDeleted);
 
-                centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИЩЕН_ПОЛЬЗОВАТЕЛЯ",
-                        "Кеш переписки очищен для пользователя", successContext);
-            } else {
-                centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_НЕ_НАЙДЕН_ПОЛЬЗОВАТЕЛЯ",
-                        "Кеш переписки не найден для пользователя", context);
-            }
+            centralLogger.logInfo("КЕШ_ПЕРЕПИСКИ_ОЧИЩЕН_ПОЛЬЗОВАТЕЛЕЙ",
+                    "Кеш переписки очищен для пользователей", successContext);
         } catch (Exception e) {
-            centralLogger.logError("КЕШ_ПЕРЕПИСКИ_ОШИБКА_ОЧИСТКИ_ПОЛЬЗОВАТЕЛЯ",
-                    "Ошибка при очистке кеша переписки для пользователя", context, e);
+            centralLogger.logError("КЕШ_ПЕРЕПИСКИ_ОШИБКА_ОЧИСТКИ_ПОЛЬЗОВАТЕЛЕЙ",
+                    "Ошибка при очистке кеша переписки для пользователей", context, e);
+        }
+    }
+
+    /**
+     * Проходит ключи по шаблону курсором SCAN и удаляет подходящие через UNLINK пачками
+     *
+     * @param pattern шаблон ключей
+     * @param filter дополнительная проверка ключа на стороне приложения
+     * @return количество удаленных ключей
+     */
+    private int scanAndUnlink(String pattern, Predicate<String> filter) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(scanCount).build();
+        List<String> batch = new ArrayList<>(evictionBatchSize);
+        int deleted = 0;
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!filter.test(key)) {
+                    continue;
+                }
+
+                batch.add(key);
+                if (batch.size() >= evictionBatchSize) {
+                    deleted += unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            deleted += unlink(batch);
+        }
+        return deleted;
+    }
+
+    /**
+     * Выполняет действие после фиксации текущей транзакции или сразу, если транзакции нет
+     *
+     * @param action действие над кешем
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private int unlink(List<String> keys) {
+        Long unlinked = redisTemplate.unlink(keys);
+        return unlinked != null ? unlinked.intValue() : 0;
+    }
+
+    private long readGeneration(String key) {
+        Object generation = redisTemplate.opsForValue().get(key);
+        if (generation == null) {
+            return 0L;
+        }
+        return generation instanceof Number number ? number.longValue() : Long.parseLong(generation.toString());
+    }
+
+    private String tailGenerationKey(Long userId1, Long userId2) {
+        return TAIL_GENERATION_KEY_PREFIX + Message.conversationIdOf(userId1, userId2);
+    }
+
+    private String historyGenerationKey(Long userId1, Long userId2) {
+        return HISTORY_GENERATION_KEY_PREFIX + Message.conversationIdOf(userId1, userId2);
+    }
+
+    /**
+     * Проверяет, участвует ли кто-то из пользователей в переписке ключа вида {cache}::conv:{a}:{b}:...
+     */
+    private boolean involvesAny(String key, Set<String> participants) {
+        int segmentIndex = key.indexOf(CONVERSATION_SEGMENT);
+        if (segmentIndex < 0) {
+            return false;
         }
+        String[] parts = key.substring(segmentIndex + CONVERSATION_SEGMENT.length()).split(":", 3);
+        return parts.length >= 2 && (participants.contains(parts[0]) || participants.contains(parts[1]));
     }
-}
\ No newline at end of file
+}
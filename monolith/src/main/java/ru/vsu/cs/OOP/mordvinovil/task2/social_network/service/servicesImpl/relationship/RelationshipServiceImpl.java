@@ -11,6 +11,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Relationship;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.relationship.RelationshipNotFoundException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
@@ -34,6 +35,7 @@ public class RelationshipServiceImpl  implements RelationshipService {
     private final RelationshipFactory relationshipFactory;
     private final RelationshipValidator relationshipValidator;
     private final NotificationEventPublisherService notificationEventPublisherService;
+    private final FriendshipEventPublisherService friendshipEventPublisherService;
     private final CentralLogger centralLogger;
 
     /**
@@ -200,6 +202,7 @@ public class RelationshipServiceImpl  implements RelationshipService {
                     .orElseGet(() -> relationshipFactory.createBlockedRelationship(currentUser, targetUser));
 
             Relationship savedRelationship = relationshipRepository.save(relationship);
+            friendshipEventPublisherService.publishFriendshipRemoved(this, currentUser.getId(), targetUser.getId());
 
             Map<String, Object> successContext = new HashMap<>(context);
             successContext.put("relationshipId", savedRelationship.getId());
@@ -237,6 +240,7 @@ public class RelationshipServiceImpl  implements RelationshipService {
             notificationEventPublisherService.publishFriendRequestAccepted(this, request.getTargetUserId(), currentUser.getId());
 
             RelationshipResponse response = changeRelationshipStatus(request, FriendshipStatus.ACCEPTED, currentUser);
+            friendshipEventPublisherService.publishFriendshipAdded(this, currentUser.getId(), request.getTargetUserId());
 
             centralLogger.logInfo("ЗАПРОС_ДРУЖБЫ_ПРИНЯТ",
                     "Запрос на дружбу успешно принят", context);
@@ -269,6 +273,7 @@ public class RelationshipServiceImpl  implements RelationshipService {
             relationshipValidator.validateStatusChange(request, currentUser);
 
             RelationshipResponse response = changeRelationshipStatus(request, FriendshipStatus.DECLINED, currentUser);
+            friendshipEventPublisherService.publishFriendshipRemoved(this, currentUser.getId(), request.getTargetUserId());
 
             centralLogger.logInfo("ЗАПРОС_ДРУЖБЫ_ОТКЛОНЕН",
                     "Запрос на дружбу успешно отклонен", context);
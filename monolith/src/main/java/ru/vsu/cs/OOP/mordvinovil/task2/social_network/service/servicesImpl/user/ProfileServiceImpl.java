@@ -8,6 +8,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.profile.Profil
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.profile.ProfileResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ProfileRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.user.ProfileService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.storage.FileStorageServiceImpl;
@@ -32,6 +33,7 @@ public class ProfileServiceImpl implements ProfileService {
     private final ProfileAgeCalculator ageCalculator;
     private final ProfileValidator profileValidator;
     private final EntityUtils entityUtils;
+    private final CacheEventPublisherService cacheEventPublisherService;
     private final CentralLogger centralLogger;
 
     /**
@@ -244,6 +246,7 @@ public class ProfileServiceImpl implements ProfileService {
             updateProfileFromRequest(profile, user, request);
 
             Profile updatedProfile = profileRepository.save(profile);
+            cacheEventPublisherService.publishProfileUpdated(this, updatedProfile, user.getId());
 
             centralLogger.logInfo("ПРОФИЛЬ_ОБНОВЛЕН",
                     "Данные профиля успешно обновлены", context);
@@ -7,20 +7,33 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipS
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.LikeRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.UserCountProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.sketch.FriendSetSketchIndex;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public final class JpaSocialInteractionCalculator implements SocialInteractionCalculator {
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final RelationshipRepository relationshipRepository;
     private final LikeRepository likeRepository;
     private final CommentRepository commentRepository;
+    private final FriendSetSketchIndex sketchIndex;
 
     /**
-     * Вычисляет количество общих друзей между двумя пользователями
+     * Вычисляет количество общих друзей между двумя пользователями. При доступном графе в памяти
+     * используется оценка по MinHash-скетчам, иначе множества друзей загружаются из базы
      *
      * @param user1 идентификатор первого пользователя
      * @param user2 идентификатор второго пользователя
@@ -30,6 +43,9 @@ public final class JpaSocialInteractionCalculator implements SocialInteractionCa
     public int calculateMutualFriendsCount(Long user1, Long user2) {
         if (user1.equals(user2)) return 0;
 
+        Optional<Integer> estimate = sketchIndex.estimateMutualFriends(user1, user2);
+        if (estimate.isPresent()) return estimate.get();
+
         Set<Long> friends1 = relationshipRepository.findFriendIdsByUserId(user1, FriendshipStatus.ACCEPTED);
         Set<Long> friends2 = relationshipRepository.findFriendIdsByUserId(user2, FriendshipStatus.ACCEPTED);
 
@@ -63,4 +79,80 @@ public final class JpaSocialInteractionCalculator implements SocialInteractionCa
         if (user1.equals(user2)) return 0;
         return commentRepository.countCommonCommentLikes(user1, user2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Вычисляет количество общих друзей пользователя с каждым кандидатом. При доступном графе в памяти
+     * используются MinHash-скетчи, иначе выполняется сгруппированный запрос на каждую порцию кандидатов
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return количество общих друзей по кандидату, кандидаты без общих друзей отсутствуют
+     */
+    @Override
+    public Map<Long, Integer> calculateMutualFriendsCounts(Long userId, Collection<Long> candidateIds) {
+        if (candidateIds.isEmpty()) return Map.of();
+
+        Optional<Map<Long, Integer>> estimates = sketchIndex.estimateMutualFriends(userId, candidateIds);
+        if (estimates.isPresent()) return estimates.get();
+
+        return countInChunks(userId, candidateIds, chunk -> relationshipRepository.countMutualFriendsByCandidates(
+                userId, chunk, FriendshipStatus.ACCEPTED.name()));
+    }
+
+    /**
+     * Вычисляет количество общих лайков на постах пользователя с каждым кандидатом одним запросом на порцию кандидатов
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return количество общих лайков по кандидату, кандидаты без общих лайков отсутствуют
+     */
+    @Override
+    public Map<Long, Integer> calculateCommonLikesOnPostCounts(Long userId, Collection<Long> candidateIds) {
+        if (candidateIds.isEmpty()) return Map.of();
+        return countInChunks(userId, candidateIds, chunk -> likeRepository.countCommonLikesByCandidates(userId, chunk));
+    }
+
+    /**
+     * Вычисляет количество общих лайков на комментариях пользователя с каждым кандидатом одним запросом на порцию кандидатов
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return количество общих лайков по кандидату, кандидаты без общих лайков отсутствуют
+     */
+    @Override
+    public Map<Long, Integer> calculateCommonLikesOnCommentCounts(Long userId, Collection<Long> candidateIds) {
+        if (candidateIds.isEmpty()) return Map.of();
+        return countInChunks(userId, candidateIds,
+                chunk -> commentRepository.countCommonCommentLikesByCandidates(userId, chunk));
+    }
+
+    /**
+     * Выполняет сгруппированный запрос порциями кандидатов, чтобы список в IN не рос вместе с числом кандидатов.
+     * Порции не пересекаются, поэтому результаты объединяются без суммирования
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @param query запрос для одной порции кандидатов
+     * @return значения по кандидату из всех порций
+     */
+    private Map<Long, Integer> countInChunks(Long userId, Collection<Long> candidateIds,
+                                             Function<List<Long>, List<UserCountProjection>> query) {
+        List<Long> ids = new ArrayList<>(candidateIds);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            counts.putAll(toCounts(userId, query.apply(chunk)));
+        }
+        return counts;
+    }
+
+    private Map<Long, Integer> toCounts(Long userId, List<UserCountProjection> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (UserCountProjection row : rows) {
+            if (!row.getUserId().equals(userId)) {
+                counts.put(row.getUserId(), row.getCount().intValue());
+            }
+        }
+        return counts;
+    }
+}
@@ -1,7 +1,13 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.calculator;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface SocialInteractionCalculator {
     int calculateMutualFriendsCount(Long user1, Long user2);
     int calculateCommonLikesOnPostCount(Long user1, Long user2);
     int calculateCommonLikesOnCommentCount(Long user1, Long user2);
-}
\ No newline at end of file
+    Map<Long, Integer> calculateMutualFriendsCounts(Long userId, Collection<Long> candidateIds);
+    Map<Long, Integer> calculateCommonLikesOnPostCounts(Long userId, Collection<Long> candidateIds);
+    Map<Long, Integer> calculateCommonLikesOnCommentCounts(Long userId, Collection<Long> candidateIds);
+}
@@ -1,24 +1,71 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.SocialNode;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.ConnectionStrengthCalculator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public final class DijkstraSocialGraphService implements SocialGraphService {
+    private static final double MIN_BUCKET_WIDTH = 0.05;
+    private static final int EXPANSION_GRAIN = 16;
+
+    @Value("${recommendation.graph.parallel.enabled:true}")
+    private boolean parallelEnabled;
+
+    @Value("${recommendation.graph.parallel.parallelism:0}")
+    private int parallelism;
+
+    @Value("${recommendation.graph.parallel.frontier-threshold:64}")
+    private int frontierThreshold;
+
     private final RelationshipRepository relationshipRepository;
     private final ConnectionStrengthCalculator strengthCalculator;
+    private final FriendshipGraphProvider graphProvider;
+    private final ProfileAttributeProvider profileAttributeProvider;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void startPool() {
+        if (!parallelEnabled) {
+            return;
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("social-graph-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void stopPool() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
 
     /**
-     * Находит социальные расстояния от пользователя до других пользователей с использованием алгоритма Дейкстры
+     * Находит социальные расстояния от пользователя до других пользователей.
+     * Соседи берутся из графа дружбы в памяти, база данных используется только пока граф не загружен.
+     * При включенном параллельном режиме граф обходится дельта-шагами на выделенном пуле fork/join,
+     * иначе используется последовательный алгоритм Дейкстры; результаты обоих режимов совпадают
      *
      * @param startUserId идентификатор начального пользователя
      * @param maxDepth максимальная глубина поиска
@@ -26,6 +73,195 @@ public final class DijkstraSocialGraphService implements SocialGraphService {
      */
     @Override
     public Map<Long, Double> findSocialDistances(Long startUserId, int maxDepth) {
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        if (graph == null) {
+            return findSocialDistancesInDatabase(startUserId, maxDepth);
+        }
+        return pool != null
+                ? findSocialDistancesInParallel(graph, startUserId, maxDepth)
+                : findSocialDistancesInGraph(graph, startUserId, maxDepth);
+    }
+
+    /**
+     * Находит социальные расстояния сразу от нескольких пользователей. Каждый источник
+     * обходится последовательным алгоритмом Дейкстры, источники распределяются по потокам пула.
+     * Пока граф не загружен, источники обходятся по очереди, чтобы не занимать все соединения с базой
+     *
+     * @param startUserIds идентификаторы начальных пользователей
+     * @param maxDepth максимальная глубина поиска
+     * @return карты социальных расстояний по начальному пользователю
+     */
+    @Override
+    public Map<Long, Map<Long, Double>> findSocialDistances(Collection<Long> startUserIds, int maxDepth) {
+        Map<Long, Map<Long, Double>> result = new HashMap<>(startUserIds.size() * 2);
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        if (graph == null || pool == null) {
+            for (Long startUserId : startUserIds) {
+                result.put(startUserId, findSocialDistances(startUserId, maxDepth));
+            }
+            return result;
+        }
+
+        Map<Long, ForkJoinTask<Map<Long, Double>>> tasks = new LinkedHashMap<>();
+        for (Long startUserId : startUserIds) {
+            tasks.computeIfAbsent(startUserId, id -> pool.submit(() -> {
+                try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+                    return findSocialDistancesInGraph(graph, id, maxDepth);
+                }
+            }));
+        }
+        for (Map.Entry<Long, ForkJoinTask<Map<Long, Double>>> task : tasks.entrySet()) {
+            result.put(task.getKey(), task.getValue().join());
+        }
+        return result;
+    }
+
+    /**
+     * Находит социальные расстояния последовательным алгоритмом Дейкстры в вызывающем потоке,
+     * не занимая общий пул обхода графа. Используется фоновыми задачами со своим пулом и ограничением скорости
+     *
+     * @param startUserId идентификатор начального пользователя
+     * @param maxDepth максимальная глубина поиска
+     * @return карта социальных расстояний (идентификатор пользователя -> расстояние)
+     */
+    @Override
+    public Map<Long, Double> findSocialDistancesSequentially(Long startUserId, int maxDepth) {
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        if (graph == null) {
+            return findSocialDistancesInDatabase(startUserId, maxDepth);
+        }
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            return findSocialDistancesInGraph(graph, startUserId, maxDepth);
+        }
+    }
+
+    private Map<Long, Double> findSocialDistancesInGraph(FriendshipGraphSnapshot graph, long startUserId, int maxDepth) {
+        Map<Long, Double> distances = new HashMap<>();
+        VisitedSet visited = new VisitedSet(graph.base());
+        PriorityQueue<SocialNode> pq = new PriorityQueue<>();
+
+        distances.put(startUserId, 0.0);
+        pq.offer(new SocialNode(startUserId, 0.0));
+
+        while (!pq.isEmpty()) {
+            SocialNode current = pq.poll();
+            long currentUserId = current.getUserId();
+
+            if (!visited.add(currentUserId)) continue;
+
+            if (current.getDistance() >= maxDepth) continue;
+
+            long[] friendIds = unvisited(graph.friendIds(currentUserId), visited);
+            double[] strengths = strengthCalculator.calculateOverallStrengths(currentUserId, friendIds);
+
+            for (int i = 0; i < friendIds.length; i++) {
+                long friendId = friendIds[i];
+                double newDistance = current.getDistance() + edgeWeight(strengths[i]);
+
+                if (newDistance < distances.getOrDefault(friendId, Double.MAX_VALUE)) {
+                    distances.put(friendId, newDistance);
+                    pq.offer(new SocialNode(friendId, newDistance));
+                }
+            }
+        }
+
+        distances.remove(startUserId);
+        return distances;
+    }
+
+    /**
+     * Дельта-шаги: вершины раскладываются по корзинам ширины delta по расстоянию, корзины
+     * обрабатываются по возрастанию, а все вершины текущей корзины раскрываются параллельно.
+     * Ширина корзины равна минимальному весу ребра, поэтому релаксация из корзины всегда попадает
+     * в следующие корзины и каждая вершина раскрывается один раз, как в алгоритме Дейкстры.
+     * Если вес все же оказался меньше, вершина возвращается в текущую корзину и раскрывается повторно
+     */
+    private Map<Long, Double> findSocialDistancesInParallel(FriendshipGraphSnapshot graph, long startUserId, int maxDepth) {
+        double delta = Math.max(MIN_BUCKET_WIDTH, edgeWeight(strengthCalculator.getMaxFactorStrength()));
+        Map<Long, Double> distances = new HashMap<>();
+        TreeMap<Integer, Set<Long>> buckets = new TreeMap<>();
+
+        distances.put(startUserId, 0.0);
+        buckets.computeIfAbsent(0, index -> new LinkedHashSet<>()).add(startUserId);
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Integer, Set<Long>> bucket = buckets.pollFirstEntry();
+            int bucketIndex = bucket.getKey();
+            Set<Long> frontier = new LinkedHashSet<>();
+            for (Long userId : bucket.getValue()) {
+                if ((int) (distances.get(userId) / delta) == bucketIndex) {
+                    frontier.add(userId);
+                }
+            }
+
+            while (!frontier.isEmpty()) {
+                long[] frontierIds = frontier.stream().mapToLong(Long::longValue).toArray();
+                Relaxation[] relaxations = expand(graph, frontierIds, distances);
+
+                frontier = new LinkedHashSet<>();
+                for (Relaxation relaxation : relaxations) {
+                    for (int i = 0; i < relaxation.friendIds().length; i++) {
+                        long friendId = relaxation.friendIds()[i];
+                        double newDistance = relaxation.distances()[i];
+                        if (newDistance >= distances.getOrDefault(friendId, Double.MAX_VALUE)) {
+                            continue;
+                        }
+
+                        distances.put(friendId, newDistance);
+                        if (newDistance >= maxDepth) {
+                            continue;
+                        }
+                        int friendBucket = (int) (newDistance / delta);
+                        if (friendBucket == bucketIndex) {
+                            frontier.add(friendId);
+                        } else {
+                            buckets.computeIfAbsent(friendBucket, index -> new LinkedHashSet<>()).add(friendId);
+                        }
+                    }
+                }
+            }
+        }
+
+        distances.remove(startUserId);
+        return distances;
+    }
+
+    /**
+     * Раскрывает вершины фронта. Маленький фронт раскрывается в текущем потоке, большой делится
+     * между потоками пула. Пока идет раскрытие, карта расстояний только читается
+     */
+    private Relaxation[] expand(FriendshipGraphSnapshot graph, long[] frontierIds, Map<Long, Double> distances) {
+        Relaxation[] relaxations = new Relaxation[frontierIds.length];
+        FrontierExpansion expansion = new FrontierExpansion(graph, frontierIds, distances, relaxations, 0, frontierIds.length);
+        if (frontierIds.length < frontierThreshold) {
+            expansion.compute();
+        } else {
+            pool.invoke(expansion);
+        }
+        return relaxations;
+    }
+
+    private Relaxation relax(FriendshipGraphSnapshot graph, long userId, Map<Long, Double> distances) {
+        double distance = distances.get(userId);
+        long[] friendIds = graph.friendIds(userId);
+        long[] improvable = new long[friendIds.length];
+        int size = 0;
+        for (long friendId : friendIds) {
+            if (distances.getOrDefault(friendId, Double.MAX_VALUE) > distance) {
+                improvable[size++] = friendId;
+            }
+        }
+        improvable = size == improvable.length ? improvable : Arrays.copyOf(improvable, size);
+
+        double[] strengths = strengthCalculator.calculateOverallStrengths(userId, improvable);
+        double[] newDistances = new double[size];
+        for (int i = 0; i < size; i++) {
+            newDistances[i] = distance + edgeWeight(strengths[i]);
+        }
+        return new Relaxation(improvable, newDistances);
+    }
+
+    private Map<Long, Double> findSocialDistancesInDatabase(Long startUserId, int maxDepth) {
         Map<Long, Double> distances = new HashMap<>();
         Set<Long> visited = new HashSet<>();
         PriorityQueue<SocialNode> pq = new PriorityQueue<>();
@@ -48,9 +284,8 @@ public final class DijkstraSocialGraphService implements SocialGraphService {
             for (Long friendId : friends) {
                 if (visited.contains(friendId)) continue;
 
-                double strength = Math.max(0.1, strengthCalculator.calculateOverallStrength(currentUserId, friendId));
-                double edgeWeight = 1.0 - (strength * 0.3);
-                double newDistance = current.getDistance() + edgeWeight;
+                double newDistance = current.getDistance()
+                        + edgeWeight(strengthCalculator.calculateOverallStrength(currentUserId, friendId));
 
                 if (newDistance < distances.getOrDefault(friendId, Double.MAX_VALUE)) {
                     distances.put(friendId, newDistance);
@@ -62,4 +297,97 @@ public final class DijkstraSocialGraphService implements SocialGraphService {
         distances.remove(startUserId);
         return distances;
     }
-}
\ No newline at end of file
+
+    private double edgeWeight(double overallStrength) {
+        double strength = Math.max(0.1, overallStrength);
+        return 1.0 - (strength * 0.3);
+    }
+
+    private long[] unvisited(long[] friendIds, VisitedSet visited) {
+        long[] result = new long[friendIds.length];
+        int size = 0;
+        for (long friendId : friendIds) {
+            if (!visited.contains(friendId)) {
+                result[size++] = friendId;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Кандидатные расстояния до друзей одной раскрытой вершины
+     */
+    private record Relaxation(long[] friendIds, double[] distances) {
+    }
+
+    /**
+     * Раскрытие диапазона вершин фронта, делящееся пополам до порога зернистости.
+     * Каждый лист открывает свою область загрузки профилей, так как область привязана к потоку
+     */
+    private final class FrontierExpansion extends RecursiveAction {
+        private final FriendshipGraphSnapshot graph;
+        private final long[] frontierIds;
+        private final Map<Long, Double> distances;
+        private final Relaxation[] relaxations;
+        private final int from;
+        private final int to;
+
+        private FrontierExpansion(FriendshipGraphSnapshot graph, long[] frontierIds, Map<Long, Double> distances,
+                                  Relaxation[] relaxations, int from, int to) {
+            this.graph = graph;
+            this.frontierIds = frontierIds;
+            this.distances = distances;
+            this.relaxations = relaxations;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > EXPANSION_GRAIN && inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new FrontierExpansion(graph, frontierIds, distances, relaxations, from, middle),
+                        new FrontierExpansion(graph, frontierIds, distances, relaxations, middle, to));
+                return;
+            }
+
+            try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+                for (int i = from; i < to; i++) {
+                    relaxations[i] = relax(graph, frontierIds[i], distances);
+                }
+            }
+        }
+    }
+
+    /**
+     * Множество посещенных вершин: битовая карта для вершин базового снимка
+     * и обычное множество для пользователей, появившихся после последнего уплотнения
+     */
+    private static final class VisitedSet {
+        private final FriendshipGraph base;
+        private final BitSet visitedBase;
+        private final Set<Long> visitedOutsideBase = new HashSet<>();
+
+        private VisitedSet(FriendshipGraph base) {
+            this.base = base;
+            this.visitedBase = new BitSet(base.vertexCount());
+        }
+
+        private boolean add(long userId) {
+            int index = base.indexOf(userId);
+            if (index < 0) {
+                return visitedOutsideBase.add(userId);
+            }
+            if (visitedBase.get(index)) {
+                return false;
+            }
+            visitedBase.set(index);
+            return true;
+        }
+
+        private boolean contains(long userId) {
+            int index = base.indexOf(userId);
+            return index < 0 ? visitedOutsideBase.contains(userId) : visitedBase.get(index);
+        }
+    }
+}
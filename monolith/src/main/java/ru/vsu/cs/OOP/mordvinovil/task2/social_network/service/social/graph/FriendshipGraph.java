@@ -0,0 +1,175 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый снимок графа дружбы в формате CSR (compressed sparse row).
+ * Пользователи хранятся отсортированным массивом идентификаторов, соседи вершины i
+ * занимают отрезок [offsets[i], offsets[i + 1]) массива neighbors и задаются индексами вершин
+ */
+public final class FriendshipGraph {
+    private static final FriendshipGraph EMPTY = new FriendshipGraph(new long[0], new int[]{0}, new int[0]);
+
+    private final long[] userIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+
+    private FriendshipGraph(long[] userIds, int[] offsets, int[] neighbors) {
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    public static FriendshipGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Строит граф по списку неориентированных ребер. Петли и повторные ребра отбрасываются
+     *
+     * @param from первые концы ребер
+     * @param to вторые концы ребер
+     * @param edgeCount количество заполненных ребер в массивах
+     * @return снимок графа
+     */
+    public static FriendshipGraph fromEdges(long[] from, long[] to, int edgeCount) {
+        if (edgeCount == 0) {
+            return EMPTY;
+        }
+
+        long[] ids = new long[edgeCount * 2];
+        System.arraycopy(from, 0, ids, 0, edgeCount);
+        System.arraycopy(to, 0, ids, edgeCount, edgeCount);
+        Arrays.sort(ids);
+        int vertexCount = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[vertexCount++] = ids[i];
+            }
+        }
+        long[] userIds = Arrays.copyOf(ids, vertexCount);
+
+        int[] source = new int[edgeCount];
+        int[] target = new int[edgeCount];
+        int[] degree = new int[vertexCount];
+        for (int e = 0; e < edgeCount; e++) {
+            source[e] = Arrays.binarySearch(userIds, from[e]);
+            target[e] = Arrays.binarySearch(userIds, to[e]);
+            if (source[e] != target[e]) {
+                degree[source[e]]++;
+                degree[target[e]]++;
+            }
+        }
+
+        int[] rawOffsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            rawOffsets[v + 1] = rawOffsets[v] + degree[v];
+        }
+        int[] rawNeighbors = new int[rawOffsets[vertexCount]];
+        int[] cursor = Arrays.copyOf(rawOffsets, vertexCount);
+        for (int e = 0; e < edgeCount; e++) {
+            if (source[e] != target[e]) {
+                rawNeighbors[cursor[source[e]]++] = target[e];
+                rawNeighbors[cursor[target[e]]++] = source[e];
+            }
+        }
+
+        return compact(userIds, rawOffsets, rawNeighbors);
+    }
+
+    /**
+     * Сортирует списки соседей и удаляет повторы, возникающие при встречных заявках в дружбу
+     */
+    static FriendshipGraph compact(long[] userIds, int[] rawOffsets, int[] rawNeighbors) {
+        int vertexCount = userIds.length;
+        int[] offsets = new int[vertexCount + 1];
+        int write = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int start = rawOffsets[v];
+            int end = rawOffsets[v + 1];
+            Arrays.sort(rawNeighbors, start, end);
+            offsets[v] = write;
+            for (int i = start; i < end; i++) {
+                if (i == start || rawNeighbors[i] != rawNeighbors[i - 1]) {
+                    rawNeighbors[write++] = rawNeighbors[i];
+                }
+            }
+        }
+        offsets[vertexCount] = write;
+        return new FriendshipGraph(userIds, offsets, Arrays.copyOf(rawNeighbors, write));
+    }
+
+    /**
+     * Получает индекс вершины пользователя
+     *
+     * @param userId идентификатор пользователя
+     * @return индекс вершины или -1 если пользователя нет в графе
+     */
+    public int indexOf(long userId) {
+        int index = Arrays.binarySearch(userIds, userId);
+        return index >= 0 ? index : -1;
+    }
+
+    public long userIdAt(int index) {
+        return userIds[index];
+    }
+
+    public int neighborsStart(int index) {
+        return offsets[index];
+    }
+
+    public int neighborsEnd(int index) {
+        return offsets[index + 1];
+    }
+
+    public int neighborAt(int position) {
+        return neighbors[position];
+    }
+
+    public int degree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Получает идентификаторы друзей пользователя
+     *
+     * @param userId идентификатор пользователя
+     * @return идентификаторы друзей, пустой массив если пользователя нет в графе
+     */
+    public long[] friendIds(long userId) {
+        int index = indexOf(userId);
+        if (index < 0) {
+            return new long[0];
+        }
+
+        long[] result = new long[degree(index)];
+        for (int i = offsets[index], j = 0; i < offsets[index + 1]; i++, j++) {
+            result[j] = userIds[neighbors[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет наличие ребра двоичным поиском по отсортированному списку соседей
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @return true если пользователи дружат
+     */
+    public boolean hasEdge(long userId1, long userId2) {
+        int index1 = indexOf(userId1);
+        int index2 = indexOf(userId2);
+        if (index1 < 0 || index2 < 0) {
+            return false;
+        }
+        return Arrays.binarySearch(neighbors, offsets[index1], offsets[index1 + 1], index2) >= 0;
+    }
+
+    public int vertexCount() {
+        return userIds.length;
+    }
+
+    public int edgeCount() {
+        return neighbors.length / 2;
+    }
+}
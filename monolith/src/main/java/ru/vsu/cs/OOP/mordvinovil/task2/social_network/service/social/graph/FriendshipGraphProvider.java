@@ -0,0 +1,170 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.FriendshipEdgeProjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class FriendshipGraphProvider {
+    @Value("${recommendation.graph.in-memory:true}")
+    private boolean inMemory;
+
+    @Value("${recommendation.graph.load-batch-size:10000}")
+    private int loadBatchSize;
+
+    @Value("${recommendation.graph.compaction-threshold:10000}")
+    private int compactionThreshold;
+
+    private final RelationshipRepository relationshipRepository;
+    private final CentralLogger centralLogger;
+
+    private volatile FriendshipGraphSnapshot graph;
+
+    private final Object writeLock = new Object();
+    private List<EdgeChange> rebuildJournal;
+
+    public FriendshipGraphProvider(RelationshipRepository relationshipRepository, CentralLogger centralLogger) {
+        this.relationshipRepository = relationshipRepository;
+        this.centralLogger = centralLogger;
+    }
+
+    /**
+     * Загружает граф дружбы после старта приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (inMemory) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Получает текущую эпоху графа дружбы. Чтение не берет блокировок
+     *
+     * @return эпоха графа или null если граф в памяти отключен или еще не загружен
+     */
+    public FriendshipGraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * Применяет изменение ребра, публикуя новую эпоху графа. Изменения, пришедшие во время
+     * полной перестройки, запоминаются и применяются к перестроенному графу
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @param friends true если дружба появилась, false если прекратилась
+     */
+    public void applyEdgeChange(long userId1, long userId2, boolean friends) {
+        synchronized (writeLock) {
+            if (rebuildJournal != null) {
+                rebuildJournal.add(new EdgeChange(userId1, userId2, friends));
+            }
+
+            FriendshipGraphSnapshot current = graph;
+            if (current == null) {
+                return;
+            }
+
+            FriendshipGraphSnapshot updated = current.withEdge(userId1, userId2, friends);
+            graph = updated.deltaSize() >= compactionThreshold ? updated.compact() : updated;
+        }
+    }
+
+    /**
+     * Периодически переносит накопленные изменения в новый CSR-снимок
+     */
+    @Scheduled(fixedDelayString = "${recommendation.graph.compaction-interval:60000}")
+    public void compact() {
+        FriendshipGraphSnapshot current = graph;
+        if (current == null || current.deltaSize() == 0) {
+            return;
+        }
+
+        FriendshipGraphSnapshot compacted = current.compact();
+        synchronized (writeLock) {
+            if (graph == current) {
+                graph = compacted;
+            }
+        }
+    }
+
+    /**
+     * Полностью перестраивает граф из таблицы отношений, читая принятые заявки пачками по идентификатору
+     */
+    public void rebuild() {
+        Map<String, Object> context = new HashMap<>();
+        context.put("batchSize", loadBatchSize);
+
+        synchronized (writeLock) {
+            rebuildJournal = new ArrayList<>();
+        }
+
+        centralLogger.logInfo("ГРАФ_ДРУЗЕЙ_ЗАГРУЗКА",
+                "Загрузка графа дружбы в память", context);
+
+        try {
+            long startedAt = System.currentTimeMillis();
+            long[] from = new long[1024];
+            long[] to = new long[1024];
+            int edgeCount = 0;
+            long afterId = 0L;
+
+            List<FriendshipEdgeProjection> batch;
+            do {
+                batch = relationshipRepository.findEdgesByStatusAfter(
+                        FriendshipStatus.ACCEPTED, afterId, PageRequest.of(0, loadBatchSize));
+                for (FriendshipEdgeProjection edge : batch) {
+                    if (edgeCount == from.length) {
+                        from = Arrays.copyOf(from, edgeCount * 2);
+                        to = Arrays.copyOf(to, edgeCount * 2);
+                    }
+                    from[edgeCount] = edge.getSenderId();
+                    to[edgeCount] = edge.getReceiverId();
+                    edgeCount++;
+                    afterId = edge.getId();
+                }
+            } while (batch.size() == loadBatchSize);
+
+            FriendshipGraph loaded = FriendshipGraph.fromEdges(from, to, edgeCount);
+            synchronized (writeLock) {
+                FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(loaded);
+                for (EdgeChange change : rebuildJournal) {
+                    snapshot = snapshot.withEdge(change.userId1(), change.userId2(), change.friends());
+                }
+                graph = snapshot;
+                rebuildJournal = null;
+            }
+
+            Map<String, Object> successContext = new HashMap<>(context);
+            successContext.put("vertexCount", loaded.vertexCount());
+            successContext.put("edgeCount", loaded.edgeCount());
+            successContext.put("durationMs", System.currentTimeMillis() - startedAt);
+
+            centralLogger.logInfo("ГРАФ_ДРУЗЕЙ_ЗАГРУЖЕН",
+                    "Граф дружбы загружен в память", successContext);
+        } catch (Exception e) {
+            synchronized (writeLock) {
+                rebuildJournal = null;
+            }
+            centralLogger.logError("ГРАФ_ДРУЗЕЙ_ОШИБКА_ЗАГРУЗКИ",
+                    "Ошибка при загрузке графа дружбы в память", context, e);
+        }
+    }
+
+    private record EdgeChange(long userId1, long userId2, boolean friends) {
+    }
+}
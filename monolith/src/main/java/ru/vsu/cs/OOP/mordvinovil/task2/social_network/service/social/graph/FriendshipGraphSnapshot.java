@@ -0,0 +1,223 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Неизменяемая эпоха графа дружбы: базовый CSR-снимок и накопленные поверх него изменения ребер.
+ * Любое изменение создает новую эпоху, поэтому читатели работают со своей копией без блокировок
+ */
+public final class FriendshipGraphSnapshot {
+    private static final long[] NO_FRIENDS = new long[0];
+
+    private final FriendshipGraph base;
+    private final Map<Long, Set<Long>> added;
+    private final Map<Long, Set<Long>> removed;
+    private final int deltaSize;
+
+    private FriendshipGraphSnapshot(FriendshipGraph base, Map<Long, Set<Long>> added,
+                                    Map<Long, Set<Long>> removed, int deltaSize) {
+        this.base = base;
+        this.added = added;
+        this.removed = removed;
+        this.deltaSize = deltaSize;
+    }
+
+    public static FriendshipGraphSnapshot of(FriendshipGraph base) {
+        return new FriendshipGraphSnapshot(base, Map.of(), Map.of(), 0);
+    }
+
+    public FriendshipGraph base() {
+        return base;
+    }
+
+    /**
+     * Получает количество ребер, измененных с момента последнего уплотнения
+     */
+    public int deltaSize() {
+        return deltaSize;
+    }
+
+    /**
+     * Получает идентификаторы друзей пользователя с учетом накопленных изменений
+     *
+     * @param userId идентификатор пользователя
+     * @return идентификаторы друзей
+     */
+    public long[] friendIds(long userId) {
+        long[] baseFriends = base.friendIds(userId);
+        Set<Long> addedFriends = added.get(userId);
+        Set<Long> removedFriends = removed.get(userId);
+        if (addedFriends == null && removedFriends == null) {
+            return baseFriends.length == 0 ? NO_FRIENDS : baseFriends;
+        }
+
+        long[] result = new long[baseFriends.length + (addedFriends != null ? addedFriends.size() : 0)];
+        int size = 0;
+        for (long friendId : baseFriends) {
+            if (removedFriends == null || !removedFriends.contains(friendId)) {
+                result[size++] = friendId;
+            }
+        }
+        if (addedFriends != null) {
+            for (Long friendId : addedFriends) {
+                result[size++] = friendId;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Выбирает случайного друга пользователя. Для пользователей без накопленных изменений
+     * выбор идет прямо по CSR-снимку без копирования списка соседей
+     *
+     * @param userId идентификатор пользователя
+     * @param random генератор случайных чисел
+     * @return идентификатор друга или -1 если друзей нет
+     */
+    public long randomFriend(long userId, RandomGenerator random) {
+        if (!added.containsKey(userId) && !removed.containsKey(userId)) {
+            int index = base.indexOf(userId);
+            if (index < 0 || base.degree(index) == 0) {
+                return -1;
+            }
+            return base.userIdAt(base.neighborAt(base.neighborsStart(index) + random.nextInt(base.degree(index))));
+        }
+
+        long[] friends = friendIds(userId);
+        return friends.length == 0 ? -1 : friends[random.nextInt(friends.length)];
+    }
+
+    public boolean hasEdge(long userId1, long userId2) {
+        if (contains(added, userId1, userId2)) {
+            return true;
+        }
+        return !contains(removed, userId1, userId2) && base.hasEdge(userId1, userId2);
+    }
+
+    /**
+     * Создает новую эпоху с добавленным или удаленным ребром
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @param present true если ребро появилось, false если исчезло
+     * @return новая эпоха или текущая, если ребро уже в нужном состоянии
+     */
+    public FriendshipGraphSnapshot withEdge(long userId1, long userId2, boolean present) {
+        if (userId1 == userId2 || hasEdge(userId1, userId2) == present) {
+            return this;
+        }
+
+        boolean inBase = base.hasEdge(userId1, userId2);
+        Map<Long, Set<Long>> newAdded = added;
+        Map<Long, Set<Long>> newRemoved = removed;
+        int newDeltaSize;
+
+        if (present == inBase) {
+            Map<Long, Set<Long>> overlay = present ? removed : added;
+            overlay = without(overlay, userId1, userId2);
+            if (present) {
+                newRemoved = overlay;
+            } else {
+                newAdded = overlay;
+            }
+            newDeltaSize = deltaSize - 1;
+        } else {
+            Map<Long, Set<Long>> overlay = present ? added : removed;
+            overlay = with(overlay, userId1, userId2);
+            if (present) {
+                newAdded = overlay;
+            } else {
+                newRemoved = overlay;
+            }
+            newDeltaSize = deltaSize + 1;
+        }
+
+        return new FriendshipGraphSnapshot(base, newAdded, newRemoved, newDeltaSize);
+    }
+
+    /**
+     * Переносит накопленные изменения в новый CSR-снимок без обращения к базе данных
+     *
+     * @return уплотненная эпоха без изменений поверх базы
+     */
+    public FriendshipGraphSnapshot compact() {
+        if (deltaSize == 0) {
+            return this;
+        }
+
+        int capacity = base.edgeCount() + deltaSize;
+        long[] from = new long[capacity];
+        long[] to = new long[capacity];
+        int edgeCount = 0;
+
+        for (int v = 0; v < base.vertexCount(); v++) {
+            long userId = base.userIdAt(v);
+            Set<Long> removedFriends = removed.get(userId);
+            for (int i = base.neighborsStart(v); i < base.neighborsEnd(v); i++) {
+                int u = base.neighborAt(i);
+                long friendId = base.userIdAt(u);
+                if (u > v && (removedFriends == null || !removedFriends.contains(friendId))) {
+                    from[edgeCount] = userId;
+                    to[edgeCount] = friendId;
+                    edgeCount++;
+                }
+            }
+        }
+        for (Map.Entry<Long, Set<Long>> entry : added.entrySet()) {
+            for (Long friendId : entry.getValue()) {
+                if (entry.getKey() < friendId) {
+                    from[edgeCount] = entry.getKey();
+                    to[edgeCount] = friendId;
+                    edgeCount++;
+                }
+            }
+        }
+
+        return of(FriendshipGraph.fromEdges(from, to, edgeCount));
+    }
+
+    private static boolean contains(Map<Long, Set<Long>> overlay, long userId1, long userId2) {
+        Set<Long> friends = overlay.get(userId1);
+        return friends != null && friends.contains(userId2);
+    }
+
+    private static Map<Long, Set<Long>> with(Map<Long, Set<Long>> overlay, long userId1, long userId2) {
+        Map<Long, Set<Long>> copy = new HashMap<>(overlay);
+        copy.put(userId1, copyWith(copy.get(userId1), userId2));
+        copy.put(userId2, copyWith(copy.get(userId2), userId1));
+        return Map.copyOf(copy);
+    }
+
+    private static Map<Long, Set<Long>> without(Map<Long, Set<Long>> overlay, long userId1, long userId2) {
+        Map<Long, Set<Long>> copy = new HashMap<>(overlay);
+        removeFrom(copy, userId1, userId2);
+        removeFrom(copy, userId2, userId1);
+        return Map.copyOf(copy);
+    }
+
+    private static Set<Long> copyWith(Set<Long> friends, long friendId) {
+        Set<Long> copy = friends != null ? new HashSet<>(friends) : new HashSet<>();
+        copy.add(friendId);
+        return Set.copyOf(copy);
+    }
+
+    private static void removeFrom(Map<Long, Set<Long>> overlay, long userId, long friendId) {
+        Set<Long> friends = overlay.get(userId);
+        if (friends == null) {
+            return;
+        }
+
+        Set<Long> copy = new HashSet<>(friends);
+        copy.remove(friendId);
+        if (copy.isEmpty()) {
+            overlay.remove(userId);
+        } else {
+            overlay.put(userId, Set.copyOf(copy));
+        }
+    }
+}
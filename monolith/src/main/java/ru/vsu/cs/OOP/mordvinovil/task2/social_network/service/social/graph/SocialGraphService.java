@@ -1,7 +1,10 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface SocialGraphService {
     Map<Long, Double> findSocialDistances(Long startUserId, int maxDepth);
-}
\ No newline at end of file
+    Map<Long, Map<Long, Double>> findSocialDistances(Collection<Long> startUserIds, int maxDepth);
+    Map<Long, Double> findSocialDistancesSequentially(Long startUserId, int maxDepth);
+}
@@ -1,18 +1,21 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.SocialGraphService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute.RankedRecommendationStore;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.RecommendationStrategy;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.RecommendationStrategyRegistry;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
 
 import java.util.HashMap;
 import java.util.List;
@@ -22,42 +25,87 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DefaultFriendRecommendationService implements FriendRecommendationService {
+    private static final int SOCIAL_DISTANCE_DEPTH = 3;
+
+    @Value("${recommendation.precompute.list-size:200}")
+    private int listSize;
+
     private final SocialGraphService socialGraphService;
     private final RelationshipRepository relationshipRepository;
     private final RecommendationStrategyRegistry strategyRegistry;
+    private final RankedRecommendationStore rankedRecommendationStore;
+    private final ProfileAttributeProvider profileAttributeProvider;
     private final CentralLogger centralLogger;
 
+    public DefaultFriendRecommendationService(SocialGraphService socialGraphService,
+                                              RelationshipRepository relationshipRepository,
+                                              RecommendationStrategyRegistry strategyRegistry,
+                                              RankedRecommendationStore rankedRecommendationStore,
+                                              ProfileAttributeProvider profileAttributeProvider,
+                                              CentralLogger centralLogger) {
+        this.socialGraphService = socialGraphService;
+        this.relationshipRepository = relationshipRepository;
+        this.strategyRegistry = strategyRegistry;
+        this.rankedRecommendationStore = rankedRecommendationStore;
+        this.profileAttributeProvider = profileAttributeProvider;
+        this.centralLogger = centralLogger;
+    }
+
     /**
-     * Получает рекомендации друзей
+     * Получает рекомендации друзей из заранее рассчитанного ранжированного списка.
+     * Если список для пользователя еще не рассчитан, он считается один раз и сохраняется.
+     * Пользователи, ставшие друзьями после расчета, отфильтровываются
      *
      * @param targetUserId идентификатор целевого пользователя
      * @param pageRequest параметры пагинации
      * @return страница с рекомендациями друзей
      */
     @Override
-    @Cacheable(
-            value = "friendRecommendation",
-            key = "'recomm:' + #targetUserId + ':page:' + #pageRequest.pageNumber + ':size:' + #pageRequest.pageSize"
-    )
     public PageResponse<RecommendationFriendResponse> getFriendRecommendations(Long targetUserId, PageRequest pageRequest) {
+        return getFriendRecommendations(targetUserId, pageRequest, null);
+    }
+
+    /**
+     * Получает рекомендации друзей выбранной стратегией. Стратегия по умолчанию читает
+     * заранее рассчитанный список, остальные стратегии считаются на лету без сохранения,
+     * что позволяет сравнивать их со стратегией по умолчанию на реальных запросах
+     *
+     * @param targetUserId идентификатор целевого пользователя
+     * @param pageRequest параметры пагинации
+     * @param strategyName имя стратегии или null для стратегии по умолчанию
+     * @return страница с рекомендациями друзей
+     */
+    @Override
+    public PageResponse<RecommendationFriendResponse> getFriendRecommendations(Long targetUserId, PageRequest pageRequest,
+                                                                               String strategyName) {
         Map<String, Object> context = new HashMap<>();
         context.put("targetUserId", targetUserId);
         context.put("page", pageRequest.getPageNumber());
         context.put("size", pageRequest.getPageSize());
+        context.put("strategy", strategyName);
 
         centralLogger.logInfo("РЕКОМЕНДАЦИИ_ДРУЗЕЙ_ПОЛУЧЕНИЕ",
                 "Получение рекомендаций друзей", context);
 
         try {
-            RecommendationStrategy strategy = strategyRegistry.getDefaultStrategy();
-            Map<Long, Double> socialDistances = socialGraphService.findSocialDistances(targetUserId, 3);
+            RecommendationStrategy defaultStrategy = strategyRegistry.getDefaultStrategy();
+            RecommendationStrategy strategy = strategyName == null ? defaultStrategy : strategyRegistry.getStrategy(strategyName);
+            if (strategy == null) {
+                throw new BadRequestException(ResponseMessageConstants.FAILURE_RECOMMENDATION_STRATEGY_NOT_FOUND);
+            }
+
+            List<RecommendationFriendResponse> ranked = strategy == defaultStrategy
+                    ? rankedRecommendationStore.find(targetUserId).orElseGet(() -> computeAndStore(targetUserId, null))
+                    : computeRankedRecommendations(strategy, targetUserId, listSize, null);
             Set<Long> existingFriendIds = getExistingFriendIds(targetUserId);
 
-            List<RecommendationFriendResponse> recommendations = strategy.generateRecommendations(targetUserId, socialDistances);
+            List<RecommendationFriendResponse> available = ranked.stream()
+                    .filter(rec -> !rec.getRecommendedUserId().equals(targetUserId))
+                    .filter(rec -> !existingFriendIds.contains(rec.getRecommendedUserId()))
+                    .collect(Collectors.toList());
 
-            PageResponse<RecommendationFriendResponse> result = filterExistingConnections(recommendations, targetUserId, existingFriendIds, pageRequest);
+            PageResponse<RecommendationFriendResponse> result = toPage(available, targetUserId, pageRequest);
 
             Map<String, Object> resultContext = new HashMap<>(context);
             resultContext.put("totalRecommendations", result.getTotalElements());
@@ -74,6 +122,69 @@ public class DefaultFriendRecommendationService implements FriendRecommendationS
         }
     }
 
+    /**
+     * Считает ранжированный список в одной области загрузки профилей: атрибуты каждого
+     * пользователя читаются один раз на весь расчет, включая обход графа и все пакеты кандидатов
+     */
+    private List<RecommendationFriendResponse> computeRankedRecommendations(RecommendationStrategy strategy,
+                                                                            Long targetUserId, int limit,
+                                                                            Map<Long, Double> preparedDistances) {
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            Map<Long, Double> socialDistances = !strategy.requiresSocialDistances()
+                    ? Map.of()
+                    : preparedDistances != null
+                    ? preparedDistances
+                    : socialGraphService.findSocialDistances(targetUserId, SOCIAL_DISTANCE_DEPTH);
+            Set<Long> existingFriendIds = getExistingFriendIds(targetUserId);
+
+            return strategy.generateTopRecommendations(targetUserId, socialDistances, existingFriendIds, limit);
+        }
+    }
+
+    /**
+     * Пересчитывает и сохраняет ранжированный список рекомендаций пользователя
+     *
+     * @param targetUserId идентификатор целевого пользователя
+     * @return сохраненный список рекомендаций
+     */
+    @Override
+    public List<RecommendationFriendResponse> recompute(Long targetUserId) {
+        return computeAndStore(targetUserId, null);
+    }
+
+    /**
+     * Пересчитывает и сохраняет ранжированный список рекомендаций по заранее найденным расстояниям
+     *
+     * @param targetUserId идентификатор целевого пользователя
+     * @param socialDistances социальные расстояния пользователя или null, чтобы найти их заново
+     * @return сохраненный список рекомендаций
+     */
+    @Override
+    public List<RecommendationFriendResponse> recompute(Long targetUserId, Map<Long, Double> socialDistances) {
+        return computeAndStore(targetUserId, socialDistances);
+    }
+
+    /**
+     * Находит социальные расстояния пользователя в вызывающем потоке, если они нужны стратегии по умолчанию
+     *
+     * @param targetUserId идентификатор пользователя
+     * @return расстояния пользователя или пустая карта, если стратегия их не использует
+     */
+    @Override
+    public Map<Long, Double> prepareSocialDistances(Long targetUserId) {
+        if (!strategyRegistry.getDefaultStrategy().requiresSocialDistances()) {
+            return Map.of();
+        }
+        return socialGraphService.findSocialDistancesSequentially(targetUserId, SOCIAL_DISTANCE_DEPTH);
+    }
+
+    private List<RecommendationFriendResponse> computeAndStore(Long targetUserId, Map<Long, Double> socialDistances) {
+        List<RecommendationFriendResponse> ranked = computeRankedRecommendations(
+                strategyRegistry.getDefaultStrategy(), targetUserId, listSize, socialDistances);
+        rankedRecommendationStore.save(targetUserId, ranked);
+        return ranked;
+    }
+
     private Set<Long> getExistingFriendIds(Long userId) {
         Map<String, Object> context = new HashMap<>();
         context.put("userId", userId);
@@ -98,72 +209,54 @@ public class DefaultFriendRecommendationService implements FriendRecommendationS
         }
     }
 
-    private PageResponse<RecommendationFriendResponse> filterExistingConnections(
+    private PageResponse<RecommendationFriendResponse> toPage(
             List<RecommendationFriendResponse> recommendations,
             Long targetUserId,
-            Set<Long> existingFriendIds,
             PageRequest pageRequest) {
 
         Map<String, Object> context = new HashMap<>();
         context.put("targetUserId", targetUserId);
-        context.put("initialRecommendations", recommendations.size());
-        context.put("existingFriendIds", existingFriendIds.size());
+        context.put("recommendations", recommendations.size());
         context.put("page", pageRequest.getPageNumber());
         context.put("size", pageRequest.getPageSize());
 
-        centralLogger.logInfo("РЕКОМЕНДАЦИИ_ФИЛЬТРАЦИЯ",
-                "Фильтрация рекомендаций", context);
+        centralLogger.logInfo("РЕКОМЕНДАЦИИ_ПАГИНАЦИЯ",
+                "Формирование страницы рекомендаций", context);
 
         try {
-            List<RecommendationFriendResponse> filteredRecommendations = recommendations.stream()
-                    .filter(rec -> !rec.getRecommendedUserId().equals(targetUserId))
-                    .filter(rec -> !existingFriendIds.contains(rec.getRecommendedUserId()))
-                    .collect(Collectors.toList());
-
             int pageSize = pageRequest.getPageSize();
             int currentPage = pageRequest.getPageNumber();
-            int startIndex = currentPage * pageSize;
-            int endIndex = Math.min(startIndex + pageSize, filteredRecommendations.size());
-
-            PageResponse<RecommendationFriendResponse> result;
-
-            if (startIndex >= filteredRecommendations.size()) {
-                result = PageResponse.<RecommendationFriendResponse>builder()
-                        .content(List.of())
-                        .currentPage(currentPage)
-                        .totalPages((int) Math.ceil((double) filteredRecommendations.size() / pageSize))
-                        .totalElements((long) filteredRecommendations.size())
-                        .pageSize(pageSize)
-                        .first(currentPage == 0)
-                        .last(true)
-                        .build();
-            } else {
-                List<RecommendationFriendResponse> paginatedContent = filteredRecommendations.subList(startIndex, endIndex);
-
-                result = PageResponse.<RecommendationFriendResponse>builder()
-                        .content(paginatedContent)
-                        .currentPage(currentPage)
-                        .totalPages((int) Math.ceil((double) filteredRecommendations.size() / pageSize))
-                        .totalElements((long) filteredRecommendations.size())
-                        .pageSize(pageSize)
-                        .first(currentPage == 0)
-                        .last(endIndex >= filteredRecommendations.size())
-                        .build();
-            }
+            int total = recommendations.size();
+            long startIndex = (long) currentPage * pageSize;
+            int endIndex = (int) Math.min(startIndex + pageSize, total);
+            int totalPages = (int) Math.ceil((double) total / pageSize);
+
+            List<RecommendationFriendResponse> content = startIndex >= total
+                    ? List.of()
+                    : recommendations.subList((int) startIndex, endIndex);
+
+            PageResponse<RecommendationFriendResponse> result = PageResponse.<RecommendationFriendResponse>builder()
+                    .content(content)
+                    .currentPage(currentPage)
+                    .totalPages(totalPages)
+                    .totalElements((long) total)
+                    .pageSize(pageSize)
+                    .first(currentPage == 0)
+                    .last(startIndex + pageSize >= total)
+                    .build();
 
             Map<String, Object> resultContext = new HashMap<>(context);
-            resultContext.put("filteredRecommendations", filteredRecommendations.size());
             resultContext.put("finalContentSize", result.getContent().size());
             resultContext.put("totalPages", result.getTotalPages());
 
-            centralLogger.logInfo("РЕКОМЕНДАЦИИ_ОТФИЛЬТРОВАНЫ",
-                    "Рекомендации успешно отфильтрованы", resultContext);
+            centralLogger.logInfo("РЕКОМЕНДАЦИИ_СТРАНИЦА_СФОРМИРОВАНА",
+                    "Страница рекомендаций успешно сформирована", resultContext);
 
             return result;
         } catch (Exception e) {
-            centralLogger.logError("РЕКОМЕНДАЦИИ_ОШИБКА_ФИЛЬТРАЦИИ",
-                    "Ошибка при фильтрации рекомендаций", context, e);
+            centralLogger.logError("РЕКОМЕНДАЦИИ_ОШИБКА_ПАГИНАЦИИ",
+                    "Ошибка при формировании страницы рекомендаций", context, e);
             throw e;
         }
     }
-}
\ No newline at end of file
+}
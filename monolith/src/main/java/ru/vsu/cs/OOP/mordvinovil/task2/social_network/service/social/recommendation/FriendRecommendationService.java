@@ -4,6 +4,13 @@ import org.springframework.data.domain.PageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
 
+import java.util.List;
+import java.util.Map;
+
 public interface FriendRecommendationService {
     PageResponse<RecommendationFriendResponse> getFriendRecommendations(Long targetUserId, PageRequest pageRequest);
+    PageResponse<RecommendationFriendResponse> getFriendRecommendations(Long targetUserId, PageRequest pageRequest, String strategyName);
+    List<RecommendationFriendResponse> recompute(Long targetUserId);
+    List<RecommendationFriendResponse> recompute(Long targetUserId, Map<Long, Double> socialDistances);
+    Map<Long, Double> prepareSocialDistances(Long targetUserId);
 }
\ No newline at end of file
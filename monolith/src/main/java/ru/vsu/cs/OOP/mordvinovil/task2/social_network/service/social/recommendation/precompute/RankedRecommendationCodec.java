@@ -0,0 +1,99 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute;
+
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Компактное двоичное представление ранжированного списка рекомендаций.
+ * Каждая запись занимает 8 байт идентификатора, 4 байта оценки и по 4 байта на фактор,
+ * имена факторов хранятся один раз на весь список
+ */
+public final class RankedRecommendationCodec {
+    private static final String FACTOR_SEPARATOR = ",";
+
+    private RankedRecommendationCodec() {
+    }
+
+    /**
+     * Получает упорядоченные имена факторов, встречающихся в рекомендациях
+     *
+     * @param recommendations рекомендации
+     * @return имена факторов через запятую
+     */
+    public static String factorNames(List<RecommendationFriendResponse> recommendations) {
+        TreeSet<String> names = new TreeSet<>();
+        for (RecommendationFriendResponse recommendation : recommendations) {
+            if (recommendation.getFactorScores() != null) {
+                names.addAll(recommendation.getFactorScores().keySet());
+            }
+        }
+        return String.join(FACTOR_SEPARATOR, names);
+    }
+
+    /**
+     * Кодирует рекомендации в порядке списка
+     *
+     * @param recommendations рекомендации по убыванию оценки
+     * @param factorNames имена факторов через запятую
+     * @return двоичное представление
+     */
+    public static byte[] encode(List<RecommendationFriendResponse> recommendations, String factorNames) {
+        String[] names = split(factorNames);
+        ByteBuffer buffer = ByteBuffer.allocate(recommendations.size() * entrySize(names.length));
+        for (RecommendationFriendResponse recommendation : recommendations) {
+            buffer.putLong(recommendation.getRecommendedUserId());
+            buffer.putFloat(recommendation.getScore().floatValue());
+            Map<String, Double> factorScores = recommendation.getFactorScores() != null
+                    ? recommendation.getFactorScores() : Map.of();
+            for (String name : names) {
+                buffer.putFloat(factorScores.getOrDefault(name, 0.0).floatValue());
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Декодирует рекомендации
+     *
+     * @param payload двоичное представление
+     * @param factorNames имена факторов через запятую
+     * @param computedAt время расчета списка
+     * @return рекомендации в исходном порядке
+     */
+    public static List<RecommendationFriendResponse> decode(byte[] payload, String factorNames, LocalDateTime computedAt) {
+        String[] names = split(factorNames);
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int count = payload.length / entrySize(names.length);
+        List<RecommendationFriendResponse> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long candidateId = buffer.getLong();
+            double score = buffer.getFloat();
+            Map<String, Double> factorScores = new HashMap<>(names.length * 2);
+            for (String name : names) {
+                factorScores.put(name, (double) buffer.getFloat());
+            }
+            recommendations.add(RecommendationFriendResponse.builder()
+                    .recommendedUserId(candidateId)
+                    .score(score)
+                    .factorScores(factorScores)
+                    .createdAt(computedAt)
+                    .build());
+        }
+        return recommendations;
+    }
+
+    private static int entrySize(int factorCount) {
+        return Long.BYTES + Float.BYTES + factorCount * Float.BYTES;
+    }
+
+    private static String[] split(String factorNames) {
+        return factorNames.isEmpty() ? new String[0] : factorNames.split(FACTOR_SEPARATOR);
+    }
+}
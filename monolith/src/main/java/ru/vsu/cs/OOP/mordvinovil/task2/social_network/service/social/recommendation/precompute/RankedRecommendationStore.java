@@ -0,0 +1,42 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FriendRecommendationListRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Хранилище заранее рассчитанных ранжированных списков рекомендаций, по одной строке на пользователя
+ */
+@Component
+@RequiredArgsConstructor
+public class RankedRecommendationStore {
+    private final FriendRecommendationListRepository repository;
+
+    /**
+     * Получает сохраненный список рекомендаций пользователя
+     *
+     * @param userId идентификатор пользователя
+     * @return рекомендации по убыванию оценки или пустое значение если список еще не рассчитан
+     */
+    public Optional<List<RecommendationFriendResponse>> find(Long userId) {
+        return repository.findByUserId(userId)
+                .map(list -> RankedRecommendationCodec.decode(list.getPayload(), list.getFactorNames(), list.getComputedAt()));
+    }
+
+    /**
+     * Сохраняет или заменяет список рекомендаций пользователя
+     *
+     * @param userId идентификатор пользователя
+     * @param recommendations рекомендации по убыванию оценки
+     */
+    public void save(Long userId, List<RecommendationFriendResponse> recommendations) {
+        String factorNames = RankedRecommendationCodec.factorNames(recommendations);
+        repository.upsert(userId, LocalDateTime.now(), factorNames, recommendations.size(),
+                RankedRecommendationCodec.encode(recommendations, factorNames));
+    }
+}
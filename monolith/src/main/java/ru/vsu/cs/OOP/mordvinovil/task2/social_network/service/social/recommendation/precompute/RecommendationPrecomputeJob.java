@@ -0,0 +1,202 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.UserRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.FriendRecommendationService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Периодический пересчет ранжированных списков рекомендаций для всех пользователей.
+ * Пользователи обходятся пачками по возрастанию идентификатора. Пачка считается параллельно
+ * на собственном пуле потоков низкого приоритета с ограничением скорости, включая поиск социальных
+ * расстояний, чтобы не отнимать ни общий пул обхода графа, ни другие ресурсы у онлайн-запросов
+ */
+@Component
+public class RecommendationPrecomputeJob {
+    @Value("${recommendation.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendation.precompute.parallelism:2}")
+    private int parallelism;
+
+    @Value("${recommendation.precompute.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${recommendation.precompute.max-users-per-second:50}")
+    private double maxUsersPerSecond;
+
+    private final UserRepository userRepository;
+    private final FriendRecommendationService friendRecommendationService;
+    private final CentralLogger centralLogger;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Object rateLock = new Object();
+    private long nextPermitNanos;
+    private ExecutorService executor;
+
+    public RecommendationPrecomputeJob(UserRepository userRepository,
+                                       FriendRecommendationService friendRecommendationService,
+                                       CentralLogger centralLogger) {
+        this.userRepository = userRepository;
+        this.friendRecommendationService = friendRecommendationService;
+        this.centralLogger = centralLogger;
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-precompute-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Пересчитывает списки рекомендаций всех пользователей. Повторный запуск,
+     * пока предыдущий не завершился, пропускается
+     *
+     * @return количество пользователей с успешно пересчитанными списками
+     */
+    @Scheduled(initialDelayString = "${recommendation.precompute.initial-delay:60000}",
+            fixedDelayString = "${recommendation.precompute.interval:3600000}")
+    public int recomputeAll() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("parallelism", parallelism);
+        context.put("chunkSize", chunkSize);
+        context.put("maxUsersPerSecond", maxUsersPerSecond);
+
+        centralLogger.logInfo("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_НАЧАТ",
+                "Начат пересчет рекомендаций для всех пользователей", context);
+
+        long startedAt = System.currentTimeMillis();
+        int processed = 0;
+        int failed = 0;
+        try {
+            Long afterId = 0L;
+            List<Long> userIds;
+            while (!(userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+                int recomputed = recomputeChunk(userIds);
+                processed += recomputed;
+                failed += userIds.size() - recomputed;
+                afterId = userIds.get(userIds.size() - 1);
+            }
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("processedUsers", processed);
+            resultContext.put("failedUsers", failed);
+            resultContext.put("durationMs", System.currentTimeMillis() - startedAt);
+
+            centralLogger.logInfo("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_ЗАВЕРШЕН",
+                    "Пересчет рекомендаций завершен", resultContext);
+
+            return processed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            centralLogger.logError("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_ПРЕРВАН",
+                    "Пересчет рекомендаций прерван", context, e);
+            return processed;
+        } catch (Exception e) {
+            centralLogger.logError("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_ОШИБКА",
+                    "Ошибка при пересчете рекомендаций", context, e);
+            return processed;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Пересчитывает пачку пользователей параллельно и дожидается ее завершения
+     *
+     * @param userIds идентификаторы пользователей пачки
+     * @return количество успешно пересчитанных пользователей
+     */
+    int recomputeChunk(List<Long> userIds) throws InterruptedException {
+        List<Callable<Boolean>> tasks = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            tasks.add(() -> recomputeUser(userId));
+        }
+
+        int recomputed = 0;
+        List<Future<Boolean>> futures = executor.invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i).get()) {
+                    recomputed++;
+                }
+            } catch (ExecutionException e) {
+                Map<String, Object> context = new HashMap<>();
+                context.put("userId", userIds.get(i));
+
+                centralLogger.logError("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_ПОЛЬЗОВАТЕЛЯ_ОШИБКА",
+                        "Ошибка потока при пересчете рекомендаций пользователя", context, e.getCause());
+            }
+        }
+        return recomputed;
+    }
+
+    private boolean recomputeUser(Long userId) throws InterruptedException {
+        acquirePermit();
+        try {
+            Map<Long, Double> socialDistances = friendRecommendationService.prepareSocialDistances(userId);
+            friendRecommendationService.recompute(userId, socialDistances);
+            return true;
+        } catch (Exception e) {
+            Map<String, Object> context = new HashMap<>();
+            context.put("userId", userId);
+
+            centralLogger.logError("РЕКОМЕНДАЦИИ_ПЕРЕСЧЕТ_ПОЛЬЗОВАТЕЛЯ_ОШИБКА",
+                    "Ошибка при пересчете рекомендаций пользователя", context, e);
+            return false;
+        }
+    }
+
+    /**
+     * Равномерно распределяет запуски пересчета, не допуская больше maxUsersPerSecond в секунду
+     */
+    private void acquirePermit() throws InterruptedException {
+        if (maxUsersPerSecond <= 0) {
+            return;
+        }
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / maxUsersPerSecond);
+        long waitNanos;
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            long permitAt = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permitAt + interval;
+            waitNanos = permitAt - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -8,16 +8,23 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.Co
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public final class DijkstraRecommendationStrategy implements RecommendationStrategy {
+    private static final double DISTANCE_WEIGHT = 0.7;
+    private static final double FACTORS_WEIGHT = 0.3;
+    private static final int MIN_SCORING_BATCH = 64;
+
     private final ConnectionStrengthCalculator strengthCalculator;
     private final CentralLogger centralLogger;
 
@@ -48,8 +55,12 @@ public final class DijkstraRecommendationStrategy implements RecommendationStrat
                 "Генерация рекомендаций друзей", context);
 
         try {
+            Map<Long, Map<String, Double>> detailedStrengths =
+                    strengthCalculator.calculateDetailedStrength(userId, socialDistances.keySet());
+
             List<RecommendationFriendResponse> recommendations = socialDistances.entrySet().stream()
-                    .map(entry -> createRecommendation(userId, entry.getKey(), entry.getValue()))
+                    .map(entry -> createRecommendation(userId, entry.getKey(), entry.getValue(),
+                            detailedStrengths.get(entry.getKey())))
                     .sorted(Comparator.comparing(RecommendationFriendResponse::getScore).reversed())
                     .collect(Collectors.toList());
 
@@ -67,7 +78,131 @@ public final class DijkstraRecommendationStrategy implements RecommendationStrat
         }
     }
 
-    private RecommendationFriendResponse createRecommendation(Long targetUserId, Long candidateId, Double distance) {
+    /**
+     * Отбирает limit лучших рекомендаций без оценки всех достижимых пользователей.
+     * Кандидаты перебираются по возрастанию расстояния и оцениваются пакетами. Кандидат пропускается,
+     * если его собственная граница (оценка расстояния плюс сумма границ факторов, например общих друзей
+     * не больше степени вершины) ниже худшей оценки в куче. Как только ниже нее опускается общая граница
+     * с максимальной суммой весов факторов, оставшиеся кандидаты отбрасываются целиком
+     *
+     * @param userId идентификатор пользователя
+     * @param socialDistances карта социальных расстояний
+     * @param excludedIds идентификаторы, которые нельзя рекомендовать
+     * @param limit максимальное количество рекомендаций
+     * @return рекомендации по убыванию оценки
+     */
+    @Override
+    public List<RecommendationFriendResponse> generateTopRecommendations(Long userId, Map<Long, Double> socialDistances,
+                                                                         Set<Long> excludedIds, int limit) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", userId);
+        context.put("socialDistancesCount", socialDistances.size());
+        context.put("limit", limit);
+
+        centralLogger.logInfo("РЕКОМЕНДАЦИИ_ДРУЗЕЙ_ОТБОР_ЛУЧШИХ",
+                "Отбор лучших рекомендаций друзей", context);
+
+        try {
+            if (limit <= 0) {
+                return List.of();
+            }
+
+            long[] candidateIds = new long[socialDistances.size()];
+            double[] distances = new double[socialDistances.size()];
+            int candidateCount = 0;
+            for (Map.Entry<Long, Double> entry : socialDistances.entrySet()) {
+                Long candidateId = entry.getKey();
+                if (!candidateId.equals(userId) && !excludedIds.contains(candidateId)) {
+                    candidateIds[candidateCount] = candidateId;
+                    distances[candidateCount] = entry.getValue();
+                    candidateCount++;
+                }
+            }
+
+            Integer[] order = new Integer[candidateCount];
+            for (int i = 0; i < candidateCount; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> distances[i])
+                    .thenComparingLong(i -> candidateIds[i]));
+
+            long[] candidateArray = Arrays.copyOf(candidateIds, candidateCount);
+            double maxFactorsScore = strengthCalculator.getMaxFactorStrength() * FACTORS_WEIGHT;
+            double[] factorBounds = strengthCalculator.getMaxFactorStrengths(userId, candidateArray);
+            TopKCandidateHeap heap = new TopKCandidateHeap(Math.min(limit, candidateCount));
+            Map<Long, Map<String, Double>> selectedFactors = new HashMap<>();
+            int batchSize = Math.max(limit, MIN_SCORING_BATCH);
+            int scoredCount = 0;
+            int skippedCount = 0;
+            int next = 0;
+            boolean bounded = false;
+
+            while (next < candidateCount && !bounded) {
+                List<Integer> batch = new ArrayList<>(batchSize);
+                while (next < candidateCount && batch.size() < batchSize) {
+                    int candidate = order[next];
+                    double distanceScore = calculateDistanceScore(distances[candidate]) * DISTANCE_WEIGHT;
+                    if (heap.isFull()) {
+                        if (distanceScore + maxFactorsScore < heap.minScore()) {
+                            bounded = true;
+                            break;
+                        }
+                        if (distanceScore + factorBounds[candidate] * FACTORS_WEIGHT < heap.minScore()) {
+                            skippedCount++;
+                            next++;
+                            continue;
+                        }
+                    }
+                    batch.add(candidate);
+                    next++;
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Long> batchIds = new ArrayList<>(batch.size());
+                for (int candidate : batch) {
+                    batchIds.add(candidateArray[candidate]);
+                }
+                Map<Long, Map<String, Double>> detailedStrengths =
+                        strengthCalculator.calculateDetailedStrength(userId, batchIds);
+                for (int candidate : batch) {
+                    Long candidateId = candidateArray[candidate];
+                    Map<String, Double> factorScores = detailedStrengths.get(candidateId);
+                    double score = calculateScore(calculateDistanceScore(distances[candidate]), factorScores);
+                    if (heap.offer(candidateId, score)) {
+                        selectedFactors.put(candidateId, factorScores);
+                    }
+                }
+                scoredCount += batch.size();
+            }
+
+            long[] topIds = heap.drainDescending();
+            List<RecommendationFriendResponse> recommendations = new ArrayList<>(topIds.length);
+            for (long candidateId : topIds) {
+                recommendations.add(createRecommendation(userId, candidateId, socialDistances.get(candidateId),
+                        selectedFactors.get(candidateId)));
+            }
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("candidatesCount", candidateCount);
+            resultContext.put("scoredCount", scoredCount);
+            resultContext.put("skippedCount", skippedCount);
+            resultContext.put("recommendationsCount", recommendations.size());
+
+            centralLogger.logInfo("РЕКОМЕНДАЦИИ_ДРУЗЕЙ_ЛУЧШИЕ_ОТОБРАНЫ",
+                    "Лучшие рекомендации друзей успешно отобраны", resultContext);
+
+            return recommendations;
+        } catch (Exception e) {
+            centralLogger.logError("РЕКОМЕНДАЦИИ_ДРУЗЕЙ_ОШИБКА_ОТБОРА",
+                    "Ошибка при отборе лучших рекомендаций друзей", context, e);
+            throw e;
+        }
+    }
+
+    private RecommendationFriendResponse createRecommendation(Long targetUserId, Long candidateId, Double distance,
+                                                              Map<String, Double> factorScores) {
         Map<String, Object> context = new HashMap<>();
         context.put("targetUserId", targetUserId);
         context.put("candidateId", candidateId);
@@ -77,11 +212,8 @@ public final class DijkstraRecommendationStrategy implements RecommendationStrat
                 "Создание рекомендации", context);
 
         try {
-            double distanceScore = 1.0 / (1.0 + distance);
-            Map<String, Double> factorScores = strengthCalculator.calculateDetailedStrength(targetUserId, candidateId);
-
-            double finalScore = distanceScore * 0.7 + factorScores.values()
-                    .stream().mapToDouble(Double::doubleValue).sum() * 0.3;
+            double distanceScore = calculateDistanceScore(distance);
+            double finalScore = calculateScore(distanceScore, factorScores);
 
             factorScores.put("socialDistance", distanceScore);
 
@@ -106,4 +238,13 @@ public final class DijkstraRecommendationStrategy implements RecommendationStrat
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private double calculateDistanceScore(double distance) {
+        return 1.0 / (1.0 + distance);
+    }
+
+    private double calculateScore(double distanceScore, Map<String, Double> factorScores) {
+        return distanceScore * DISTANCE_WEIGHT + factorScores.values()
+                .stream().mapToDouble(Double::doubleValue).sum() * FACTORS_WEIGHT;
+    }
+}
@@ -0,0 +1,190 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Стратегия рекомендаций на основе персонализированного PageRank, оцениваемого методом Монте-Карло.
+ * Из пользователя запускаются случайные блуждания с перезапуском, кандидаты ранжируются
+ * по доле посещений. Факторы силы связи не вычисляются, поэтому стратегия дешевле DIJKSTRA
+ */
+@Component
+public final class PersonalizedPageRankRecommendationStrategy implements RecommendationStrategy {
+    private static final String VISIT_FREQUENCY_FACTOR = "visitFrequency";
+
+    @Value("${recommendation.ppr.walks:2000}")
+    private int walks;
+
+    @Value("${recommendation.ppr.restart-probability:0.15}")
+    private double restartProbability;
+
+    @Value("${recommendation.ppr.max-walk-length:20}")
+    private int maxWalkLength;
+
+    private final FriendshipGraphProvider graphProvider;
+    private final RelationshipRepository relationshipRepository;
+    private final CentralLogger centralLogger;
+
+    public PersonalizedPageRankRecommendationStrategy(FriendshipGraphProvider graphProvider,
+                                                      RelationshipRepository relationshipRepository,
+                                                      CentralLogger centralLogger) {
+        this.graphProvider = graphProvider;
+        this.relationshipRepository = relationshipRepository;
+        this.centralLogger = centralLogger;
+    }
+
+    /**
+     * Получает имя стратегии
+     *
+     * @return имя стратегии
+     */
+    @Override
+    public String getStrategyName() {
+        return "PERSONALIZED_PAGERANK";
+    }
+
+    /**
+     * Стратегия обходит граф сама и не использует социальные расстояния
+     *
+     * @return false
+     */
+    @Override
+    public boolean requiresSocialDistances() {
+        return false;
+    }
+
+    /**
+     * Генерирует рекомендации по всем посещенным блужданиями пользователям
+     *
+     * @param userId идентификатор пользователя
+     * @param socialDistances не используется
+     * @return список рекомендаций по убыванию оценки
+     */
+    @Override
+    public List<RecommendationFriendResponse> generateRecommendations(Long userId, Map<Long, Double> socialDistances) {
+        return generateTopRecommendations(userId, socialDistances, Set.of(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Генерирует не более limit рекомендаций с наибольшей долей посещений
+     *
+     * @param userId идентификатор пользователя
+     * @param socialDistances не используется
+     * @param excludedIds идентификаторы, которые нельзя рекомендовать
+     * @param limit максимальное количество рекомендаций
+     * @return рекомендации по убыванию оценки
+     */
+    @Override
+    public List<RecommendationFriendResponse> generateTopRecommendations(Long userId, Map<Long, Double> socialDistances,
+                                                                         Set<Long> excludedIds, int limit) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("userId", userId);
+        context.put("walks", walks);
+        context.put("limit", limit);
+
+        centralLogger.logInfo("РЕКОМЕНДАЦИИ_PPR_ГЕНЕРАЦИЯ",
+                "Генерация рекомендаций случайными блужданиями", context);
+
+        try {
+            if (limit <= 0) {
+                return List.of();
+            }
+
+            Map<Long, int[]> visits = walk(userId);
+            long totalVisits = 0;
+            for (int[] count : visits.values()) {
+                totalVisits += count[0];
+            }
+
+            visits.remove(userId);
+            excludedIds.forEach(visits::remove);
+
+            TopKCandidateHeap heap = new TopKCandidateHeap(Math.min(limit, visits.size()));
+            for (Map.Entry<Long, int[]> entry : visits.entrySet()) {
+                heap.offer(entry.getKey(), entry.getValue()[0]);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            long[] topIds = heap.drainDescending();
+            List<RecommendationFriendResponse> recommendations = new ArrayList<>(topIds.length);
+            for (long candidateId : topIds) {
+                double frequency = (double) visits.get(candidateId)[0] / totalVisits;
+                Map<String, Double> factorScores = new HashMap<>();
+                factorScores.put(VISIT_FREQUENCY_FACTOR, frequency);
+                recommendations.add(RecommendationFriendResponse.builder()
+                        .recommendedUserId(candidateId)
+                        .score(frequency)
+                        .factorScores(factorScores)
+                        .createdAt(now)
+                        .build());
+            }
+
+            Map<String, Object> resultContext = new HashMap<>(context);
+            resultContext.put("visitedUsers", visits.size());
+            resultContext.put("totalVisits", totalVisits);
+            resultContext.put("recommendationsCount", recommendations.size());
+
+            centralLogger.logInfo("РЕКОМЕНДАЦИИ_PPR_СГЕНЕРИРОВАНЫ",
+                    "Рекомендации случайными блужданиями успешно сгенерированы", resultContext);
+
+            return recommendations;
+        } catch (Exception e) {
+            centralLogger.logError("РЕКОМЕНДАЦИИ_PPR_ОШИБКА_ГЕНЕРАЦИИ",
+                    "Ошибка при генерации рекомендаций случайными блужданиями", context, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Выполняет случайные блуждания с перезапуском и считает посещения каждого пользователя.
+     * При отсутствии графа в памяти друзья загружаются из базы и запоминаются на время запроса
+     */
+    private Map<Long, int[]> walk(Long userId) {
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        Map<Long, long[]> loadedFriends = graph == null ? new HashMap<>() : null;
+        RandomGenerator random = ThreadLocalRandom.current();
+        Map<Long, int[]> visits = new HashMap<>();
+
+        for (int w = 0; w < walks; w++) {
+            long current = userId;
+            for (int step = 0; step < maxWalkLength; step++) {
+                long next = graph != null
+                        ? graph.randomFriend(current, random)
+                        : randomFriendFromDatabase(current, loadedFriends, random);
+                if (next < 0) {
+                    break;
+                }
+
+                current = next;
+                visits.computeIfAbsent(current, id -> new int[1])[0]++;
+                if (random.nextDouble() < restartProbability) {
+                    break;
+                }
+            }
+        }
+        return visits;
+    }
+
+    private long randomFriendFromDatabase(long userId, Map<Long, long[]> loadedFriends, RandomGenerator random) {
+        long[] friends = loadedFriends.computeIfAbsent(userId, id ->
+                relationshipRepository.findFriendIdsByUserId(id, FriendshipStatus.ACCEPTED).stream()
+                        .mapToLong(Long::longValue)
+                        .toArray());
+        return friends.length == 0 ? -1 : friends[random.nextInt(friends.length)];
+    }
+}
@@ -4,8 +4,37 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendatio
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public interface RecommendationStrategy {
     String getStrategyName();
     List<RecommendationFriendResponse> generateRecommendations(Long userId, Map<Long, Double> socialDistances);
-}
\ No newline at end of file
+
+    /**
+     * Определяет, нужны ли стратегии социальные расстояния. Если нет, сервис не запускает их расчет
+     *
+     * @return true если стратегия использует социальные расстояния
+     */
+    default boolean requiresSocialDistances() {
+        return true;
+    }
+
+    /**
+     * Генерирует не более limit лучших рекомендаций, исключая пользователя и переданных кандидатов
+     *
+     * @param userId идентификатор пользователя
+     * @param socialDistances карта социальных расстояний
+     * @param excludedIds идентификаторы, которые нельзя рекомендовать
+     * @param limit максимальное количество рекомендаций
+     * @return рекомендации по убыванию оценки
+     */
+    default List<RecommendationFriendResponse> generateTopRecommendations(Long userId, Map<Long, Double> socialDistances,
+                                                                          Set<Long> excludedIds, int limit) {
+        return generateRecommendations(userId, socialDistances).stream()
+                .filter(rec -> !rec.getRecommendedUserId().equals(userId))
+                .filter(rec -> !excludedIds.contains(rec.getRecommendedUserId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
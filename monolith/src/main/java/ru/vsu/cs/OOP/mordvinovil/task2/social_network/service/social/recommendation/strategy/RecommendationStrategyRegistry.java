@@ -1,6 +1,6 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -8,10 +8,16 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public final class RecommendationStrategyRegistry {
+    @Value("${recommendation.strategy.default:DIJKSTRA}")
+    private String defaultStrategyName;
+
     private final List<RecommendationStrategy> strategies;
 
+    public RecommendationStrategyRegistry(List<RecommendationStrategy> strategies) {
+        this.strategies = strategies;
+    }
+
     /**
      * Получает карту стратегий рекомендаций
      *
@@ -23,12 +29,12 @@ public final class RecommendationStrategyRegistry {
     }
 
     /**
-     * Получает стратегию рекомендаций по умолчанию
+     * Получает стратегию рекомендаций по умолчанию, заданную в настройке recommendation.strategy.default
      *
      * @return стратегия рекомендаций по умолчанию
      */
     public RecommendationStrategy getDefaultStrategy() {
-        return getStrategyMap().get("DIJKSTRA");
+        return getStrategyMap().get(defaultStrategyName);
     }
 
     /**
@@ -0,0 +1,125 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy;
+
+/**
+ * Ограниченная min-куча кандидатов на примитивных массивах. Хранит не более K лучших
+ * кандидатов по оценке, в корне находится худший из отобранных. При равных оценках
+ * лучшим считается кандидат с меньшим идентификатором
+ */
+public final class TopKCandidateHeap {
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopKCandidateHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Размер кучи не может быть отрицательным");
+        }
+        this.ids = new long[capacity];
+        this.scores = new double[capacity];
+    }
+
+    /**
+     * Предлагает кандидата куче
+     *
+     * @param id идентификатор кандидата
+     * @param score оценка кандидата
+     * @return true если кандидат вошел в число лучших
+     */
+    public boolean offer(long id, double score) {
+        if (ids.length == 0) {
+            return false;
+        }
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (!better(id, score, 0)) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Получает минимальную оценку среди отобранных кандидатов
+     *
+     * @return оценка худшего кандидата в куче
+     */
+    public double minScore() {
+        if (size == 0) {
+            throw new IllegalStateException("Куча пуста");
+        }
+        return scores[0];
+    }
+
+    /**
+     * Извлекает отобранных кандидатов по убыванию оценки. Куча после вызова пуста
+     *
+     * @return идентификаторы кандидатов от лучшего к худшему
+     */
+    public long[] drainDescending() {
+        long[] result = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return result;
+    }
+
+    private boolean better(long id, double score, int index) {
+        return score > scores[index] || (score == scores[index] && id < ids[index]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(ids[parent], scores[parent], index)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int worst = right < size && better(ids[left], scores[left], right) ? right : left;
+            if (!better(ids[index], scores[index], worst)) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,233 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.sketch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MinHash-скетчи множеств друзей для оценки количества общих друзей за O(k) без обращения к базе.
+ * Скетч пользователя строится лениво по графу дружбы в памяти, любое изменение дружбы сбрасывает
+ * скетчи обоих пользователей до следующего обращения. Скетч, построенный по снимку графа, который
+ * устарел за время построения, не кешируется. Если оба множества не больше порога точного подсчета,
+ * общие друзья считаются точно пересечением отсортированных списков
+ */
+@Component
+public class FriendSetSketchIndex {
+    private static final long SEED = 0x5DEECE66DL;
+
+    @Value("${recommendation.mutual-friends.sketch-enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendation.mutual-friends.sketch-size:64}")
+    private int sketchSize;
+
+    @Value("${recommendation.mutual-friends.exact-threshold:64}")
+    private int exactThreshold;
+
+    @Value("${recommendation.mutual-friends.max-sketches:50000}")
+    private int maxSketches;
+
+    private final FriendshipGraphProvider graphProvider;
+    private final Map<Long, Sketch> sketches = new ConcurrentHashMap<>();
+    private final AtomicLong edgeVersion = new AtomicLong();
+    private volatile long[] hashSeeds;
+
+    public FriendSetSketchIndex(FriendshipGraphProvider graphProvider) {
+        this.graphProvider = graphProvider;
+    }
+
+    /**
+     * Оценивает количество общих друзей двух пользователей
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @return оценка количества общих друзей или пустое значение если скетчи отключены или граф недоступен
+     */
+    public Optional<Integer> estimateMutualFriends(long userId1, long userId2) {
+        long version = edgeVersion.get();
+        FriendshipGraphSnapshot graph = enabled ? graphProvider.getGraph() : null;
+        if (graph == null) {
+            return Optional.empty();
+        }
+        if (userId1 == userId2) {
+            return Optional.of(0);
+        }
+        return Optional.of(estimate(graph, version, graph.friendIds(userId1), sketch(graph, version, userId1), userId2));
+    }
+
+    /**
+     * Оценивает количество общих друзей пользователя с каждым кандидатом
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return оценки по кандидату, кандидаты без общих друзей отсутствуют;
+     * пустое значение если скетчи отключены или граф недоступен
+     */
+    public Optional<Map<Long, Integer>> estimateMutualFriends(long userId, Collection<Long> candidateIds) {
+        long version = edgeVersion.get();
+        FriendshipGraphSnapshot graph = enabled ? graphProvider.getGraph() : null;
+        if (graph == null) {
+            return Optional.empty();
+        }
+
+        long[] userFriends = graph.friendIds(userId);
+        Sketch userSketch = sketch(graph, version, userId);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Long candidateId : candidateIds) {
+            if (candidateId == userId) {
+                continue;
+            }
+            int count = estimate(graph, version, userFriends, userSketch, candidateId);
+            if (count > 0) {
+                counts.put(candidateId, count);
+            }
+        }
+        return Optional.of(counts);
+    }
+
+    /**
+     * Учитывает изменение дружбы, сбрасывая скетчи обоих пользователей. Должен вызываться
+     * после применения изменения к графу: скетчи, которые строятся в этот момент по прежнему снимку,
+     * увидят смену версии и не попадут в кеш
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @param friends true если дружба появилась, false если прекратилась
+     */
+    public void applyEdgeChange(long userId1, long userId2, boolean friends) {
+        edgeVersion.incrementAndGet();
+        sketches.remove(userId1);
+        sketches.remove(userId2);
+    }
+
+    public void clear() {
+        edgeVersion.incrementAndGet();
+        sketches.clear();
+    }
+
+    public int size() {
+        return sketches.size();
+    }
+
+    private int estimate(FriendshipGraphSnapshot graph, long version, long[] userFriends, Sketch userSketch,
+                         long candidateId) {
+        if (userFriends.length == 0) {
+            return 0;
+        }
+
+        Sketch candidateSketch = sketch(graph, version, candidateId);
+        if (candidateSketch.size() == 0) {
+            return 0;
+        }
+        if (userSketch.size() <= exactThreshold && candidateSketch.size() <= exactThreshold) {
+            return exactIntersection(userFriends, graph.friendIds(candidateId));
+        }
+
+        int matches = 0;
+        for (int i = 0; i < userSketch.minHashes().length; i++) {
+            if (userSketch.minHashes()[i] == candidateSketch.minHashes()[i]) {
+                matches++;
+            }
+        }
+        double jaccard = (double) matches / userSketch.minHashes().length;
+        long estimate = Math.round(jaccard * (userSketch.size() + candidateSketch.size()) / (1 + jaccard));
+        return (int) Math.min(estimate, Math.min(userSketch.size(), candidateSketch.size()));
+    }
+
+    /**
+     * Получает скетч пользователя из кеша или строит его по снимку графа. Если за время построения
+     * дружба изменилась, скетч мог быть построен по устаревшему снимку и удаляется из кеша
+     *
+     * @param graph снимок графа, полученный после чтения версии
+     * @param version версия изменений дружбы на момент получения снимка
+     * @param userId идентификатор пользователя
+     * @return скетч множества друзей
+     */
+    private Sketch sketch(FriendshipGraphSnapshot graph, long version, long userId) {
+        Sketch sketch = sketches.get(userId);
+        if (sketch != null) {
+            return sketch;
+        }
+        if (sketches.size() >= maxSketches) {
+            return Sketch.of(graph.friendIds(userId), seeds());
+        }
+
+        sketch = sketches.computeIfAbsent(userId, id -> Sketch.of(graph.friendIds(id), seeds()));
+        if (edgeVersion.get() != version) {
+            sketches.remove(userId, sketch);
+        }
+        return sketch;
+    }
+
+    private long[] seeds() {
+        long[] seeds = hashSeeds;
+        if (seeds == null || seeds.length != sketchSize) {
+            SplittableRandom random = new SplittableRandom(SEED);
+            seeds = new long[sketchSize];
+            for (int i = 0; i < sketchSize; i++) {
+                seeds[i] = random.nextLong();
+            }
+            hashSeeds = seeds;
+        }
+        return seeds;
+    }
+
+    private static int exactIntersection(long[] friends1, long[] friends2) {
+        long[] sorted1 = friends1.clone();
+        long[] sorted2 = friends2.clone();
+        Arrays.sort(sorted1);
+        Arrays.sort(sorted2);
+
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sorted1.length && j < sorted2.length) {
+            if (sorted1[i] == sorted2[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (sorted1[i] < sorted2[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Хеш-функция семейства: перемешивание идентификатора с зерном (финализатор SplitMix64)
+     */
+    private static long hash(long value, long seed) {
+        long z = value ^ seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Неизменяемый скетч: минимальные значения каждой хеш-функции и размер множества
+     */
+    record Sketch(long[] minHashes, int size) {
+        static Sketch of(long[] friendIds, long[] seeds) {
+            long[] minHashes = new long[seeds.length];
+            Arrays.fill(minHashes, Long.MAX_VALUE);
+            for (long friendId : friendIds) {
+                for (int i = 0; i < seeds.length; i++) {
+                    minHashes[i] = Math.min(minHashes[i], hash(friendId, seeds[i]));
+                }
+            }
+            return new Sketch(minHashes, friendIds.length);
+        }
+    }
+}
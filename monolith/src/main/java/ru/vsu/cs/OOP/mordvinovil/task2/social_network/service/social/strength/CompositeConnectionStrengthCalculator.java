@@ -4,8 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.factor.ConnectionStrengthFactor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -13,6 +19,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public final class CompositeConnectionStrengthCalculator implements ConnectionStrengthCalculator {
     private final ConnectionStrengthFactorRegistry factorRegistry;
+    private final EdgeStrengthCache edgeStrengthCache;
+    private final ProfileAttributeProvider profileAttributeProvider;
 
     /**
      * Вычисляет детализированную силу связи между пользователями по всем факторам
@@ -23,15 +31,47 @@ public final class CompositeConnectionStrengthCalculator implements ConnectionSt
      */
     @Override
     public Map<String, Double> calculateDetailedStrength(Long userId, Long targetUserId) {
-        return factorRegistry.getAllFactors().stream()
-                .collect(Collectors.toMap(
-                        ConnectionStrengthFactor::getFactorName,
-                        factor -> factor.calculateStrength(userId, targetUserId)
-                ));
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            return factorRegistry.getAllFactors().stream()
+                    .collect(Collectors.toMap(
+                            ConnectionStrengthFactor::getFactorName,
+                            factor -> factor.calculateStrength(userId, targetUserId)
+                    ));
+        }
+    }
+
+    /**
+     * Вычисляет детализированную силу связи пользователя со всеми кандидатами.
+     * Каждый фактор вызывается один раз для всего набора кандидатов, профили загружаются
+     * одним запросом на все факторы
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return карта кандидат -> (имя фактора -> значение силы)
+     */
+    @Override
+    public Map<Long, Map<String, Double>> calculateDetailedStrength(Long userId, Collection<Long> candidateIds) {
+        Map<Long, Map<String, Double>> result = new HashMap<>(candidateIds.size() * 2);
+        for (Long candidateId : candidateIds) {
+            result.put(candidateId, new HashMap<>());
+        }
+        if (candidateIds.isEmpty()) {
+            return result;
+        }
+
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            for (ConnectionStrengthFactor factor : factorRegistry.getAllFactors()) {
+                Map<Long, Double> scores = factor.calculateStrength(userId, candidateIds);
+                for (Long candidateId : candidateIds) {
+                    result.get(candidateId).put(factor.getFactorName(), scores.getOrDefault(candidateId, 0.0));
+                }
+            }
+        }
+        return result;
     }
 
     /**
-     * Вычисляет общую силу связи между пользователями
+     * Вычисляет общую силу связи между пользователями, используя кеш силы ребер
      *
      * @param userId идентификатор первого пользователя
      * @param targetUserId идентификатор второго пользователя
@@ -39,10 +79,114 @@ public final class CompositeConnectionStrengthCalculator implements ConnectionSt
      */
     @Override
     public double calculateOverallStrength(Long userId, Long targetUserId) {
-        double strength = factorRegistry.getAllFactors().stream()
-                .mapToDouble(factor -> factor.calculateStrength(userId, targetUserId))
+        OptionalDouble cached = edgeStrengthCache.get(userId, targetUserId);
+        if (cached.isPresent()) {
+            return cached.getAsDouble();
+        }
+
+        EdgeStrengthCache.Stamp stamp = edgeStrengthCache.stamp(userId, targetUserId);
+        double strength = computeOverallStrength(userId, targetUserId);
+        edgeStrengthCache.put(stamp, strength);
+        return strength;
+    }
+
+    /**
+     * Вычисляет общую силу связи пользователя с кандидатами. Закешированные пары берутся из кеша,
+     * остальные считаются пакетно всеми факторами и сохраняются в кеш
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return общая сила связи (не менее 0.1) по кандидату
+     */
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        Map<Long, Double> strengths = new HashMap<>(candidateIds.size() * 2);
+        List<EdgeStrengthCache.Stamp> stamps = new ArrayList<>();
+        List<Long> misses = new ArrayList<>();
+
+        for (Long candidateId : candidateIds) {
+            OptionalDouble cached = edgeStrengthCache.get(userId, candidateId);
+            if (cached.isPresent()) {
+                strengths.put(candidateId, cached.getAsDouble());
+            } else {
+                stamps.add(edgeStrengthCache.stamp(userId, candidateId));
+                misses.add(candidateId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, Map<String, Double>> detailed = calculateDetailedStrength(userId, misses);
+            for (int i = 0; i < misses.size(); i++) {
+                double strength = Math.max(0.1, detailed.get(misses.get(i)).values().stream()
+                        .mapToDouble(Double::doubleValue).sum());
+                strengths.put(misses.get(i), strength);
+                edgeStrengthCache.put(stamps.get(i), strength);
+            }
+        }
+        return strengths;
+    }
+
+    /**
+     * Вычисляет общую силу связи пользователя со всеми соседями и заранее наполняет ими кеш
+     *
+     * @param userId идентификатор пользователя
+     * @param targetUserIds идентификаторы соседей
+     * @return сила связи с каждым соседом в порядке входного массива
+     */
+    @Override
+    public double[] calculateOverallStrengths(Long userId, long[] targetUserIds) {
+        List<Long> candidateIds = new ArrayList<>(targetUserIds.length);
+        for (long targetUserId : targetUserIds) {
+            candidateIds.add(targetUserId);
+        }
+
+        Map<Long, Double> strengths = calculateStrength(userId, candidateIds);
+        double[] result = new double[targetUserIds.length];
+        for (int i = 0; i < targetUserIds.length; i++) {
+            result[i] = strengths.get(targetUserIds[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Получает верхнюю границу суммы факторов: каждый фактор не превышает своего веса
+     *
+     * @return сумма весов всех факторов
+     */
+    @Override
+    public double getMaxFactorStrength() {
+        return factorRegistry.getAllFactors().stream()
+                .mapToDouble(ConnectionStrengthFactor::getWeight)
                 .sum();
+    }
+
+    /**
+     * Получает верхнюю границу суммы факторов для каждого кандидата по границам отдельных факторов.
+     * Границы не требуют запросов к базе и не меньше фактических значений
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return границы суммы факторов в порядке входного массива
+     */
+    @Override
+    public double[] getMaxFactorStrengths(Long userId, long[] candidateIds) {
+        double[] bounds = new double[candidateIds.length];
+        for (ConnectionStrengthFactor factor : factorRegistry.getAllFactors()) {
+            double[] factorBounds = factor.upperBounds(userId, candidateIds);
+            for (int i = 0; i < bounds.length; i++) {
+                bounds[i] += factorBounds[i];
+            }
+        }
+        return bounds;
+    }
+
+    private double computeOverallStrength(Long userId, Long targetUserId) {
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            double strength = factorRegistry.getAllFactors().stream()
+                    .mapToDouble(factor -> factor.calculateStrength(userId, targetUserId))
+                    .sum();
 
-        return Math.max(0.1, strength);
+            return Math.max(0.1, strength);
+        }
     }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface ConnectionStrengthCalculator {
     Map<String, Double> calculateDetailedStrength(Long userId, Long targetUserId);
+    Map<Long, Map<String, Double>> calculateDetailedStrength(Long userId, Collection<Long> candidateIds);
     double calculateOverallStrength(Long userId, Long targetUserId);
-}
\ No newline at end of file
+    Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds);
+    double[] calculateOverallStrengths(Long userId, long[] targetUserIds);
+    double getMaxFactorStrength();
+    double[] getMaxFactorStrengths(Long userId, long[] candidateIds);
+}
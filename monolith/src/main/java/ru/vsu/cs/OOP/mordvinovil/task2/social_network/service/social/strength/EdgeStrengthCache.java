@@ -0,0 +1,124 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограниченный по размеру кеш силы связи для неупорядоченной пары пользователей.
+ * Вытеснение выполняется по давности использования (LRU) и по времени жизни записи.
+ * Инвалидация пользователя увеличивает его версию, поэтому все пары с ним устаревают за O(1)
+ */
+@Component
+public class EdgeStrengthCache {
+    @Value("${recommendation.strength-cache.max-size:200000}")
+    private int maxSize;
+
+    @Value("${recommendation.strength-cache.ttl:600000}")
+    private long ttlMillis;
+
+    private final Map<EdgeKey, CachedStrength> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<EdgeKey, CachedStrength> eldest) {
+                    return size() > maxSize;
+                }
+            });
+
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Получает закешированную силу связи пары
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @return сила связи или пустое значение если записи нет или она устарела
+     */
+    public OptionalDouble get(long userId1, long userId2) {
+        EdgeKey key = EdgeKey.of(userId1, userId2);
+        CachedStrength cached = entries.get(key);
+        if (cached == null) {
+            return OptionalDouble.empty();
+        }
+
+        if (cached.expiresAt() < System.currentTimeMillis()
+                || cached.lowVersion() != version(key.low())
+                || cached.highVersion() != version(key.high())) {
+            entries.remove(key, cached);
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of(cached.strength());
+    }
+
+    /**
+     * Фиксирует версии пользователей до начала вычисления силы связи,
+     * чтобы результат, посчитанный до инвалидации, не попал в кеш
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     * @return отметка версий пары
+     */
+    public Stamp stamp(long userId1, long userId2) {
+        EdgeKey key = EdgeKey.of(userId1, userId2);
+        return new Stamp(key, version(key.low()), version(key.high()));
+    }
+
+    /**
+     * Сохраняет силу связи, посчитанную после получения отметки
+     *
+     * @param stamp отметка версий пары
+     * @param strength сила связи
+     */
+    public void put(Stamp stamp, double strength) {
+        EdgeKey key = stamp.key();
+        if (stamp.lowVersion() != version(key.low()) || stamp.highVersion() != version(key.high())) {
+            return;
+        }
+        entries.put(key, new CachedStrength(strength, stamp.lowVersion(), stamp.highVersion(),
+                System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Делает устаревшими все пары с участием пользователя
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void invalidateUser(long userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+    }
+
+    /**
+     * Удаляет запись для конкретной пары пользователей
+     *
+     * @param userId1 первый пользователь
+     * @param userId2 второй пользователь
+     */
+    public void invalidatePair(long userId1, long userId2) {
+        entries.remove(EdgeKey.of(userId1, userId2));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private long version(long userId) {
+        return userVersions.getOrDefault(userId, 0L);
+    }
+
+    public record Stamp(EdgeKey key, long lowVersion, long highVersion) {
+    }
+
+    public record EdgeKey(long low, long high) {
+        static EdgeKey of(long userId1, long userId2) {
+            return userId1 <= userId2 ? new EdgeKey(userId1, userId2) : new EdgeKey(userId2, userId1);
+        }
+    }
+
+    private record CachedStrength(double strength, long lowVersion, long highVersion, long expiresAt) {
+    }
+}
@@ -2,6 +2,10 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.f
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 @RequiredArgsConstructor
 public abstract class AbstractConnectionStrengthFactor implements ConnectionStrengthFactor {
     protected final double weight;
@@ -14,4 +18,20 @@ public abstract class AbstractConnectionStrengthFactor implements ConnectionStre
     protected double normalizeScore(double rawScore, double maxScore) {
         return Math.min(rawScore / maxScore, 1.0) * weight;
     }
-}
\ No newline at end of file
+
+    protected Map<Long, Double> normalizeScores(Collection<Long> candidateIds, Map<Long, Integer> rawScores, double maxScore) {
+        Map<Long, Double> scores = new HashMap<>(candidateIds.size() * 2);
+        for (Long candidateId : candidateIds) {
+            scores.put(candidateId, normalizeScore(rawScores.getOrDefault(candidateId, 0), maxScore));
+        }
+        return scores;
+    }
+
+    protected Map<Long, Double> zeroScores(Collection<Long> candidateIds) {
+        Map<Long, Double> scores = new HashMap<>(candidateIds.size() * 2);
+        for (Long candidateId : candidateIds) {
+            scores.put(candidateId, 0.0);
+        }
+        return scores;
+    }
+}
@@ -4,6 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.calculator.SocialInteractionCalculator;
 
+import java.util.Collection;
+import java.util.Map;
+
 @Slf4j
 @Component
 public final class CommonLikeOnPost extends AbstractConnectionStrengthFactor {
@@ -24,4 +27,9 @@ public final class CommonLikeOnPost extends AbstractConnectionStrengthFactor {
         int commonLikes = calculator.calculateCommonLikesOnPostCount(userId, targetUserId);
         return normalizeScore(commonLikes, 10.0);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        return normalizeScores(candidateIds, calculator.calculateCommonLikesOnPostCounts(userId, candidateIds), 10.0);
+    }
+}
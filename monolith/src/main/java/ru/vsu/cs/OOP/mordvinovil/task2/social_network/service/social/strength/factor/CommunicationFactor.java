@@ -2,11 +2,20 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.f
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Component
 public final class CommunicationFactor extends AbstractConnectionStrengthFactor {
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final MessageRepository messageRepository;
 
     public CommunicationFactor(MessageRepository messageRepository) {
@@ -22,11 +31,35 @@ public final class CommunicationFactor extends AbstractConnectionStrengthFactor
     @Override
     public double calculateStrength(Long userId, Long targetUserId) {
         try {
-            boolean hasConversation = messageRepository.existsConversationBetweenUsers(userId, targetUserId);
+            boolean hasConversation = messageRepository.existsByConversationId(Message.conversationIdOf(userId, targetUserId));
             return hasConversation ? weight : 0.0;
         } catch (Exception e) {
             log.error("Error calculating communication factor", e);
             return 0.0;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        Map<Long, Double> scores = zeroScores(candidateIds);
+        if (candidateIds.isEmpty()) {
+            return scores;
+        }
+
+        try {
+            Map<String, Long> candidatesByConversation = new HashMap<>(candidateIds.size() * 2);
+            for (Long candidateId : candidateIds) {
+                candidatesByConversation.put(Message.conversationIdOf(userId, candidateId), candidateId);
+            }
+            List<String> keys = new ArrayList<>(candidatesByConversation.keySet());
+            for (int from = 0; from < keys.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<String> chunk = keys.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, keys.size()));
+                messageRepository.findExistingConversationIds(chunk)
+                        .forEach(conversationId -> scores.replace(candidatesByConversation.get(conversationId), weight));
+            }
+        } catch (Exception e) {
+            log.error("Error calculating communication factor", e);
+        }
+        return scores;
+    }
+}
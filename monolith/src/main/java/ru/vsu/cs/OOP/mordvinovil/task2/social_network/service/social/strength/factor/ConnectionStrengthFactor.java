@@ -1,7 +1,27 @@
 package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.factor;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
 public interface ConnectionStrengthFactor {
     String getFactorName();
     double calculateStrength(Long userId, Long targetUserId);
+    Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds);
     double getWeight();
-}
\ No newline at end of file
+
+    /**
+     * Оценивает сверху значение фактора для каждого кандидата без обращения к базе.
+     * По умолчанию граница равна весу фактора; факторы, которым доступна дешевая
+     * оценка, переопределяют метод более точной границей
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return верхние границы в порядке входного массива
+     */
+    default double[] upperBounds(Long userId, long[] candidateIds) {
+        double[] bounds = new double[candidateIds.length];
+        Arrays.fill(bounds, getWeight());
+        return bounds;
+    }
+}
@@ -2,20 +2,22 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.f
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.ProfileAgeCalculator;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
 public final class DemographicFactor extends AbstractConnectionStrengthFactor {
-    private final EntityUtils entityUtils;
-    private final ProfileAgeCalculator ageCalculator;
+    private final ProfileAttributeProvider profileAttributeProvider;
 
-    public DemographicFactor(EntityUtils entityUtils, ProfileAgeCalculator ageCalculator) {
+    public DemographicFactor(ProfileAttributeProvider profileAttributeProvider) {
         super(0.13);
-        this.entityUtils = entityUtils;
-        this.ageCalculator = ageCalculator;
+        this.profileAttributeProvider = profileAttributeProvider;
     }
 
     @Override
@@ -26,20 +28,42 @@ public final class DemographicFactor extends AbstractConnectionStrengthFactor {
     @Override
     public double calculateStrength(Long userId, Long targetUserId) {
         try {
-            Profile user1 = entityUtils.getProfileByUserId(userId);
-            Profile user2 = entityUtils.getProfileByUserId(targetUserId);
+            ProfileAttributeSnapshot profiles = profileAttributeProvider.load(List.of(userId, targetUserId));
+            return similarAge(profiles.age(userId), profiles.age(targetUserId)) ? weight : 0.0;
+        } catch (Exception e) {
+            log.error("Error calculating demographic factor", e);
+            return 0.0;
+        }
+    }
 
-            if (user1.getDateOfBirth() == null || user2.getDateOfBirth() == null) {
-                return 0.0;
-            }
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        Map<Long, Double> scores = zeroScores(candidateIds);
+        if (candidateIds.isEmpty()) {
+            return scores;
+        }
 
-            Integer ageUser1 = ageCalculator.calculateAge(user1.getDateOfBirth());
-            Integer ageUser2 = ageCalculator.calculateAge(user2.getDateOfBirth());
+        try {
+            List<Long> userIds = new ArrayList<>(candidateIds);
+            userIds.add(userId);
+            ProfileAttributeSnapshot profiles = profileAttributeProvider.load(userIds);
 
-            return Math.abs(ageUser1 - ageUser2) <= 5 ? weight : 0.0;
+            int userAge = profiles.age(userId);
+            if (userAge != ProfileAttributeSnapshot.UNKNOWN) {
+                for (Long candidateId : candidateIds) {
+                    if (similarAge(userAge, profiles.age(candidateId))) {
+                        scores.put(candidateId, weight);
+                    }
+                }
+            }
         } catch (Exception e) {
             log.error("Error calculating demographic factor", e);
-            return 0.0;
         }
+        return scores;
+    }
+
+    private boolean similarAge(int age1, int age2) {
+        return age1 != ProfileAttributeSnapshot.UNKNOWN && age2 != ProfileAttributeSnapshot.UNKNOWN
+                && Math.abs(age1 - age2) <= 5;
     }
-}
\ No newline at end of file
+}
@@ -2,17 +2,22 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.f
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Component
 public final class GeographicFactor extends AbstractConnectionStrengthFactor {
-    private final EntityUtils entityUtils;
+    private final ProfileAttributeProvider profileAttributeProvider;
 
-    public GeographicFactor(EntityUtils entityUtils) {
+    public GeographicFactor(ProfileAttributeProvider profileAttributeProvider) {
         super(0.15);
-        this.entityUtils = entityUtils;
+        this.profileAttributeProvider = profileAttributeProvider;
     }
 
     @Override
@@ -23,12 +28,38 @@ public final class GeographicFactor extends AbstractConnectionStrengthFactor {
     @Override
     public double calculateStrength(Long userId, Long targetUserId) {
         try {
-            Profile user1 = entityUtils.getProfileByUserId(userId);
-            Profile user2 = entityUtils.getProfileByUserId(targetUserId);
-            return user1.getCity().equals(user2.getCity()) ? weight : 0.0;
+            ProfileAttributeSnapshot profiles = profileAttributeProvider.load(List.of(userId, targetUserId));
+            int userCity = profiles.cityCode(userId);
+            return userCity != ProfileAttributeSnapshot.UNKNOWN && userCity == profiles.cityCode(targetUserId) ? weight : 0.0;
         } catch (Exception e) {
             log.error("Error calculating geographic factor", e);
             return 0.0;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        Map<Long, Double> scores = zeroScores(candidateIds);
+        if (candidateIds.isEmpty()) {
+            return scores;
+        }
+
+        try {
+            List<Long> userIds = new ArrayList<>(candidateIds);
+            userIds.add(userId);
+            ProfileAttributeSnapshot profiles = profileAttributeProvider.load(userIds);
+
+            int userCity = profiles.cityCode(userId);
+            if (userCity != ProfileAttributeSnapshot.UNKNOWN) {
+                for (Long candidateId : candidateIds) {
+                    if (profiles.cityCode(candidateId) == userCity) {
+                        scores.put(candidateId, weight);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error calculating geographic factor", e);
+        }
+        return scores;
+    }
+}
@@ -3,15 +3,22 @@ package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.f
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.calculator.SocialInteractionCalculator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+
+import java.util.Collection;
+import java.util.Map;
 
 @Slf4j
 @Component
 public final class MutualFriendsFactor extends AbstractConnectionStrengthFactor {
     private final SocialInteractionCalculator calculator;
+    private final FriendshipGraphProvider graphProvider;
 
-    public MutualFriendsFactor(SocialInteractionCalculator calculator) {
+    public MutualFriendsFactor(SocialInteractionCalculator calculator, FriendshipGraphProvider graphProvider) {
         super(0.6);
         this.calculator = calculator;
+        this.graphProvider = graphProvider;
     }
 
     @Override
@@ -24,4 +31,32 @@ public final class MutualFriendsFactor extends AbstractConnectionStrengthFactor
         int mutualFriends = calculator.calculateMutualFriendsCount(userId, targetUserId);
         return normalizeScore(mutualFriends, 5.0);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<Long, Double> calculateStrength(Long userId, Collection<Long> candidateIds) {
+        return normalizeScores(candidateIds, calculator.calculateMutualFriendsCounts(userId, candidateIds), 5.0);
+    }
+
+    /**
+     * Общих друзей не больше, чем друзей у менее связанного из двух пользователей,
+     * поэтому граница берется по степеням вершин графа в памяти
+     *
+     * @param userId идентификатор пользователя
+     * @param candidateIds идентификаторы кандидатов
+     * @return верхние границы в порядке входного массива
+     */
+    @Override
+    public double[] upperBounds(Long userId, long[] candidateIds) {
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        if (graph == null) {
+            return super.upperBounds(userId, candidateIds);
+        }
+
+        int userDegree = graph.friendIds(userId).length;
+        double[] bounds = new double[candidateIds.length];
+        for (int i = 0; i < candidateIds.length; i++) {
+            bounds[i] = normalizeScore(Math.min(userDegree, graph.friendIds(candidateIds[i]).length), 5.0);
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ProfileRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.ProfileAttributesProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.ProfileAgeCalculator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Загружает атрибуты профилей пакетно. Внутри открытой области расчета снимок общий для
+ * всех факторов и всех пакетов кандидатов потока, поэтому профиль каждого пользователя
+ * читается из базы не более одного раза за расчет рекомендаций
+ */
+@Component
+@RequiredArgsConstructor
+public class ProfileAttributeProvider {
+    private static final Scope NESTED_SCOPE = () -> {
+    };
+
+    private final ProfileRepository profileRepository;
+    private final ProfileAgeCalculator ageCalculator;
+    private final ThreadLocal<ProfileAttributeSnapshot> currentSnapshot = new ThreadLocal<>();
+
+    /**
+     * Открывает область расчета в текущем потоке. Вложенные области используют внешний снимок
+     *
+     * @return область, которую нужно закрыть по окончании расчета
+     */
+    public Scope openScope() {
+        if (currentSnapshot.get() != null) {
+            return NESTED_SCOPE;
+        }
+        currentSnapshot.set(new ProfileAttributeSnapshot());
+        return currentSnapshot::remove;
+    }
+
+    /**
+     * Получает снимок, содержащий атрибуты всех переданных пользователей.
+     * Из базы одним запросом загружаются только пользователи, которых еще нет в снимке
+     *
+     * @param userIds идентификаторы пользователей
+     * @return снимок атрибутов
+     */
+    public ProfileAttributeSnapshot load(Collection<Long> userIds) {
+        ProfileAttributeSnapshot snapshot = currentSnapshot.get();
+        if (snapshot == null) {
+            snapshot = new ProfileAttributeSnapshot();
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!snapshot.contains(userId)) {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return snapshot;
+        }
+
+        for (ProfileAttributesProjection attributes : profileRepository.findAttributesByUserIdIn(missing)) {
+            snapshot.put(attributes.getUserId(), attributes.getCity(),
+                    ageCalculator.calculateAge(attributes.getDateOfBirth()));
+        }
+        for (Long userId : missing) {
+            if (!snapshot.contains(userId)) {
+                snapshot.put(userId, null, null);
+            }
+        }
+        return snapshot;
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
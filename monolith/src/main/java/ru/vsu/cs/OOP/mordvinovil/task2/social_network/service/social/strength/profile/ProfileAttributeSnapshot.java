@@ -0,0 +1,120 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Снимок атрибутов профилей, нужных факторам силы связи: код города и возраст.
+ * Хранится в хеш-таблице с открытой адресацией по примитивному ключу, города
+ * заменены целочисленными кодами. Не потокобезопасен, используется в пределах одного расчета
+ */
+public final class ProfileAttributeSnapshot {
+    public static final int UNKNOWN = -1;
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> cityCodes = new HashMap<>();
+    private long[] keys;
+    private int[] cities;
+    private int[] ages;
+    private int size;
+
+    public ProfileAttributeSnapshot() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Проверяет, загружены ли атрибуты пользователя, в том числе отсутствующие
+     *
+     * @param userId идентификатор пользователя
+     * @return true если пользователь уже есть в снимке
+     */
+    public boolean contains(long userId) {
+        return slot(userId) >= 0;
+    }
+
+    /**
+     * Получает код города пользователя. Одинаковые города имеют одинаковый код в пределах снимка
+     *
+     * @param userId идентификатор пользователя
+     * @return код города или UNKNOWN если город не указан
+     */
+    public int cityCode(long userId) {
+        int slot = slot(userId);
+        return slot >= 0 ? cities[slot] : UNKNOWN;
+    }
+
+    /**
+     * Получает возраст пользователя, вычисленный при загрузке снимка
+     *
+     * @param userId идентификатор пользователя
+     * @return возраст или UNKNOWN если дата рождения не указана
+     */
+    public int age(long userId) {
+        int slot = slot(userId);
+        return slot >= 0 ? ages[slot] : UNKNOWN;
+    }
+
+    /**
+     * Добавляет атрибуты пользователя в снимок
+     *
+     * @param userId идентификатор пользователя
+     * @param city город или null
+     * @param age возраст или null
+     */
+    public void put(long userId, String city, Integer age) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+
+        int slot = insertionSlot(userId);
+        if (keys[slot] == EMPTY_KEY) {
+            size++;
+        }
+        keys[slot] = userId;
+        cities[slot] = city != null ? cityCodes.computeIfAbsent(city, c -> cityCodes.size()) : UNKNOWN;
+        ages[slot] = age != null ? age : UNKNOWN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long userId) {
+        int slot = insertionSlot(userId);
+        return keys[slot] == userId ? slot : -1;
+    }
+
+    private int insertionSlot(long userId) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(userId * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != userId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCities = cities;
+        int[] oldAges = ages;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = insertionSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                cities[slot] = oldCities[i];
+                ages[slot] = oldAges[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        cities = new int[capacity];
+        ages = new int[capacity];
+    }
+}
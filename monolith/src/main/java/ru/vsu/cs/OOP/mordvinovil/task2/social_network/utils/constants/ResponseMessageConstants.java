@@ -11,12 +11,16 @@ public final class ResponseMessageConstants {
     public static final String FAILURE_MESSAGE_CONTENT_CANNOT_BE_EMPTY = "Ошибка! Содержание сообщения не может быть пустым";
     public static final String FAILURE_MESSAGE_CONTENT_TOO_LONG = "Ошибка! Содержание сообщения слишком длинное.";
     public static final String FAILURE_MESSAGE_NOT_FOUND = "Ошибка! Сообщение не найдено";
+    public static final String FAILURE_MESSAGE_CURSOR_INVALID = "Ошибка! Курсор не принадлежит этой переписке";
 
     // POST CONSTANTS
     public static final String FAILURE_POST_NOT_FOUND = "Ошибка! Пост не найден";
     public static final String FAILURE_POST_CONTENT_CANNOT_BE_EMPTY = "Ошибка! Содержание поста не может быть пустым";
     public static final String FAILURE_POST_CONTENT_TOO_LONG = "Ошибка! Содержание поста слишком длинное.";
 
+    // FEED CONSTANTS
+    public static final String FAILURE_FEED_CURSOR_INVALID = "Ошибка! Некорректный курсор ленты. Ожидается формат <createdAt>,<id>";
+
     // LIKE CONSTANTS
     public static final String FAILURE_LIKE_ALREADY_EXISTS_ON_POST = "Ошибка! Лайк уже поставлен на данный пост.";
     public static final String FAILURE_LIKE_NOT_FOUND = "Ошибка! Лайк не найден.";
@@ -48,6 +52,9 @@ public final class ResponseMessageConstants {
     public static final String FAILURE_RELATIONSHIP_NOT_FOUND = "Ошибка! Отношения не найдены";
     public static final String FAILURE_RELATIONSHIP_CANNOT_CHANGE_QUERY = "Ошибка! Вы не можете изменить этот запрос";
 
+    // RECOMMENDATION CONSTANTS
+    public static final String FAILURE_RECOMMENDATION_STRATEGY_NOT_FOUND = "Ошибка! Стратегия рекомендаций не найдена";
+
     // FILE STORAGE CONSTANTS
     public static final String FAILURE_FILE_SAVE = "Ошибка при сохранении файла";
     public static final String FAILURE_INCORRECT_PATH_TO_FILE = "Ошибка! Некорректный путь к файлу.";
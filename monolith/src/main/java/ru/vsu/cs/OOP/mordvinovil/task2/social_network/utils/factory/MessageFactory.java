@@ -15,6 +15,7 @@ public class MessageFactory {
         return Message.builder()
                 .sender(sender)
                 .receiver(receiver)
+                .conversationId(Message.conversationIdOf(sender.getId(), receiver.getId()))
                 .content(request.getContent())
                 .imageUrl(request.getImageUrl())
                 .status(MessageStatus.SENT)
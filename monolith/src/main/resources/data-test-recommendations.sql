@@ -103,12 +103,20 @@ INSERT INTO likes (id, user_id, post_id, comment_id, created_at) VALUES
 -- Сброс последовательности для likes
 SELECT setval('likes_id_seq', (SELECT MAX(id) FROM likes));
 
+-- ==================== СЧЕТЧИКИ ЛАЙКОВ И КОММЕНТАРИЕВ ====================
+UPDATE posts p SET
+    like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id),
+    comment_count = (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id);
+
+UPDATE comment c SET
+    like_count = (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id);
+
 -- ==================== СООБЩЕНИЯ ====================
-INSERT INTO messages (id, sender_id, receiver_id, content, image_url, status, time_update, created_at) VALUES
-(1, 1, 7, 'Привет! Как дела?', NULL, 'SENT', NOW(), NOW()),
-(2, 7, 1, 'Привет! Все отлично, работаю над новым проектом', NULL, 'SENT', NOW(), NOW()),
-(3, 1, 7, 'Здорово! Расскажешь поподробнее?', NULL, 'SENT', NOW(), NOW()),
-(4, 1, 9, 'Здравствуйте!', NULL, 'SENT', NOW(), NOW());
+INSERT INTO messages (id, sender_id, receiver_id, conversation_id, content, image_url, status, time_update, created_at) VALUES
+(1, 1, 7, '1:7', 'Привет! Как дела?', NULL, 'SENT', NOW(), NOW()),
+(2, 7, 1, '1:7', 'Привет! Все отлично, работаю над новым проектом', NULL, 'SENT', NOW(), NOW()),
+(3, 1, 7, '1:7', 'Здорово! Расскажешь поподробнее?', NULL, 'SENT', NOW(), NOW()),
+(4, 1, 9, '1:9', 'Здравствуйте!', NULL, 'SENT', NOW(), NOW());
 
 -- Сброс последовательности для messages
 SELECT setval('messages_id_seq', (SELECT MAX(id) FROM messages));
\ No newline at end of file
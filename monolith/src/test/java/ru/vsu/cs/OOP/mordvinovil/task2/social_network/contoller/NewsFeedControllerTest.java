@@ -7,16 +7,21 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.controller.feed.NewsFeedController;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.CacheMode;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.factory.NewsFeedServiceFactory;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.BaseControllerTest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,7 +53,7 @@ public class NewsFeedControllerTest extends BaseControllerTest {
 
         when(userService.getCurrentUser()).thenReturn(user);
         when(newsFeedServiceFactory.getService(CacheMode.CACHE)).thenReturn(cachingService);
-        when(cachingService.getPostsByFriends(any(), any())).thenReturn(pageResponse);
+        when(cachingService.getPostsByFriends(any(), any(), any())).thenReturn(pageResponse);
 
         mockMvcUtils.performGet("/newsfeed?size=10&pageNumber=0&cacheMode=CACHE")
                 .andExpect(status().isOk())
@@ -67,7 +72,7 @@ public class NewsFeedControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(10));
 
         verify(newsFeedServiceFactory, times(1)).getService(CacheMode.CACHE);
-        verify(cachingService, times(1)).getPostsByFriends(any(), any());
+        verify(cachingService, times(1)).getPostsByFriends(any(), any(), any());
         verify(userService, times(1)).getCurrentUser();
     }
 
@@ -91,7 +96,7 @@ public class NewsFeedControllerTest extends BaseControllerTest {
 
         when(userService.getCurrentUser()).thenReturn(user);
         when(newsFeedServiceFactory.getService(CacheMode.NONE_CACHE)).thenReturn(nonCachingService);
-        when(nonCachingService.getPostsByFriends(any(), any())).thenReturn(pageResponse);
+        when(nonCachingService.getPostsByFriends(any(), any(), any())).thenReturn(pageResponse);
 
         mockMvcUtils.performGet("/newsfeed?size=10&pageNumber=0&cacheMode=NONE_CACHE")
                 .andExpect(status().isOk())
@@ -101,7 +106,7 @@ public class NewsFeedControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(10));
 
         verify(newsFeedServiceFactory, times(1)).getService(CacheMode.NONE_CACHE);
-        verify(nonCachingService, times(1)).getPostsByFriends(any(), any());
+        verify(nonCachingService, times(1)).getPostsByFriends(any(), any(), any());
         verify(userService, times(1)).getCurrentUser();
     }
 
@@ -125,14 +130,14 @@ public class NewsFeedControllerTest extends BaseControllerTest {
 
         when(userService.getCurrentUser()).thenReturn(user);
         when(newsFeedServiceFactory.getService(CacheMode.CACHE)).thenReturn(cachingService);
-        when(cachingService.getPostsByFriends(any(), any())).thenReturn(pageResponse);
+        when(cachingService.getPostsByFriends(any(), any(), any())).thenReturn(pageResponse);
 
         mockMvcUtils.performGet("/newsfeed?size=10&pageNumber=0")
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content.length()").value(10));
 
         verify(newsFeedServiceFactory, times(1)).getService(CacheMode.CACHE);
-        verify(cachingService, times(1)).getPostsByFriends(any(), any());
+        verify(cachingService, times(1)).getPostsByFriends(any(), any(), any());
         verify(userService, times(1)).getCurrentUser();
     }
 
@@ -145,4 +150,41 @@ public class NewsFeedControllerTest extends BaseControllerTest {
         verify(newsFeedServiceFactory, never()).getService(any());
         verify(userService, never()).getCurrentUser();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "testUser", authorities = "USER")
+    @DisplayName("Получение ленты новостей по курсору - успешно")
+    void getNewsFeedByCursor_whenCursorIsValid() throws Exception {
+        List<NewsFeedResponse> newsFeedResponseList = TestDataFactory.createTestNewsFeedResponseList();
+        var sliceResponse = SliceResponse.of(newsFeedResponseList, 10, "2024-01-01T10:00,5");
+
+        var user = TestDataFactory.createTestUser(1L, "testUser");
+        var cachingService = mock(NewsFeedService.class);
+
+        when(userService.getCurrentUser()).thenReturn(user);
+        when(newsFeedServiceFactory.getService(CacheMode.CACHE)).thenReturn(cachingService);
+        when(cachingService.getPostsByFriendsAfter(any(), any(), eq(10), any())).thenReturn(sliceResponse);
+
+        mockMvcUtils.performGet("/newsfeed/cursor?after=2024-01-01T12:00:00,15&size=10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("2024-01-01T10:00,5"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(cachingService, times(1)).getPostsByFriendsAfter(eq(user),
+                argThat(cursor -> cursor.getPostId() == 15L
+                        && cursor.getCreatedAt().equals(LocalDateTime.of(2024, 1, 1, 12, 0))),
+                eq(10), eq(FeedView.FULL));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser", authorities = "USER")
+    @DisplayName("Получение ленты новостей по курсору с некорректным курсором - 400 ошибка")
+    void getNewsFeedByCursor_whenCursorIsInvalid() throws Exception {
+        mockMvcUtils.performGet("/newsfeed/cursor?after=not-a-cursor")
+                .andExpect(status().isBadRequest());
+
+        verify(newsFeedServiceFactory, never()).getService(any());
+    }
+}
@@ -0,0 +1,32 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FeedPullAuthorRepositoryTest {
+    @Autowired
+    private FeedPullAuthorRepository feedPullAuthorRepository;
+
+    @Test
+    void markPullAuthor_shouldInsertAuthorOnce() {
+        assertFalse(feedPullAuthorRepository.existsByAuthorId(1001L));
+
+        assertEquals(1, feedPullAuthorRepository.markPullAuthor(1001L, 5000L));
+        assertEquals(0, feedPullAuthorRepository.markPullAuthor(1001L, 6000L));
+
+        assertTrue(feedPullAuthorRepository.existsByAuthorId(1001L));
+        assertEquals(1, feedPullAuthorRepository.findAll().stream()
+                .filter(author -> author.getAuthorId().equals(1001L))
+                .count());
+    }
+}
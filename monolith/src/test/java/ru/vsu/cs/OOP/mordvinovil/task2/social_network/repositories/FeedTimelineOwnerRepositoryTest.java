@@ -0,0 +1,39 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FeedTimelineOwnerRepositoryTest {
+    @Autowired
+    private FeedTimelineOwnerRepository feedTimelineOwnerRepository;
+
+    @Test
+    void markBackfilled_shouldInsertOwnerOnce() {
+        assertFalse(feedTimelineOwnerRepository.existsByOwnerId(2001L));
+
+        assertEquals(1, feedTimelineOwnerRepository.markBackfilled(2001L));
+        assertEquals(0, feedTimelineOwnerRepository.markBackfilled(2001L));
+
+        assertTrue(feedTimelineOwnerRepository.existsByOwnerId(2001L));
+    }
+
+    @Test
+    void unmarkBackfilled_shouldAllowMarkingAgain() {
+        feedTimelineOwnerRepository.markBackfilled(2002L);
+
+        assertEquals(1, feedTimelineOwnerRepository.unmarkBackfilled(2002L));
+
+        assertFalse(feedTimelineOwnerRepository.existsByOwnerId(2002L));
+        assertEquals(1, feedTimelineOwnerRepository.markBackfilled(2002L));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.GenericCacheEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.eventhandler.cache.CacheEventHandlerImpl;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedCacheService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.cache.NewsFeedCacheServiceImpl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheEventHandlerImplTest {
+    @Mock
+    private NewsFeedCacheService cacheService;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private CacheEventHandlerImpl cacheEventHandler;
+
+    @Test
+    void handleCacheEvent_shouldNotEvictImmediately() {
+        cacheEventHandler.handleCacheEvent(eventForPost(1L));
+
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void flushPendingInvalidations_shouldCoalesceEventsPerPost() {
+        for (int i = 0; i < 10; i++) {
+            cacheEventHandler.handleCacheEvent(eventForPost(1L));
+        }
+        cacheEventHandler.handleCacheEvent(eventForPost(2L));
+
+        int flushed = cacheEventHandler.flushPendingInvalidations();
+
+        assertEquals(2, flushed);
+        verify(cacheService).evictCachePostsForFriends(
+                argThat((Collection<Long> ids) -> ids.size() == 2 && Set.copyOf(ids).equals(Set.of(1L, 2L))));
+        verify(cacheService, never()).evictCachePostForFriends(any());
+    }
+
+    @Test
+    void flushPendingInvalidations_whenNothingPending_shouldSkipEviction() {
+        cacheEventHandler.handleCacheEvent(eventForPost(null));
+
+        assertEquals(0, cacheEventHandler.flushPendingInvalidations());
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void flushPendingInvalidations_shouldDrainBuffer() {
+        cacheEventHandler.handleCacheEvent(eventForPost(1L));
+        cacheEventHandler.flushPendingInvalidations();
+
+        assertEquals(0, cacheEventHandler.flushPendingInvalidations());
+        verify(cacheService, times(1)).evictCachePostsForFriends(any());
+    }
+
+    @Test
+    void flushPendingInvalidations_whenEvictionFails_shouldRequeuePosts() {
+        doThrow(new RuntimeException("Redis error")).doNothing()
+                .when(cacheService).evictCachePostsForFriends(any());
+        cacheEventHandler.handleCacheEvent(eventForPost(1L));
+
+        cacheEventHandler.flushPendingInvalidations();
+
+        assertEquals(1, cacheEventHandler.flushPendingInvalidations());
+        verify(cacheService, times(2)).evictCachePostsForFriends(
+                argThat((Collection<Long> ids) -> Set.copyOf(ids).equals(Set.of(1L))));
+    }
+
+    @Test
+    void flushPendingInvalidations_whenRedisFailsInsideCacheService_shouldRequeuePosts() {
+        PostRepository postRepository = mock(PostRepository.class);
+        RelationshipRepository relationshipRepository = mock(RelationshipRepository.class);
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        when(postRepository.findOwnerIdsByIdIn(any())).thenReturn(Set.of(1L));
+        when(relationshipRepository.findFriendIdsByUserIdIn(Set.of(1L), FriendshipStatus.ACCEPTED))
+                .thenReturn(Set.of());
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis is down"));
+        NewsFeedCacheServiceImpl realCacheService = new NewsFeedCacheServiceImpl(
+                postRepository, relationshipRepository, redisTemplate, centralLogger);
+        ReflectionTestUtils.setField(realCacheService, "evictionBatchSize", 500);
+        CacheEventHandlerImpl handler = new CacheEventHandlerImpl(realCacheService, centralLogger);
+        handler.handleCacheEvent(eventForPost(1L));
+        handler.handleCacheEvent(eventForPost(2L));
+
+        handler.flushPendingInvalidations();
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) ReflectionTestUtils.getField(handler, "pendingPostIds");
+        assertEquals(Set.of(1L, 2L), pending);
+        verify(centralLogger).logError(eq("ИЗМЕНЕНИЕ_КЕША_ОШИБКА"), any(), any(), any());
+    }
+
+    private GenericCacheEvent eventForPost(Long postId) {
+        GenericCacheEvent event = new GenericCacheEvent(this, null, Map.of());
+        event.addData("postId", postId);
+        return event;
+    }
+}
@@ -11,12 +11,12 @@ import org.springframework.data.domain.Sort;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.CachingNewsFeedServiceImpl;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.NewsFeedResponseAssembler;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory;
 
 import java.util.List;
@@ -33,10 +33,10 @@ public class CachingNewsFeedServiceImplTest {
     private CentralLogger centralLogger;
 
     @Mock
-    private NewsFeedRepository newsFeedRepository;
+    private NewsFeedTimelineService newsFeedTimelineService;
 
     @Mock
-    private EntityMapper entityMapper;
+    private NewsFeedResponseAssembler newsFeedResponseAssembler;
 
     @InjectMocks
     private CachingNewsFeedServiceImpl cachingNewsFeedService;
@@ -44,13 +44,10 @@ public class CachingNewsFeedServiceImplTest {
     @Test
     void getPostsByFriends_whenCacheMiss() {
         User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
-        List<Post> postList = List.of(
-                TestDataFactory.createTestPost(user, "Test post 1", "image1.jpg"),
-                TestDataFactory.createTestPost(user, "Test post 2", "image2.jpg")
-        );
-        Page<Post> postPage = new PageImpl<>(postList);
+        List<Long> postIds = List.of(2L, 1L);
+        Page<Long> postIdPage = new PageImpl<>(postIds);
 
-        List<NewsFeedResponse> newsFeedResponseList = TestDataFactory.createTestNewsFeedResponseList();
+        List<NewsFeedResponse> newsFeedResponseList = TestDataFactory.createTestNewsFeedResponseList().subList(0, 2);
         PageRequest pageRequest = PageRequest.builder()
                 .pageNumber(0)
                 .size(10)
@@ -58,15 +55,14 @@ public class CachingNewsFeedServiceImplTest {
                 .direction(Sort.Direction.DESC)
                 .build();
 
-        when(newsFeedRepository.findPostsByFriends(eq(1L), any())).thenReturn(postPage);
-        when(entityMapper.mapWithName(any(Post.class), eq(NewsFeedResponse.class), eq("fullNewsFeed")))
-                .thenReturn(newsFeedResponseList.get(0), newsFeedResponseList.get(1));
+        when(newsFeedTimelineService.getTimelinePage(eq(1L), any())).thenReturn(postIdPage);
+        when(newsFeedResponseAssembler.assemble(postIds, FeedView.FULL, user)).thenReturn(newsFeedResponseList);
 
-        PageResponse<NewsFeedResponse> result = cachingNewsFeedService.getPostsByFriends(user, pageRequest);
+        PageResponse<NewsFeedResponse> result = cachingNewsFeedService.getPostsByFriends(user, pageRequest, FeedView.FULL);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        verify(newsFeedRepository, times(1)).findPostsByFriends(eq(1L), any());
+        verify(newsFeedTimelineService, times(1)).getTimelinePage(eq(1L), any());
     }
 
     @Test
@@ -79,15 +75,15 @@ public class CachingNewsFeedServiceImplTest {
                 .direction(Sort.Direction.DESC)
                 .build();
 
-        when(newsFeedRepository.findPostsByFriends(eq(1L), any()))
+        when(newsFeedTimelineService.getTimelinePage(eq(1L), any()))
                 .thenThrow(new RuntimeException("Database error"));
 
         try {
-            cachingNewsFeedService.getPostsByFriends(user, pageRequest);
+            cachingNewsFeedService.getPostsByFriends(user, pageRequest, FeedView.FULL);
         } catch (RuntimeException e) {
             assertEquals("Database error", e.getMessage());
         }
 
-        verify(newsFeedRepository, times(1)).findPostsByFriends(eq(1L), any());
+        verify(newsFeedTimelineService, times(1)).getTimelinePage(eq(1L), any());
     }
 }
\ No newline at end of file
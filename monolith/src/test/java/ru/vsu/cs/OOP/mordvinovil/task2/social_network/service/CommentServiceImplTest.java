@@ -21,6 +21,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.comment.
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.post.PostNotFoundException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.CommentServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
@@ -45,6 +46,9 @@ public class CommentServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private PostRepository postRepository;
+
     @Mock
     private EntityMapper entityMapper;
 
@@ -89,6 +93,7 @@ public class CommentServiceImplTest {
         verify(entityUtils).getPost(post.getId());
         verify(contentFactory).createComment(currentUser, post, request.getContent(), request.getImageUrl());
         verify(commentRepository).save(any(Comment.class));
+        verify(postRepository).incrementCommentCount(post.getId(), 1);
         verify(notificationEventPublisherService).publishCommentAdded(any(), eq(post.getUser().getId()), eq(post.getId()), eq(savedComment.getId()));
         verify(cacheEventPublisherService).publishCommentCreated(any(), eq(savedComment), eq(post.getId()), eq(currentUser.getId()), eq(savedComment.getId()));
         verify(entityMapper).mapWithName(savedComment, CommentResponse.class, "withLikes");
@@ -106,7 +111,7 @@ public class CommentServiceImplTest {
 
         assertEquals(ResponseMessageConstants.FAILURE_POST_NOT_FOUND, exception.getMessage());
         verify(entityUtils).getPost(999L);
-        verifyNoInteractions(contentFactory, commentRepository, entityMapper, cacheEventPublisherService);
+        verifyNoInteractions(contentFactory, commentRepository, postRepository, entityMapper, cacheEventPublisherService);
     }
 
     @Test
@@ -151,6 +156,7 @@ public class CommentServiceImplTest {
         verify(commentValidator).validateCommentOwnership(1L, currentUser);
         verify(entityUtils).getComment(1L);
         verify(commentRepository).delete(comment);
+        verify(postRepository).incrementCommentCount(post.getId(), -1);
         verify(cacheEventPublisherService).publishCommentDeleted(any(), eq(comment), eq(post.getId()), eq(1L));
     }
 
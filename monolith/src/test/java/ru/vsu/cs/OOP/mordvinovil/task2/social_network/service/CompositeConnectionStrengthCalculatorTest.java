@@ -0,0 +1,88 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.CompositeConnectionStrengthCalculator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.ConnectionStrengthFactorRegistry;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.EdgeStrengthCache;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.factor.ConnectionStrengthFactor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompositeConnectionStrengthCalculatorTest {
+    @Mock
+    private ConnectionStrengthFactor friendsFactor;
+
+    @Mock
+    private ConnectionStrengthFactor messagesFactor;
+
+    @Mock
+    private ProfileAttributeProvider profileAttributeProvider;
+
+    private EdgeStrengthCache edgeStrengthCache;
+    private CompositeConnectionStrengthCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        edgeStrengthCache = new EdgeStrengthCache();
+        ReflectionTestUtils.setField(edgeStrengthCache, "maxSize", 100);
+        ReflectionTestUtils.setField(edgeStrengthCache, "ttlMillis", 60_000L);
+        calculator = new CompositeConnectionStrengthCalculator(
+                new ConnectionStrengthFactorRegistry(List.of(friendsFactor, messagesFactor)), edgeStrengthCache,
+                profileAttributeProvider);
+
+        lenient().when(friendsFactor.getFactorName()).thenReturn("commonFriends");
+        lenient().when(messagesFactor.getFactorName()).thenReturn("commonMessages");
+    }
+
+    @Test
+    void calculateDetailedStrength_shouldCallEachFactorOnceForAllCandidates() {
+        List<Long> candidates = List.of(2L, 3L, 4L);
+        when(friendsFactor.calculateStrength(1L, candidates)).thenReturn(Map.of(2L, 0.6, 3L, 0.12));
+        when(messagesFactor.calculateStrength(1L, candidates)).thenReturn(Map.of(3L, 0.4));
+
+        Map<Long, Map<String, Double>> result = calculator.calculateDetailedStrength(1L, candidates);
+
+        assertEquals(Map.of("commonFriends", 0.6, "commonMessages", 0.0), result.get(2L));
+        assertEquals(Map.of("commonFriends", 0.12, "commonMessages", 0.4), result.get(3L));
+        assertEquals(Map.of("commonFriends", 0.0, "commonMessages", 0.0), result.get(4L));
+        verify(friendsFactor, times(1)).calculateStrength(eq(1L), anyCollection());
+        verify(friendsFactor, never()).calculateStrength(anyLong(), anyLong());
+    }
+
+    @Test
+    void calculateStrength_shouldOnlyComputeCacheMisses() {
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 2L), 0.9);
+        when(friendsFactor.calculateStrength(1L, List.of(3L))).thenReturn(Map.of(3L, 0.6));
+        when(messagesFactor.calculateStrength(1L, List.of(3L))).thenReturn(Map.of());
+
+        Map<Long, Double> result = calculator.calculateStrength(1L, List.of(2L, 3L));
+
+        assertEquals(0.9, result.get(2L), 1e-9);
+        assertEquals(0.6, result.get(3L), 1e-9);
+        assertEquals(0.6, edgeStrengthCache.get(3L, 1L).getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void calculateOverallStrengths_shouldApplyMinimumStrength() {
+        when(friendsFactor.calculateStrength(1L, List.of(2L))).thenReturn(Map.of());
+        when(messagesFactor.calculateStrength(1L, List.of(2L))).thenReturn(Map.of());
+
+        double[] result = calculator.calculateOverallStrengths(1L, new long[]{2L});
+
+        assertArrayEquals(new double[]{0.1}, result, 1e-9);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.SocialGraphService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.DefaultFriendRecommendationService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute.RankedRecommendationCodec;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.precompute.RankedRecommendationStore;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.RecommendationStrategy;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.RecommendationStrategyRegistry;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultFriendRecommendationServiceTest {
+    @Mock
+    private SocialGraphService socialGraphService;
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private RecommendationStrategyRegistry strategyRegistry;
+
+    @Mock
+    private RankedRecommendationStore rankedRecommendationStore;
+
+    @Mock
+    private ProfileAttributeProvider profileAttributeProvider;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @Mock
+    private RecommendationStrategy strategy;
+
+    @InjectMocks
+    private DefaultFriendRecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(recommendationService, "listSize", 200);
+    }
+
+    @Test
+    void getFriendRecommendations_whenListStored_shouldSliceWithoutComputing() {
+        when(strategyRegistry.getDefaultStrategy()).thenReturn(strategy);
+        when(rankedRecommendationStore.find(1L)).thenReturn(Optional.of(List.of(
+                recommendation(2L, 0.9), recommendation(3L, 0.8), recommendation(4L, 0.7), recommendation(5L, 0.6))));
+        when(relationshipRepository.findFriendIdsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(3L));
+
+        PageResponse<RecommendationFriendResponse> result =
+                recommendationService.getFriendRecommendations(1L, PageRequest.of(1, 2));
+
+        assertEquals(List.of(5L), result.getContent().stream().map(RecommendationFriendResponse::getRecommendedUserId).toList());
+        assertEquals(3L, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertTrue(result.isLast());
+        verifyNoInteractions(socialGraphService, strategy);
+        verify(rankedRecommendationStore, never()).save(anyLong(), any());
+    }
+
+    @Test
+    void getFriendRecommendations_whenListMissing_shouldComputeAndStoreOnce() {
+        List<RecommendationFriendResponse> ranked = List.of(recommendation(2L, 0.9));
+        when(rankedRecommendationStore.find(1L)).thenReturn(Optional.empty());
+        when(strategyRegistry.getDefaultStrategy()).thenReturn(strategy);
+        when(strategy.requiresSocialDistances()).thenReturn(true);
+        when(socialGraphService.findSocialDistances(1L, 3)).thenReturn(Map.of(2L, 1.0));
+        when(relationshipRepository.findFriendIdsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of());
+        when(strategy.generateTopRecommendations(1L, Map.of(2L, 1.0), Set.of(), 200)).thenReturn(ranked);
+
+        PageResponse<RecommendationFriendResponse> result =
+                recommendationService.getFriendRecommendations(1L, PageRequest.of(0, 20));
+
+        assertEquals(1, result.getContent().size());
+        verify(rankedRecommendationStore).save(1L, ranked);
+    }
+
+    @Test
+    void getFriendRecommendations_withOtherStrategy_shouldComputeOnlineWithoutStoring() {
+        RecommendationStrategy pageRankStrategy = mock(RecommendationStrategy.class);
+        when(strategyRegistry.getDefaultStrategy()).thenReturn(strategy);
+        when(strategyRegistry.getStrategy("PERSONALIZED_PAGERANK")).thenReturn(pageRankStrategy);
+        when(pageRankStrategy.requiresSocialDistances()).thenReturn(false);
+        when(relationshipRepository.findFriendIdsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of());
+        when(pageRankStrategy.generateTopRecommendations(1L, Map.of(), Set.of(), 200))
+                .thenReturn(List.of(recommendation(4L, 0.3)));
+
+        PageResponse<RecommendationFriendResponse> result =
+                recommendationService.getFriendRecommendations(1L, PageRequest.of(0, 20), "PERSONALIZED_PAGERANK");
+
+        assertEquals(4L, result.getContent().get(0).getRecommendedUserId());
+        verifyNoInteractions(socialGraphService, rankedRecommendationStore);
+    }
+
+    @Test
+    void getFriendRecommendations_withUnknownStrategy_shouldThrowBadRequest() {
+        when(strategyRegistry.getStrategy("UNKNOWN")).thenReturn(null);
+
+        assertThrows(BadRequestException.class, () ->
+                recommendationService.getFriendRecommendations(1L, PageRequest.of(0, 20), "UNKNOWN"));
+    }
+
+    @Test
+    void rankedRecommendationCodec_shouldRoundTripRecommendations() {
+        List<RecommendationFriendResponse> ranked = List.of(
+                RecommendationFriendResponse.builder().recommendedUserId(7L).score(0.5)
+                        .factorScores(Map.of("commonFriends", 0.25, "socialDistance", 0.5)).build(),
+                RecommendationFriendResponse.builder().recommendedUserId(9L).score(0.25)
+                        .factorScores(Map.of("commonFriends", 0.125)).build());
+        LocalDateTime computedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        String factorNames = RankedRecommendationCodec.factorNames(ranked);
+        List<RecommendationFriendResponse> decoded = RankedRecommendationCodec.decode(
+                RankedRecommendationCodec.encode(ranked, factorNames), factorNames, computedAt);
+
+        assertEquals("commonFriends,socialDistance", factorNames);
+        assertEquals(2, decoded.size());
+        assertEquals(7L, decoded.get(0).getRecommendedUserId());
+        assertEquals(0.5, decoded.get(0).getScore());
+        assertEquals(Map.of("commonFriends", 0.125, "socialDistance", 0.0), decoded.get(1).getFactorScores());
+        assertEquals(computedAt, decoded.get(1).getCreatedAt());
+    }
+
+    private RecommendationFriendResponse recommendation(Long candidateId, double score) {
+        return RecommendationFriendResponse.builder()
+                .recommendedUserId(candidateId)
+                .score(score)
+                .factorScores(Map.of())
+                .build();
+    }
+}
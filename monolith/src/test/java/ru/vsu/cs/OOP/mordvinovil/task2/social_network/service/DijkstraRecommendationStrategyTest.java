@@ -0,0 +1,117 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.DijkstraRecommendationStrategy;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.TopKCandidateHeap;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.ConnectionStrengthCalculator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DijkstraRecommendationStrategyTest {
+    @Mock
+    private ConnectionStrengthCalculator strengthCalculator;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private DijkstraRecommendationStrategy strategy;
+
+    @Test
+    void topKCandidateHeap_shouldKeepBestCandidatesInDescendingOrder() {
+        TopKCandidateHeap heap = new TopKCandidateHeap(3);
+        heap.offer(1L, 0.2);
+        heap.offer(2L, 0.9);
+        heap.offer(3L, 0.5);
+        heap.offer(4L, 0.1);
+        heap.offer(5L, 0.7);
+        heap.offer(6L, 0.5);
+
+        assertEquals(0.5, heap.minScore());
+        assertArrayEquals(new long[]{2L, 5L, 3L}, heap.drainDescending());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    void generateTopRecommendations_shouldExcludeFriendsAndPruneByUpperBound() {
+        Map<Long, Double> distances = new HashMap<>();
+        for (long candidateId = 1; candidateId <= 100; candidateId++) {
+            distances.put(candidateId, (double) candidateId);
+        }
+        distances.put(500L, 0.0);
+        when(strengthCalculator.getMaxFactorStrength()).thenReturn(0.1);
+        when(strengthCalculator.getMaxFactorStrengths(eq(500L), any(long[].class))).thenAnswer(this::uniformBounds);
+        when(strengthCalculator.calculateDetailedStrength(eq(500L), anyCollection())).thenAnswer(this::zeroFactors);
+
+        List<RecommendationFriendResponse> result =
+                strategy.generateTopRecommendations(500L, distances, Set.of(1L), 1);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getRecommendedUserId());
+        assertEquals(0.7 / 3.0, result.get(0).getScore(), 1e-9);
+        verify(strengthCalculator, times(1)).calculateDetailedStrength(eq(500L), anyCollection());
+    }
+
+    @Test
+    void generateTopRecommendations_shouldSkipCandidatesByPerCandidateBoundWhenGlobalBoundIsLoose() {
+        Map<Long, Double> distances = new HashMap<>();
+        for (long candidateId = 1; candidateId <= 200; candidateId++) {
+            distances.put(candidateId, (double) candidateId);
+        }
+        when(strengthCalculator.getMaxFactorStrength()).thenReturn(1.71);
+        when(strengthCalculator.getMaxFactorStrengths(eq(500L), any(long[].class)))
+                .thenAnswer(invocation -> new double[((long[]) invocation.getArgument(1)).length]);
+        when(strengthCalculator.calculateDetailedStrength(eq(500L), anyCollection())).thenAnswer(this::zeroFactors);
+
+        List<RecommendationFriendResponse> result =
+                strategy.generateTopRecommendations(500L, distances, Set.of(), 1);
+
+        assertEquals(1L, result.get(0).getRecommendedUserId());
+        verify(strengthCalculator, times(1)).calculateDetailedStrength(eq(500L), anyCollection());
+    }
+
+    @Test
+    void generateTopRecommendations_whenLimitIsZero_shouldNotScoreCandidates() {
+        List<RecommendationFriendResponse> result =
+                strategy.generateTopRecommendations(1L, Map.of(2L, 1.0), Set.of(), 0);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(strengthCalculator);
+    }
+
+    private double[] uniformBounds(InvocationOnMock invocation) {
+        double[] bounds = new double[((long[]) invocation.getArgument(1)).length];
+        Arrays.fill(bounds, 0.1);
+        return bounds;
+    }
+
+    private Map<Long, Map<String, Double>> zeroFactors(InvocationOnMock invocation) {
+        Collection<Long> candidateIds = invocation.getArgument(1);
+        Map<Long, Map<String, Double>> result = new HashMap<>();
+        for (Long candidateId : candidateIds) {
+            Map<String, Double> factors = new HashMap<>();
+            factors.put("commonFriends", 0.0);
+            result.put(candidateId, factors);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,189 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.DijkstraSocialGraphService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraph;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.ConnectionStrengthCalculator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DijkstraSocialGraphServiceTest {
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private ConnectionStrengthCalculator strengthCalculator;
+
+    @Mock
+    private FriendshipGraphProvider graphProvider;
+
+    @Mock
+    private ProfileAttributeProvider profileAttributeProvider;
+
+    @InjectMocks
+    private DijkstraSocialGraphService socialGraphService;
+
+    @Test
+    void fromEdges_shouldBuildUndirectedGraphWithoutDuplicates() {
+        FriendshipGraph graph = FriendshipGraph.fromEdges(
+                new long[]{1L, 2L, 2L, 3L}, new long[]{2L, 1L, 3L, 3L}, 4);
+
+        assertEquals(3, graph.vertexCount());
+        assertEquals(2, graph.edgeCount());
+        assertArrayEquals(new long[]{2L}, graph.friendIds(1L));
+        assertArrayEquals(new long[]{1L, 3L}, graph.friendIds(2L));
+        assertArrayEquals(new long[0], graph.friendIds(42L));
+    }
+
+    @Test
+    void findSocialDistances_whenGraphLoaded_shouldNotQueryDatabase() {
+        FriendshipGraph graph = FriendshipGraph.fromEdges(
+                new long[]{1L, 2L, 3L}, new long[]{2L, 3L, 4L}, 3);
+        when(graphProvider.getGraph()).thenReturn(FriendshipGraphSnapshot.of(graph));
+        when(strengthCalculator.calculateOverallStrengths(anyLong(), any(long[].class))).thenAnswer(this::fullStrength);
+
+        Map<Long, Double> distances = socialGraphService.findSocialDistances(1L, 2);
+
+        assertEquals(Set.of(2L, 3L, 4L), distances.keySet());
+        assertEquals(0.7, distances.get(2L), 1e-9);
+        assertEquals(1.4, distances.get(3L), 1e-9);
+        verify(relationshipRepository, never()).findFriendIdsByUserId(any(), any());
+    }
+
+    @Test
+    void findSocialDistances_whenGraphNotLoaded_shouldFallBackToDatabase() {
+        when(graphProvider.getGraph()).thenReturn(null);
+        when(relationshipRepository.findFriendIdsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(2L));
+        when(relationshipRepository.findFriendIdsByUserId(2L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(1L));
+        when(strengthCalculator.calculateOverallStrength(anyLong(), anyLong())).thenReturn(1.0);
+
+        Map<Long, Double> distances = socialGraphService.findSocialDistances(1L, 3);
+
+        assertEquals(Set.of(2L), distances.keySet());
+    }
+
+    @Test
+    void findSocialDistances_shouldSeeEdgesAppliedAfterLoad() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(
+                        FriendshipGraph.fromEdges(new long[]{1L, 2L}, new long[]{2L, 3L}, 2))
+                .withEdge(2L, 3L, false)
+                .withEdge(1L, 5L, true);
+        when(graphProvider.getGraph()).thenReturn(snapshot);
+        when(strengthCalculator.calculateOverallStrengths(anyLong(), any(long[].class))).thenAnswer(this::fullStrength);
+
+        Map<Long, Double> distances = socialGraphService.findSocialDistances(1L, 3);
+
+        assertEquals(Set.of(2L, 5L), distances.keySet());
+    }
+
+    @Test
+    void findSocialDistances_inParallelMode_shouldMatchSequentialDijkstra() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(randomGraph(300, 1500, 42L));
+        when(graphProvider.getGraph()).thenReturn(snapshot);
+        when(strengthCalculator.calculateOverallStrengths(anyLong(), any(long[].class))).thenAnswer(this::pairStrength);
+
+        Map<Long, Double> sequential = socialGraphService.findSocialDistances(1L, 3);
+
+        when(strengthCalculator.getMaxFactorStrength()).thenReturn(1.5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReflectionTestUtils.setField(socialGraphService, "pool", pool);
+            ReflectionTestUtils.setField(socialGraphService, "frontierThreshold", 1);
+
+            Map<Long, Double> parallel = socialGraphService.findSocialDistances(1L, 3);
+
+            assertEquals(sequential.keySet(), parallel.keySet());
+            sequential.forEach((userId, distance) -> assertEquals(distance, parallel.get(userId), 1e-9));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void findSocialDistances_forManySources_shouldMatchSingleSourceResults() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(randomGraph(200, 800, 7L));
+        when(graphProvider.getGraph()).thenReturn(snapshot);
+        when(strengthCalculator.calculateOverallStrengths(anyLong(), any(long[].class))).thenAnswer(this::pairStrength);
+        List<Long> sources = List.of(1L, 5L, 17L, 5L);
+
+        Map<Long, Double> expected = socialGraphService.findSocialDistances(17L, 3);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReflectionTestUtils.setField(socialGraphService, "pool", pool);
+
+            Map<Long, Map<Long, Double>> distances = socialGraphService.findSocialDistances(sources, 3);
+
+            assertEquals(Set.of(1L, 5L, 17L), distances.keySet());
+            assertEquals(expected, distances.get(17L));
+            assertFalse(distances.get(1L).containsKey(1L));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void findSocialDistancesSequentially_shouldMatchSingleSourceWithoutUsingSharedPool() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(randomGraph(200, 800, 7L));
+        when(graphProvider.getGraph()).thenReturn(snapshot);
+        when(strengthCalculator.calculateOverallStrengths(anyLong(), any(long[].class))).thenAnswer(this::pairStrength);
+
+        Map<Long, Double> expected = socialGraphService.findSocialDistances(17L, 3);
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        pool.shutdownNow();
+        ReflectionTestUtils.setField(socialGraphService, "pool", pool);
+
+        assertEquals(expected, socialGraphService.findSocialDistancesSequentially(17L, 3));
+    }
+
+    private static FriendshipGraph randomGraph(int users, int edges, long seed) {
+        Random random = new Random(seed);
+        long[] from = new long[edges];
+        long[] to = new long[edges];
+        for (int i = 0; i < edges; i++) {
+            from[i] = 1 + random.nextInt(users);
+            to[i] = 1 + (from[i] + random.nextInt(users - 1)) % users;
+        }
+        return FriendshipGraph.fromEdges(from, to, edges);
+    }
+
+    private double[] pairStrength(InvocationOnMock invocation) {
+        long userId = invocation.getArgument(0);
+        long[] targetUserIds = invocation.getArgument(1);
+        double[] strengths = new double[targetUserIds.length];
+        for (int i = 0; i < targetUserIds.length; i++) {
+            strengths[i] = ((userId * 31 + targetUserIds[i]) % 16) / 10.0;
+        }
+        return strengths;
+    }
+
+    private double[] fullStrength(InvocationOnMock invocation) {
+        long[] targetUserIds = invocation.getArgument(1);
+        double[] strengths = new double[targetUserIds.length];
+        Arrays.fill(strengths, 1.0);
+        return strengths;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.EdgeStrengthCache;
+
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeStrengthCacheTest {
+    private EdgeStrengthCache edgeStrengthCache;
+
+    @BeforeEach
+    void setUp() {
+        edgeStrengthCache = new EdgeStrengthCache();
+        ReflectionTestUtils.setField(edgeStrengthCache, "maxSize", 2);
+        ReflectionTestUtils.setField(edgeStrengthCache, "ttlMillis", 60_000L);
+    }
+
+    @Test
+    void get_shouldTreatPairAsUnordered() {
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 2L), 0.5);
+
+        assertEquals(OptionalDouble.of(0.5), edgeStrengthCache.get(2L, 1L));
+    }
+
+    @Test
+    void invalidateUser_shouldExpireEveryPairWithUser() {
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 2L), 0.5);
+        edgeStrengthCache.put(edgeStrengthCache.stamp(3L, 4L), 0.7);
+
+        edgeStrengthCache.invalidateUser(2L);
+
+        assertTrue(edgeStrengthCache.get(1L, 2L).isEmpty());
+        assertEquals(OptionalDouble.of(0.7), edgeStrengthCache.get(3L, 4L));
+    }
+
+    @Test
+    void put_whenInvalidatedDuringComputation_shouldNotCacheStaleValue() {
+        EdgeStrengthCache.Stamp stamp = edgeStrengthCache.stamp(1L, 2L);
+        edgeStrengthCache.invalidateUser(1L);
+
+        edgeStrengthCache.put(stamp, 0.5);
+
+        assertTrue(edgeStrengthCache.get(1L, 2L).isEmpty());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedPairWhenFull() {
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 2L), 0.1);
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 3L), 0.2);
+        edgeStrengthCache.get(1L, 2L);
+
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 4L), 0.3);
+
+        assertEquals(2, edgeStrengthCache.size());
+        assertTrue(edgeStrengthCache.get(1L, 3L).isEmpty());
+        assertTrue(edgeStrengthCache.get(1L, 2L).isPresent());
+    }
+
+    @Test
+    void invalidatePair_shouldRemoveOnlyThatPair() {
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 2L), 0.1);
+        edgeStrengthCache.put(edgeStrengthCache.stamp(1L, 3L), 0.2);
+
+        edgeStrengthCache.invalidatePair(2L, 1L);
+
+        assertTrue(edgeStrengthCache.get(1L, 2L).isEmpty());
+        assertTrue(edgeStrengthCache.get(1L, 3L).isPresent());
+    }
+}
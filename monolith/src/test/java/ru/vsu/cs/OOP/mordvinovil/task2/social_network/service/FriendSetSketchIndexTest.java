@@ -0,0 +1,106 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraph;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.sketch.FriendSetSketchIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendSetSketchIndexTest {
+    @Mock
+    private FriendshipGraphProvider graphProvider;
+
+    @InjectMocks
+    private FriendSetSketchIndex sketchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sketchIndex, "enabled", true);
+        ReflectionTestUtils.setField(sketchIndex, "sketchSize", 256);
+        ReflectionTestUtils.setField(sketchIndex, "exactThreshold", 64);
+        ReflectionTestUtils.setField(sketchIndex, "maxSketches", 1000);
+    }
+
+    @Test
+    void estimateMutualFriends_whenSetsAreSmall_shouldCountExactly() {
+        FriendshipGraph graph = FriendshipGraph.fromEdges(
+                new long[]{1L, 1L, 1L, 2L, 2L}, new long[]{10L, 11L, 12L, 10L, 11L}, 5);
+        when(graphProvider.getGraph()).thenReturn(FriendshipGraphSnapshot.of(graph));
+
+        assertEquals(Optional.of(2), sketchIndex.estimateMutualFriends(1L, 2L));
+        assertEquals(Optional.of(Map.of(11L, 2, 12L, 1)), sketchIndex.estimateMutualFriends(10L, List.of(11L, 12L)));
+    }
+
+    @Test
+    void estimateMutualFriends_whenSetsAreLarge_shouldApproximateWithSketches() {
+        int edgeCount = 2000;
+        long[] from = new long[edgeCount];
+        long[] to = new long[edgeCount];
+        for (int i = 0; i < 1000; i++) {
+            from[i] = 1L;
+            to[i] = 1000L + i;
+            from[1000 + i] = 2L;
+            to[1000 + i] = 1500L + i;
+        }
+        when(graphProvider.getGraph()).thenReturn(
+                FriendshipGraphSnapshot.of(FriendshipGraph.fromEdges(from, to, edgeCount)));
+
+        int estimate = sketchIndex.estimateMutualFriends(1L, 2L).orElseThrow();
+
+        assertTrue(estimate > 350 && estimate < 650, "Оценка общих друзей: " + estimate);
+        assertEquals(2, sketchIndex.size());
+    }
+
+    @Test
+    void applyEdgeChange_shouldDropSketchesOfBothUsers() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(FriendshipGraph.fromEdges(
+                new long[]{1L, 2L}, new long[]{10L, 10L}, 2));
+        when(graphProvider.getGraph()).thenReturn(snapshot);
+        assertEquals(Optional.of(1), sketchIndex.estimateMutualFriends(1L, 2L));
+
+        FriendshipGraphSnapshot updated = snapshot.withEdge(1L, 11L, true).withEdge(2L, 11L, true);
+        when(graphProvider.getGraph()).thenReturn(updated);
+        sketchIndex.applyEdgeChange(1L, 11L, true);
+        sketchIndex.applyEdgeChange(2L, 11L, true);
+        assertEquals(0, sketchIndex.size());
+        assertEquals(Optional.of(2), sketchIndex.estimateMutualFriends(1L, 2L));
+
+        sketchIndex.applyEdgeChange(1L, 10L, false);
+        assertEquals(1, sketchIndex.size());
+    }
+
+    @Test
+    void estimateMutualFriends_whenEdgeChangesWhileBuilding_shouldNotCacheStaleSketch() {
+        FriendshipGraphSnapshot snapshot = FriendshipGraphSnapshot.of(FriendshipGraph.fromEdges(
+                new long[]{1L, 2L}, new long[]{10L, 10L}, 2));
+        when(graphProvider.getGraph()).thenAnswer(invocation -> {
+            sketchIndex.applyEdgeChange(1L, 11L, true);
+            return snapshot;
+        });
+
+        assertEquals(Optional.of(1), sketchIndex.estimateMutualFriends(1L, 2L));
+        assertEquals(0, sketchIndex.size());
+    }
+
+    @Test
+    void estimateMutualFriends_whenGraphNotLoaded_shouldReturnEmpty() {
+        when(graphProvider.getGraph()).thenReturn(null);
+
+        assertTrue(sketchIndex.estimateMutualFriends(1L, 2L).isEmpty());
+        assertTrue(sketchIndex.estimateMutualFriends(1L, List.of(2L)).isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.FriendshipEdgeProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendshipGraphProviderTest {
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private FriendshipGraphProvider graphProvider;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(graphProvider, "loadBatchSize", 2);
+        ReflectionTestUtils.setField(graphProvider, "compactionThreshold", 100);
+    }
+
+    @Test
+    void rebuild_shouldLoadEdgesInKeysetBatches() {
+        when(relationshipRepository.findEdgesByStatusAfter(eq(FriendshipStatus.ACCEPTED), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(edge(1L, 1L, 2L), edge(2L, 2L, 3L)));
+        when(relationshipRepository.findEdgesByStatusAfter(eq(FriendshipStatus.ACCEPTED), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(edge(5L, 3L, 4L)));
+
+        graphProvider.rebuild();
+
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        assertEquals(4, graph.base().vertexCount());
+        assertEquals(3, graph.base().edgeCount());
+        assertTrue(graph.hasEdge(4L, 3L));
+    }
+
+    @Test
+    void applyEdgeChange_shouldPublishNewEpochWithoutTouchingPreviousOne() {
+        loadGraph(edge(1L, 1L, 2L));
+        FriendshipGraphSnapshot before = graphProvider.getGraph();
+
+        graphProvider.applyEdgeChange(1L, 3L, true);
+        graphProvider.applyEdgeChange(1L, 2L, false);
+
+        FriendshipGraphSnapshot after = graphProvider.getGraph();
+        assertNotSame(before, after);
+        assertArrayEquals(new long[]{2L}, before.friendIds(1L));
+        assertArrayEquals(new long[]{3L}, after.friendIds(1L));
+        assertEquals(2, after.deltaSize());
+    }
+
+    @Test
+    void applyEdgeChange_whenEdgeRestored_shouldCancelDelta() {
+        loadGraph(edge(1L, 1L, 2L));
+
+        graphProvider.applyEdgeChange(1L, 2L, false);
+        graphProvider.applyEdgeChange(2L, 1L, true);
+
+        assertEquals(0, graphProvider.getGraph().deltaSize());
+        assertTrue(graphProvider.getGraph().hasEdge(1L, 2L));
+    }
+
+    @Test
+    void compact_shouldFoldDeltaIntoNewBaseGraph() {
+        loadGraph(edge(1L, 1L, 2L));
+        graphProvider.applyEdgeChange(2L, 3L, true);
+        graphProvider.applyEdgeChange(1L, 2L, false);
+
+        graphProvider.compact();
+
+        FriendshipGraphSnapshot graph = graphProvider.getGraph();
+        assertEquals(0, graph.deltaSize());
+        assertEquals(1, graph.base().edgeCount());
+        assertTrue(graph.base().hasEdge(3L, 2L));
+        assertFalse(graph.base().hasEdge(1L, 2L));
+    }
+
+    @Test
+    void applyEdgeChange_whenGraphNotLoaded_shouldBeIgnored() {
+        graphProvider.applyEdgeChange(1L, 2L, true);
+
+        assertNull(graphProvider.getGraph());
+    }
+
+    private void loadGraph(FriendshipEdgeProjection... edges) {
+        when(relationshipRepository.findEdgesByStatusAfter(eq(FriendshipStatus.ACCEPTED), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(edges));
+        graphProvider.rebuild();
+    }
+
+    private FriendshipEdgeProjection edge(Long id, Long senderId, Long receiverId) {
+        return new FriendshipEdgeProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getSenderId() {
+                return senderId;
+            }
+
+            @Override
+            public Long getReceiverId() {
+                return receiverId;
+            }
+        };
+    }
+}
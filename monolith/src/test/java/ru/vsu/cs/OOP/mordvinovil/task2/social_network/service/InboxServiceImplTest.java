@@ -0,0 +1,133 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationSummaryResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.ConversationSummary;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ConversationSummaryRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging.InboxServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.createTestMessage;
+import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.createTestUser;
+
+@ExtendWith(MockitoExtension.class)
+class InboxServiceImplTest {
+    @Mock
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private InboxServiceImpl inboxService;
+
+    @Test
+    void recordMessageSent_shouldIncrementUnreadOnlyForReceiver() {
+        User sender = createTestUser(1L, "sender", "sender@example.com");
+        User receiver = createTestUser(2L, "receiver", "receiver@example.com");
+        LocalDateTime sentAt = LocalDateTime.now();
+        Message message = createTestMessage(sender, receiver, "x".repeat(150), null,
+                MessageStatus.SENT, sentAt, sentAt);
+        message.setId(10L);
+        message.setCreatedAt(sentAt);
+
+        inboxService.recordMessageSent(message);
+
+        verify(conversationSummaryRepository).upsertLastMessage(1L, 2L, "1:2", 10L, "x".repeat(100), sentAt, 0);
+        verify(conversationSummaryRepository).upsertLastMessage(2L, 1L, "1:2", 10L, "x".repeat(100), sentAt, 1);
+    }
+
+    @Test
+    void recordMessageDeleted_whenUnreadAndLast_shouldDecrementAndReplaceLastMessage() {
+        User sender = createTestUser(1L, "sender", "sender@example.com");
+        User receiver = createTestUser(2L, "receiver", "receiver@example.com");
+        Message deleted = createTestMessage(sender, receiver, "удалено", null,
+                MessageStatus.RECEIVED, LocalDateTime.now(), LocalDateTime.now());
+        deleted.setId(10L);
+        Message previous = createTestMessage(receiver, sender, "привет", null,
+                MessageStatus.READ, LocalDateTime.now(), LocalDateTime.now());
+        previous.setId(9L);
+        previous.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+
+        when(messageRepository.findLatestInConversation(eq("1:2"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(deleted, previous)));
+
+        inboxService.recordMessageDeleted(deleted);
+
+        verify(conversationSummaryRepository).decrementUnread(2L, 1L, 1);
+        verify(conversationSummaryRepository).replaceLastMessage("1:2", 10L, 9L, "привет", previous.getCreatedAt());
+        verify(conversationSummaryRepository, never()).deleteByConversation(anyString());
+    }
+
+    @Test
+    void recordMessageDeleted_whenConversationBecomesEmpty_shouldDeleteSummaries() {
+        User sender = createTestUser(1L, "sender", "sender@example.com");
+        User receiver = createTestUser(2L, "receiver", "receiver@example.com");
+        Message deleted = createTestMessage(sender, receiver, "удалено", null,
+                MessageStatus.READ, LocalDateTime.now(), LocalDateTime.now());
+        deleted.setId(10L);
+
+        when(messageRepository.findLatestInConversation(eq("1:2"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        inboxService.recordMessageDeleted(deleted);
+
+        verify(conversationSummaryRepository, never()).decrementUnread(anyLong(), anyLong(), anyInt());
+        verify(conversationSummaryRepository).deleteByConversation("1:2");
+    }
+
+    @Test
+    void getInbox_shouldMapSummariesWithPeer() {
+        User owner = createTestUser(1L, "owner", "owner@example.com");
+        User peer = createTestUser(2L, "peer", "peer@example.com");
+        ConversationSummary summary = ConversationSummary.builder()
+                .ownerId(1L)
+                .peer(peer)
+                .conversationId("1:2")
+                .lastMessageId(10L)
+                .lastMessagePreview("привет")
+                .lastMessageAt(LocalDateTime.now())
+                .unreadCount(3)
+                .build();
+        PageRequest pageRequest = PageRequest.builder().pageNumber(0).size(20).build();
+
+        when(conversationSummaryRepository.findInbox(eq(1L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+
+        PageResponse<ConversationSummaryResponse> result = inboxService.getInbox(owner, pageRequest);
+
+        assertEquals(1, result.getContent().size());
+        ConversationSummaryResponse response = result.getContent().get(0);
+        assertEquals(2L, response.getPeerUserId());
+        assertEquals("peer", response.getPeerUsername());
+        assertEquals(3, response.getUnreadCount());
+    }
+}
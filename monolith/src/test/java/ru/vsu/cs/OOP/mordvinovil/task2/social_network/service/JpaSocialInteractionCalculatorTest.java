@@ -0,0 +1,85 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.LikeRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.UserCountProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.calculator.JpaSocialInteractionCalculator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.sketch.FriendSetSketchIndex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaSocialInteractionCalculatorTest {
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private FriendSetSketchIndex sketchIndex;
+
+    @InjectMocks
+    private JpaSocialInteractionCalculator calculator;
+
+    @Test
+    void calculateCommonLikesOnPostCounts_shouldQueryCandidatesInChunks() {
+        List<Long> candidateIds = LongStream.rangeClosed(2, 2501).boxed().toList();
+        when(likeRepository.countCommonLikesByCandidates(eq(1L), anyCollection()))
+                .thenReturn(List.of(count(2L, 3L)), List.of(count(2501L, 1L)), List.of());
+
+        Map<Long, Integer> result = calculator.calculateCommonLikesOnPostCounts(1L, candidateIds);
+
+        assertEquals(Map.of(2L, 3, 2501L, 1), result);
+        verify(likeRepository, times(2)).countCommonLikesByCandidates(eq(1L),
+                argThat((Collection<Long> chunk) -> chunk.size() == 1000));
+        verify(likeRepository).countCommonLikesByCandidates(eq(1L),
+                argThat((Collection<Long> chunk) -> chunk.size() == 500));
+    }
+
+    @Test
+    void calculateMutualFriendsCounts_whenSketchesUnavailable_shouldQueryCandidatesInChunks() {
+        List<Long> candidateIds = LongStream.rangeClosed(2, 1201).boxed().toList();
+        when(sketchIndex.estimateMutualFriends(eq(1L), anyCollection())).thenReturn(Optional.empty());
+        when(relationshipRepository.countMutualFriendsByCandidates(eq(1L), anyCollection(), eq("ACCEPTED")))
+                .thenReturn(List.of(count(5L, 2L)), List.of());
+
+        Map<Long, Integer> result = calculator.calculateMutualFriendsCounts(1L, candidateIds);
+
+        assertEquals(Map.of(5L, 2), result);
+        verify(relationshipRepository, times(2)).countMutualFriendsByCandidates(eq(1L), anyCollection(), eq("ACCEPTED"));
+    }
+
+    private UserCountProjection count(Long userId, Long count) {
+        return new UserCountProjection() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -22,7 +22,9 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPub
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.like.LikeNotFoundException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.LikeRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.LikeServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.constants.ResponseMessageConstants;
@@ -32,11 +34,13 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.LikeV
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.*;
 
@@ -48,6 +52,12 @@ public class LikeServiceImplTest {
     @Mock
     private LikeRepository likeRepository;
 
+    @Mock
+    private PostLikeCounterService postLikeCounterService;
+
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private EntityMapper entityMapper;
 
@@ -92,6 +102,7 @@ public class LikeServiceImplTest {
         verify(entityUtils).getComment(request.getCommentId());
         verify(likeFactory).createCommentLike(currentUser, request.getCommentId());
         verify(likeRepository).save(any(Like.class));
+        verify(commentRepository).incrementLikeCount(comment.getId(), 1);
         verify(notificationEventPublisherService).publishCommentLiked(any(), eq(commentOwner.getId()),
                 eq(comment.getId()), eq(currentUser.getId()));
         verify(cacheEventPublisherService).publishLikedComment(any(), eq(like), eq(comment.getId()),
@@ -121,6 +132,7 @@ public class LikeServiceImplTest {
         verify(entityUtils).getPost(request.getPostId());
         verify(likeFactory).createPostLike(currentUser, request.getPostId());
         verify(likeRepository).save(any(Like.class));
+        verify(postLikeCounterService).increment(post.getId(), 1);
         verify(notificationEventPublisherService).publishPostLiked(any(), eq(postOwner.getId()),
                 eq(post.getId()), eq(currentUser.getId()));
         verify(cacheEventPublisherService).publishLikedPost(any(), eq(like), eq(post.getId()),
@@ -205,6 +217,7 @@ public class LikeServiceImplTest {
         verify(likeValidator).validateLikeDeletion(1L, "comment", currentUser);
         verify(likeRepository).findByUserIdAndCommentId(currentUser.getId(), 1L);
         verify(likeRepository).delete(like);
+        verify(commentRepository).incrementLikeCount(1L, -1);
         verify(entityMapper).map(like, LikeCommentResponse.class);
     }
 
@@ -240,7 +253,8 @@ public class LikeServiceImplTest {
         verify(likeValidator).validateLikeDeletion(1L, "post", currentUser);
         verify(likeRepository).findByUserIdAndPostId(currentUser.getId(), 1L);
         verify(likeRepository).delete(like);
-        verify(cacheEventPublisherService).publishLikeDeleted(any(), eq(like), eq(1L), eq(like.getId()));
+        verify(postLikeCounterService).increment(1L, -1);
+        verify(cacheEventPublisherService).publishLikeDeleted(any(), eq(like), eq(1L), eq(currentUser.getId()), eq(like.getId()));
         verify(entityMapper).map(like, LikePostResponse.class);
     }
 
@@ -258,4 +272,28 @@ public class LikeServiceImplTest {
         verify(likeValidator).validateLikeDeletion(1L, "post", currentUser);
         verify(likeRepository).findByUserIdAndPostId(currentUser.getId(), 1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getLikedPostIds_shouldReturnLikedSubsetInOneQuery() {
+        User currentUser = createTestUser(1L, "user", "example@example.com");
+        List<Long> postIds = List.of(1L, 2L, 3L);
+
+        when(likeRepository.findLikedPostIdsByUserIdAndPostIdIn(currentUser.getId(), postIds))
+                .thenReturn(List.of(1L, 3L));
+
+        Set<Long> result = likeServiceImpl.getLikedPostIds(currentUser, postIds);
+
+        assertEquals(Set.of(1L, 3L), result);
+        verify(likeRepository).findLikedPostIdsByUserIdAndPostIdIn(currentUser.getId(), postIds);
+    }
+
+    @Test
+    void getLikedPostIds_whenNoPosts_shouldNotQuery() {
+        User currentUser = createTestUser(1L, "user", "example@example.com");
+
+        Set<Long> result = likeServiceImpl.getLikedPostIds(currentUser, List.of());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(likeRepository);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging.cache.MessageCacheServiceImpl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageCacheServiceImplTest {
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private MessageCacheServiceImpl messageCacheService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(messageCacheService, "evictionBatchSize", 2);
+        ReflectionTestUtils.setField(messageCacheService, "scanCount", 100);
+    }
+
+    @Test
+    void evictConversationCacheForUsers_shouldUnlinkMatchingKeysInBatches() {
+        Cursor<String> cursor = cursorOf(List.of(
+                "conversation::conv:1:5:page:0:size:20",
+                "conversation::conv:7:2:page:0:size:20",
+                "conversation::conv:12:5:page:0:size:20",
+                "conversation::conv:5:1:page:1:size:20"));
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.unlink(anyList())).thenAnswer(invocation -> (long) ((List<?>) invocation.getArgument(0)).size());
+
+        messageCacheService.evictConversationCacheForUsers(Set.of(1L, 2L));
+
+        verify(redisTemplate).scan(any(ScanOptions.class));
+        verify(redisTemplate).unlink(List.of(
+                "conversation::conv:1:5:page:0:size:20",
+                "conversation::conv:7:2:page:0:size:20"));
+        verify(redisTemplate).unlink(List.of("conversation::conv:5:1:page:1:size:20"));
+        verify(redisTemplate, never()).keys(anyString());
+        verify(redisTemplate, never()).delete(anyList());
+    }
+
+    @Test
+    void evictConversationCacheForUsers_whenEmpty_shouldNotScan() {
+        messageCacheService.evictConversationCacheForUsers(List.of());
+
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictConversationCache_shouldIncrementBothGenerationsWithoutScan() {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        messageCacheService.evictConversationCache(2L, 1L);
+
+        verify(valueOperations).increment("messageHistoryGeneration::conv:1:2");
+        verify(valueOperations).increment("messageTailGeneration::conv:1:2");
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+        verify(redisTemplate, never()).unlink(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictConversationCache_insideTransaction_shouldIncrementAfterCommit() {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            messageCacheService.evictConversationCache(1L, 2L);
+
+            verifyNoInteractions(valueOperations);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(valueOperations).increment("messageHistoryGeneration::conv:1:2");
+        verify(valueOperations).increment("messageTailGeneration::conv:1:2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictConversationTail_shouldIncrementGenerationWithoutScan() {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        messageCacheService.evictConversationTail(2L, 1L);
+
+        verify(valueOperations).increment("messageTailGeneration::conv:1:2");
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictConversationTail_insideTransaction_shouldIncrementAfterCommit() {
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            messageCacheService.evictConversationTail(2L, 1L);
+
+            verifyNoInteractions(valueOperations);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(valueOperations).increment("messageTailGeneration::conv:1:2");
+    }
+
+    @Test
+    void evictConversationCacheForUsers_shouldMatchTailKeys() {
+        Cursor<String> cursor = cursorOf(List.of(
+                "conversationTail::conv:1:5:tail:3:size:20",
+                "conversation::conv:5:9:before:40:size:20"));
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.unlink(anyList())).thenReturn(1L);
+
+        messageCacheService.evictConversationCacheForUsers(Set.of(1L));
+
+        verify(redisTemplate).unlink(List.of("conversationTail::conv:1:5:tail:3:size:20"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cursor<String> cursorOf(List<String> keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        Iterator<String> iterator = keys.iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
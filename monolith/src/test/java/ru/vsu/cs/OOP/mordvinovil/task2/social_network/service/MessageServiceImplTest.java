@@ -7,16 +7,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.messaging.MessageRequest;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.ConversationReadResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Message;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.MessageStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.BadRequestException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.messaging.MessagingEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.MessageRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.messaging.InboxService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging.MessageServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
@@ -29,7 +36,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.*;
@@ -57,6 +66,12 @@ public class MessageServiceImplTest {
     @Mock
     private EntityUtils entityUtils;
 
+    @Mock
+    private InboxService inboxService;
+
+    @Mock
+    private MessagingEventPublisherService messagingEventPublisherService;
+
     @InjectMocks
     private MessageServiceImpl messageServiceImpl;
 
@@ -82,9 +97,11 @@ public class MessageServiceImplTest {
         verify(entityUtils).getUser(receiverUser.getId());
         verify(messageFactory).createMessage(currentUser, receiverUser, request);
         verify(messageRepository).save(any(Message.class));
+        verify(inboxService).recordMessageSent(message);
         verify(notificationEventPublisherService).publishMessageReceived(any(), eq(receiverUser.getId()),
                 eq(currentUser.getId()), eq("привет"));
         verify(entityMapper).map(message, MessageResponse.class);
+        verify(messagingEventPublisherService).publishMessageSent(any(), eq(receiverUser.getId()), eq(expectedResponse));
     }
 
     @Test
@@ -105,6 +122,8 @@ public class MessageServiceImplTest {
 
         assertNotNull(result);
         assertEquals(MessageStatus.RECEIVED, result.getStatus());
+        verify(inboxService, never()).recordMessageRead(any());
+        verify(messagingEventPublisherService, never()).publishMessagesRead(any(), any(), any(), any(), anyInt());
 
         verify(entityUtils).getMessage(1L);
         verify(messageRepository).save(any(Message.class));
@@ -130,6 +149,8 @@ public class MessageServiceImplTest {
 
         assertNotNull(result);
         assertEquals(MessageStatus.READ, result.getStatus());
+        verify(inboxService).recordMessageRead(message);
+        verify(messagingEventPublisherService).publishMessagesRead(any(), eq(2L), eq(1L), eq(1L), eq(1));
 
         verify(entityUtils).getMessage(1L);
         verify(messageRepository).save(any(Message.class));
@@ -163,6 +184,7 @@ public class MessageServiceImplTest {
         verify(messageValidator).validateMessageUpdate(updateRequest, owner);
         verify(entityUtils).getMessage(1L);
         verify(messageRepository).save(any(Message.class));
+        verify(inboxService).recordMessageEdited(updatedMessage);
         verify(entityMapper).map(updatedMessage, MessageResponse.class);
         verify(messageValidator).validateMessageOwnership(owner, originalMessage);
     }
@@ -181,6 +203,7 @@ public class MessageServiceImplTest {
 
         verify(entityUtils).getMessage(1L);
         verify(messageRepository).delete(message);
+        verify(inboxService).recordMessageDeleted(message);
         verify(messageValidator).validateMessageOwnership(owner, message);
         verify(notificationEventPublisherService).publishMessageDeleted(any(), eq(receiver.getId()),
                 eq(owner.getId()));
@@ -204,7 +227,7 @@ public class MessageServiceImplTest {
                 .build();
 
         when(entityUtils.getUser(2L)).thenReturn(otherUser);
-        when(messageRepository.findMessagesBetweenUsers(eq(1L), eq(2L), any())).thenReturn(Optional.of(messagePage));
+        when(messageRepository.findByConversationId(eq("1:2"), any())).thenReturn(Optional.of(messagePage));
 
         PageResponse<MessageResponse> result = messageServiceImpl.getConversation(2L, currentUser, pageRequest);
 
@@ -212,7 +235,102 @@ public class MessageServiceImplTest {
         assertEquals(2, result.getContent().size());
 
         verify(entityUtils).getUser(2L);
-        verify(messageRepository).findMessagesBetweenUsers(eq(1L), eq(2L), any());
+        verify(messageRepository).findByConversationId(eq("1:2"), any());
+    }
+
+    @Test
+    void getConversationHistory_beforeCursor_shouldReturnOlderSliceWithNextCursor() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User otherUser = createTestUser(2L, "other", "other@example.com");
+        Message cursor = createTestMessage(currentUser, otherUser, "курсор", null,
+                MessageStatus.SENT, LocalDateTime.now(), LocalDateTime.now());
+        cursor.setId(10L);
+        cursor.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        Message older = createTestMessage(otherUser, currentUser, "раньше", null,
+                MessageStatus.READ, LocalDateTime.now(), LocalDateTime.now());
+        MessageResponse olderResponse = MessageResponse.builder().id(7L).build();
+
+        when(entityUtils.getUser(2L)).thenReturn(otherUser);
+        when(entityUtils.getMessage(10L)).thenReturn(cursor);
+        when(messageRepository.findInConversationBefore(eq("1:2"), eq(cursor.getCreatedAt()), eq(10L), any()))
+                .thenReturn(new SliceImpl<>(List.of(older), Pageable.ofSize(1), true));
+        when(entityMapper.map(older, MessageResponse.class)).thenReturn(olderResponse);
+
+        SliceResponse<MessageResponse> result = messageServiceImpl.getConversationHistory(2L, currentUser, 10L, 1);
+
+        assertEquals(List.of(olderResponse), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals("7", result.getNextCursor());
+    }
+
+    @Test
+    void getConversationHistory_whenCursorFromAnotherConversation_shouldThrowBadRequest() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User otherUser = createTestUser(2L, "other", "other@example.com");
+        User stranger = createTestUser(3L, "stranger", "stranger@example.com");
+        Message foreign = createTestMessage(stranger, otherUser, "чужое", null,
+                MessageStatus.SENT, LocalDateTime.now(), LocalDateTime.now());
+
+        when(entityUtils.getUser(2L)).thenReturn(otherUser);
+        when(entityUtils.getMessage(5L)).thenReturn(foreign);
+
+        assertThrows(BadRequestException.class,
+                () -> messageServiceImpl.getConversationHistory(2L, currentUser, 5L, 20));
+        verify(messageRepository, never()).findInConversationBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void markConversationAsRead_shouldUpdateWithSingleQueryAndPublishOneReceipt() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User otherUser = createTestUser(2L, "other", "other@example.com");
+        Message upTo = createTestMessage(otherUser, currentUser, "последнее", null,
+                MessageStatus.RECEIVED, LocalDateTime.now(), LocalDateTime.now());
+        upTo.setId(200L);
+
+        when(entityUtils.getUser(2L)).thenReturn(otherUser);
+        when(entityUtils.getMessage(200L)).thenReturn(upTo);
+        when(messageRepository.markConversationStatusUpTo(eq("1:2"), eq(1L), eq(200L), eq(MessageStatus.READ), any()))
+                .thenReturn(200);
+
+        ConversationReadResponse result = messageServiceImpl.markConversationAsRead(2L, currentUser, 200L);
+
+        assertEquals(200, result.getReadCount());
+        assertEquals(2L, result.getPeerUserId());
+        verify(messageRepository, never()).save(any(Message.class));
+        verify(inboxService).recordConversationRead(1L, 2L, 200);
+        verify(messagingEventPublisherService).publishMessagesRead(any(), eq(1L), eq(2L), eq(200L), eq(200));
+    }
+
+    @Test
+    void markConversationAsRead_whenNothingUnread_shouldNotPublishReceipt() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User otherUser = createTestUser(2L, "other", "other@example.com");
+
+        when(entityUtils.getUser(2L)).thenReturn(otherUser);
+        when(messageRepository.markConversationStatusUpTo(eq("1:2"), eq(1L), eq(Long.MAX_VALUE), eq(MessageStatus.READ), any()))
+                .thenReturn(0);
+
+        ConversationReadResponse result = messageServiceImpl.markConversationAsRead(2L, currentUser, null);
+
+        assertEquals(0, result.getReadCount());
+        verify(inboxService, never()).recordConversationRead(any(), any(), anyInt());
+        verify(messagingEventPublisherService, never()).publishMessagesRead(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void markConversationAsRead_whenMessageFromAnotherConversation_shouldThrowBadRequest() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User otherUser = createTestUser(2L, "other", "other@example.com");
+        User stranger = createTestUser(3L, "stranger", "stranger@example.com");
+        Message foreign = createTestMessage(stranger, otherUser, "чужое", null,
+                MessageStatus.SENT, LocalDateTime.now(), LocalDateTime.now());
+
+        when(entityUtils.getUser(2L)).thenReturn(otherUser);
+        when(entityUtils.getMessage(5L)).thenReturn(foreign);
+
+        assertThrows(BadRequestException.class,
+                () -> messageServiceImpl.markConversationAsRead(2L, currentUser, 5L));
+        verify(messageRepository, never()).markConversationStatusUpTo(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,146 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.cache.NewsFeedCacheServiceImpl;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewsFeedCacheServiceImplTest {
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private NewsFeedCacheServiceImpl newsFeedCacheService;
+
+    @Test
+    void getFeedGeneration_whenNeverInvalidated_shouldReturnZero() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("newsFeedGeneration::user:1")).thenReturn(null);
+
+        assertEquals(0L, newsFeedCacheService.getFeedGeneration(1L));
+    }
+
+    @Test
+    void getFeedGeneration_shouldReturnStoredGeneration() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("newsFeedGeneration::user:1")).thenReturn(7);
+
+        assertEquals(7L, newsFeedCacheService.getFeedGeneration(1L));
+    }
+
+    @Test
+    void evictNewsFeedCacheForUser_shouldIncrementGenerationWithoutKeyScan() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("newsFeedGeneration::user:1")).thenReturn(1L);
+
+        newsFeedCacheService.evictNewsFeedCacheForUser(1L);
+
+        verify(valueOperations).increment("newsFeedGeneration::user:1");
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    void evictNewsFeedCacheForUsers_shouldPipelineIncrementsInBoundedBatches() {
+        ReflectionTestUtils.setField(newsFeedCacheService, "evictionBatchSize", 2);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<?> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+
+        newsFeedCacheService.evictNewsFeedCacheForUsers(List.of(2L, 3L, 4L));
+
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+        verify(stringCommands).incr("newsFeedGeneration::user:2".getBytes(StandardCharsets.UTF_8));
+        verify(stringCommands).incr("newsFeedGeneration::user:3".getBytes(StandardCharsets.UTF_8));
+        verify(stringCommands).incr("newsFeedGeneration::user:4".getBytes(StandardCharsets.UTF_8));
+        verify(redisTemplate, never()).opsForValue();
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    void evictCachePostsForFriends_shouldInvalidateEachAffectedUserOnce() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<?> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return List.of();
+        });
+        ReflectionTestUtils.setField(newsFeedCacheService, "evictionBatchSize", 500);
+        when(postRepository.findOwnerIdsByIdIn(List.of(10L, 11L))).thenReturn(Set.of(1L, 2L));
+        when(relationshipRepository.findFriendIdsByUserIdIn(Set.of(1L, 2L), FriendshipStatus.ACCEPTED))
+                .thenReturn(Set.of(2L, 3L));
+
+        newsFeedCacheService.evictCachePostsForFriends(List.of(10L, 11L));
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(stringCommands, times(1)).incr("newsFeedGeneration::user:1".getBytes(StandardCharsets.UTF_8));
+        verify(stringCommands, times(1)).incr("newsFeedGeneration::user:2".getBytes(StandardCharsets.UTF_8));
+        verify(stringCommands, times(1)).incr("newsFeedGeneration::user:3".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void evictCachePostsForFriends_whenRedisPipelineFails_shouldPropagateForRetry() {
+        ReflectionTestUtils.setField(newsFeedCacheService, "evictionBatchSize", 500);
+        when(postRepository.findOwnerIdsByIdIn(List.of(10L))).thenReturn(Set.of(1L));
+        when(relationshipRepository.findFriendIdsByUserIdIn(Set.of(1L), FriendshipStatus.ACCEPTED))
+                .thenReturn(Set.of(2L));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis is down"));
+
+        assertThrows(RedisConnectionFailureException.class,
+                () -> newsFeedCacheService.evictCachePostsForFriends(List.of(10L)));
+        verify(centralLogger).logError(eq("КЕШ_ЛЕНТА_ОШИБКА_ОЧИСТКИ_ПАЧКИ"), anyString(), any(), any());
+    }
+
+    @Test
+    void evictCachePostsForFriends_whenLookupFails_shouldPropagateForRetry() {
+        when(postRepository.findOwnerIdsByIdIn(List.of(10L))).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> newsFeedCacheService.evictCachePostsForFriends(List.of(10L)));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+}
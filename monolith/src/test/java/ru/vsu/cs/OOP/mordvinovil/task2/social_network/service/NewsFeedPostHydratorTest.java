@@ -0,0 +1,58 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.CommentRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.timeline.NewsFeedPostHydrator;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewsFeedPostHydratorTest {
+    @Mock
+    private NewsFeedRepository newsFeedRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private NewsFeedPostHydrator newsFeedPostHydrator;
+
+    @Test
+    void hydrate_shouldLoadCollectionsInBulkAndKeepOrder() {
+        User author = TestDataFactory.createTestUser(1L, "author", "author@example.com");
+        Post first = TestDataFactory.createTestPost(1L, author, "First", null);
+        Post second = TestDataFactory.createTestPost(2L, author, "Second", null);
+
+        when(newsFeedRepository.findAllWithUserByIdIn(List.of(2L, 3L, 1L))).thenReturn(List.of(first, second));
+
+        List<Post> result = newsFeedPostHydrator.hydrate(List.of(2L, 3L, 1L));
+
+        assertEquals(List.of(second, first), result);
+        verify(newsFeedRepository).fetchCommentsByIdIn(Set.of(1L, 2L));
+        verify(commentRepository).fetchLikesByPostIdIn(Set.of(1L, 2L));
+        verify(newsFeedRepository).fetchLikesByIdIn(Set.of(1L, 2L));
+    }
+
+    @Test
+    void hydrate_whenNoIds_shouldNotQuery() {
+        List<Post> result = newsFeedPostHydrator.hydrate(List.of());
+
+        assertTrue(result.isEmpty());
+        verify(newsFeedRepository, never()).findAllWithUserByIdIn(any());
+        verifyNoInteractions(commentRepository);
+    }
+}
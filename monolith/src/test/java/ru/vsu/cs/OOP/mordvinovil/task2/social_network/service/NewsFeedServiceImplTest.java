@@ -9,22 +9,31 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Sort;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.feed.NewsFeedResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.PageResponse;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.common.SliceResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.post.PostResponse;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FeedView;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.TimelineSlice;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.NewsFeedResponseAssembler;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.NewsFeedServiceImpl;
-import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.createTestNewsFeedResponseList;
 
@@ -34,10 +43,10 @@ public class NewsFeedServiceImplTest {
     private CentralLogger centralLogger;
 
     @Mock
-    private NewsFeedRepository newsFeedRepository;
+    private NewsFeedTimelineService newsFeedTimelineService;
 
     @Mock
-    private EntityMapper entityMapper;
+    private NewsFeedResponseAssembler newsFeedResponseAssembler;
 
     @InjectMocks
     private NewsFeedServiceImpl newsFeedServiceImpl;
@@ -45,18 +54,15 @@ public class NewsFeedServiceImplTest {
     @Test
     void getPostsByFriends_whenRequestIsValid() {
         User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
-        List<Post> postList = List.of(
-                TestDataFactory.createTestPost(user, "Test post 1", "image1.jpg"),
-                TestDataFactory.createTestPost(user, "Test post 2", "image2.jpg")
-        );
+        List<Long> postIds = List.of(2L, 1L);
 
-        Page<Post> postPage = new PageImpl<>(
-                postList,
+        Page<Long> postIdPage = new PageImpl<>(
+                postIds,
                 org.springframework.data.domain.PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")),
-                postList.size()
+                postIds.size()
         );
 
-        List<NewsFeedResponse> newsFeedResponseList = createTestNewsFeedResponseList();
+        List<NewsFeedResponse> newsFeedResponseList = createTestNewsFeedResponseList().subList(0, 2);
 
         PageRequest pageRequest = PageRequest.builder()
                 .pageNumber(0)
@@ -65,11 +71,10 @@ public class NewsFeedServiceImplTest {
                 .direction(Sort.Direction.DESC)
                 .build();
 
-        when(newsFeedRepository.findPostsByFriends(eq(1L), any(org.springframework.data.domain.PageRequest.class))).thenReturn(postPage);
-        when(entityMapper.mapWithName(any(Post.class), eq(NewsFeedResponse.class), eq("fullNewsFeed")))
-                .thenReturn(newsFeedResponseList.get(0), newsFeedResponseList.get(1));
+        when(newsFeedTimelineService.getTimelinePage(eq(1L), any(PageRequest.class))).thenReturn(postIdPage);
+        when(newsFeedResponseAssembler.assemble(postIds, FeedView.FULL, user)).thenReturn(newsFeedResponseList);
 
-        PageResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriends(user, pageRequest);
+        PageResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriends(user, pageRequest, FeedView.FULL);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
@@ -79,10 +84,32 @@ public class NewsFeedServiceImplTest {
         assertEquals(1, result.getTotalPages());
     }
 
+    @Test
+    void getPostsByFriends_whenCompactView_shouldAssembleCompactResponses() {
+        User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
+        List<Long> postIds = List.of(2L, 1L);
+        Page<Long> postIdPage = new PageImpl<>(postIds, org.springframework.data.domain.PageRequest.of(0, 10), 2);
+        PageRequest pageRequest = PageRequest.builder()
+                .pageNumber(0)
+                .size(10)
+                .sortBy("createdAt")
+                .direction(Sort.Direction.DESC)
+                .build();
+
+        when(newsFeedTimelineService.getTimelinePage(eq(1L), any(PageRequest.class))).thenReturn(postIdPage);
+        when(newsFeedResponseAssembler.assemble(postIds, FeedView.COMPACT, user))
+                .thenReturn(createTestNewsFeedResponseList().subList(0, 2));
+
+        PageResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriends(user, pageRequest, FeedView.COMPACT);
+
+        assertEquals(2, result.getContent().size());
+        verify(newsFeedResponseAssembler).assemble(postIds, FeedView.COMPACT, user);
+    }
+
     @Test
     void getPostsByFriends_whenEmptyResult() {
         User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
-        Page<Post> emptyPage = new PageImpl<>(
+        Page<Long> emptyPage = new PageImpl<>(
                 List.of(),
                 org.springframework.data.domain.PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")),
                 0
@@ -94,9 +121,10 @@ public class NewsFeedServiceImplTest {
                 .direction(Sort.Direction.DESC)
                 .build();
 
-        when(newsFeedRepository.findPostsByFriends(eq(1L), any(org.springframework.data.domain.PageRequest.class))).thenReturn(emptyPage);
+        when(newsFeedTimelineService.getTimelinePage(eq(1L), any(PageRequest.class))).thenReturn(emptyPage);
+        when(newsFeedResponseAssembler.assemble(List.of(), FeedView.FULL, user)).thenReturn(List.of());
 
-        PageResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriends(user, pageRequest);
+        PageResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriends(user, pageRequest, FeedView.FULL);
 
         assertNotNull(result);
         assertEquals(0, result.getContent().size());
@@ -107,5 +135,66 @@ public class NewsFeedServiceImplTest {
         assertEquals(true, result.isFirst());
         assertEquals(true, result.isLast());
     }
-}
 
+    @Test
+    void getPostsByFriendsAfter_whenMorePostsExist_shouldReturnNextCursor() {
+        User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
+        LocalDateTime timelineCreatedAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123456000);
+        NewsFeedResponse first = NewsFeedResponse.builder()
+                .id(7L)
+                .author(user.getUsername())
+                .postResponse(PostResponse.builder().id(7L).time(timelineCreatedAt.plusHours(1)).build())
+                .build();
+        NewsFeedResponse last = NewsFeedResponse.builder()
+                .id(5L)
+                .author(user.getUsername())
+                .postResponse(PostResponse.builder().id(5L).time(timelineCreatedAt.withNano(0)).build())
+                .build();
+
+        FeedCursor cursor = FeedCursor.first();
+        FeedCursor timelineCursor = new FeedCursor(timelineCreatedAt, 5L);
+
+        when(newsFeedTimelineService.getTimelineSlice(1L, cursor, 2))
+                .thenReturn(new TimelineSlice(List.of(7L, 5L), timelineCursor));
+        when(newsFeedResponseAssembler.assemble(List.of(7L, 5L), FeedView.FULL, user)).thenReturn(List.of(first, last));
+
+        SliceResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriendsAfter(user, cursor, 2, FeedView.FULL);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(true, result.isHasNext());
+        assertEquals(timelineCursor.encode(), result.getNextCursor());
+    }
+
+    @Test
+    void getPostsByFriendsAfter_whenAssemblerDropsEveryPost_shouldKeepCursor() {
+        User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
+        FeedCursor cursor = FeedCursor.first();
+        FeedCursor timelineCursor = new FeedCursor(LocalDateTime.of(2024, 1, 1, 10, 0), 5L);
+
+        when(newsFeedTimelineService.getTimelineSlice(1L, cursor, 2))
+                .thenReturn(new TimelineSlice(List.of(7L, 5L), timelineCursor));
+        when(newsFeedResponseAssembler.assemble(List.of(7L, 5L), FeedView.FULL, user)).thenReturn(List.of());
+
+        SliceResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriendsAfter(user, cursor, 2, FeedView.FULL);
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(true, result.isHasNext());
+        assertEquals(timelineCursor.encode(), result.getNextCursor());
+    }
+
+    @Test
+    void getPostsByFriendsAfter_whenLastSlice_shouldNotReturnCursor() {
+        User user = TestDataFactory.createTestUser(1L, "testUser", "test@example.com");
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 1, 1, 10, 0), 5L);
+
+        when(newsFeedTimelineService.getTimelineSlice(1L, cursor, 10))
+                .thenReturn(new TimelineSlice(List.of(), null));
+        when(newsFeedResponseAssembler.assemble(List.of(), FeedView.FULL, user)).thenReturn(List.of());
+
+        SliceResponse<NewsFeedResponse> result = newsFeedServiceImpl.getPostsByFriendsAfter(user, cursor, 10, FeedView.FULL);
+
+        assertEquals(0, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+}
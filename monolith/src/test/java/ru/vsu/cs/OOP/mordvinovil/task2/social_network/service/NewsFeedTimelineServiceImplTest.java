@@ -0,0 +1,323 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.common.PageRequest;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.request.feed.FeedCursor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.FeedTimelineEntry;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Post;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedPullAuthorRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedTimelineOwnerRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.FeedTimelineRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.NewsFeedRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.TimelineSlice;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.feed.timeline.NewsFeedTimelineServiceImpl;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NewsFeedTimelineServiceImplTest {
+    @Mock
+    private FeedTimelineRepository feedTimelineRepository;
+
+    @Mock
+    private FeedPullAuthorRepository feedPullAuthorRepository;
+
+    @Mock
+    private FeedTimelineOwnerRepository feedTimelineOwnerRepository;
+
+    @Mock
+    private NewsFeedRepository newsFeedRepository;
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private NewsFeedTimelineServiceImpl newsFeedTimelineService;
+
+    private PageRequest createPageRequest() {
+        return PageRequest.builder()
+                .pageNumber(0)
+                .size(10)
+                .sortBy("createdAt")
+                .direction(Sort.Direction.DESC)
+                .build();
+    }
+
+    @Test
+    void fanOutPost_whenPostIsSaved() {
+        User author = TestDataFactory.createTestUser(1L, "author", "author@example.com");
+        LocalDateTime createdAt = LocalDateTime.now();
+        Post post = TestDataFactory.createTestPost(10L, author, "Post", null);
+        post.setCreatedAt(createdAt);
+
+        ReflectionTestUtils.setField(newsFeedTimelineService, "fanOutThreshold", 1000L);
+        when(feedPullAuthorRepository.existsByAuthorId(1L)).thenReturn(false);
+        when(relationshipRepository.countFriendsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(3L);
+        when(feedTimelineRepository.fanOutToFriends(1L, 10L, createdAt)).thenReturn(3);
+
+        newsFeedTimelineService.fanOutPost(post);
+
+        verify(feedTimelineRepository).fanOutToFriends(1L, 10L, createdAt);
+        verify(feedPullAuthorRepository, never()).markPullAuthor(any(), any());
+    }
+
+    @Test
+    void fanOutPost_whenAuthorExceedsThreshold_shouldSwitchToPull() {
+        User author = TestDataFactory.createTestUser(1L, "author", "author@example.com");
+        Post post = TestDataFactory.createTestPost(10L, author, "Post", null);
+
+        ReflectionTestUtils.setField(newsFeedTimelineService, "fanOutThreshold", 1000L);
+        when(feedPullAuthorRepository.existsByAuthorId(1L)).thenReturn(false);
+        when(relationshipRepository.countFriendsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(5000L);
+
+        newsFeedTimelineService.fanOutPost(post);
+
+        verify(feedPullAuthorRepository).markPullAuthor(1L, 5000L);
+        verify(feedTimelineRepository, never()).fanOutToFriends(any(), any(), any());
+    }
+
+    @Test
+    void fanOutPost_whenAuthorAlreadyPull_shouldSkipFanOut() {
+        User author = TestDataFactory.createTestUser(1L, "author", "author@example.com");
+        Post post = TestDataFactory.createTestPost(10L, author, "Post", null);
+
+        when(feedPullAuthorRepository.existsByAuthorId(1L)).thenReturn(true);
+
+        newsFeedTimelineService.fanOutPost(post);
+
+        verify(relationshipRepository, never()).countFriendsByUserId(any(), any());
+        verify(feedTimelineRepository, never()).fanOutToFriends(any(), any(), any());
+    }
+
+    @Test
+    void getTimelinePage_whenTimelineExists_shouldReturnTimelinePage() {
+        when(feedTimelineOwnerRepository.existsByOwnerId(1L)).thenReturn(true);
+        when(feedTimelineRepository.countByOwnerId(1L)).thenReturn(2L);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findPostIdsByOwnerId(eq(1L), any(Pageable.class))).thenReturn(List.of(2L, 1L));
+
+        Page<Long> result = newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.getContent());
+        verify(feedTimelineRepository, never()).backfillFromFriends(any(), anyInt());
+    }
+
+    @Test
+    void getTimelinePage_whenTimelineIsEmpty_shouldBackfill() {
+        when(feedTimelineRepository.countByOwnerId(1L)).thenReturn(0L);
+        when(feedTimelineOwnerRepository.markBackfilled(1L)).thenReturn(1);
+        when(feedTimelineRepository.backfillFromFriends(eq(1L), anyInt())).thenReturn(0);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findPostIdsByOwnerId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        Page<Long> result = newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getTotalElements());
+        verify(feedTimelineRepository).backfillFromFriends(eq(1L), anyInt());
+        verify(feedTimelineOwnerRepository).markBackfilled(1L);
+    }
+
+    @Test
+    void getTimelinePage_whenFanOutArrivedBeforeFirstRead_shouldStillBackfill() {
+        when(feedTimelineOwnerRepository.existsByOwnerId(1L)).thenReturn(false);
+        when(feedTimelineOwnerRepository.markBackfilled(1L)).thenReturn(1);
+        when(feedTimelineRepository.backfillFromFriends(eq(1L), anyInt())).thenReturn(5);
+        when(feedTimelineRepository.countByOwnerId(1L)).thenReturn(6L);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findPostIdsByOwnerId(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(6L, 5L, 4L, 3L, 2L, 1L));
+
+        Page<Long> result = newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        assertEquals(6, result.getTotalElements());
+        verify(feedTimelineOwnerRepository).markBackfilled(1L);
+        verify(feedTimelineRepository).backfillFromFriends(eq(1L), anyInt());
+    }
+
+    @Test
+    void getTimelinePage_whenOwnerMarkedConcurrently_shouldNotBackfill() {
+        when(feedTimelineOwnerRepository.markBackfilled(1L)).thenReturn(0);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findPostIdsByOwnerId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        verify(feedTimelineRepository, never()).backfillFromFriends(any(), anyInt());
+    }
+
+    @Test
+    void rebuildTimeline_whenBackfillFails_shouldRemoveOwnerMark() {
+        when(feedTimelineOwnerRepository.markBackfilled(1L)).thenReturn(1);
+        when(feedTimelineRepository.backfillFromFriends(eq(1L), anyInt()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> newsFeedTimelineService.rebuildTimeline(1L));
+
+        verify(feedTimelineOwnerRepository).unmarkBackfilled(1L);
+    }
+
+    @Test
+    void getTimelinePage_whenEmptyTimelineWasAlreadyBackfilled_shouldNotBackfillAgain() {
+        when(feedTimelineRepository.countByOwnerId(1L)).thenReturn(0L);
+        when(feedTimelineOwnerRepository.existsByOwnerId(1L)).thenReturn(true);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findPostIdsByOwnerId(eq(1L), any(Pageable.class))).thenReturn(List.of());
+
+        Page<Long> result = newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        assertTrue(result.getContent().isEmpty());
+        verify(feedTimelineRepository, never()).backfillFromFriends(any(), anyInt());
+        verify(feedTimelineOwnerRepository, never()).markBackfilled(any());
+    }
+
+    @Test
+    void getTimelinePage_whenFriendIsPullAuthor_shouldMergeByRecency() {
+        User pushedAuthor = TestDataFactory.createTestUser(2L, "pushed", "pushed@example.com");
+        User pullAuthor = TestDataFactory.createTestUser(3L, "pull", "pull@example.com");
+        LocalDateTime now = LocalDateTime.now();
+
+        Post pushedPost = TestDataFactory.createTestPost(1L, pushedAuthor, "Pushed", null);
+        pushedPost.setCreatedAt(now.minusHours(2));
+        Post pulledPost = TestDataFactory.createTestPost(2L, pullAuthor, "Pulled", null);
+        pulledPost.setCreatedAt(now.minusHours(1));
+
+        FeedTimelineEntry entry = FeedTimelineEntry.builder()
+                .ownerId(1L)
+                .postId(1L)
+                .authorId(2L)
+                .postCreatedAt(pushedPost.getCreatedAt())
+                .build();
+
+        when(feedTimelineRepository.countByOwnerId(1L)).thenReturn(1L);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of(3L));
+        when(feedTimelineRepository.findByOwnerIdExcludingAuthors(eq(1L), eq(List.of(3L)), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(newsFeedRepository.findRecentPostsByAuthorIds(eq(List.of(3L)), any(Pageable.class)))
+                .thenReturn(List.of(pulledPost));
+        when(feedTimelineRepository.countByOwnerIdAndAuthorIdNotIn(1L, List.of(3L))).thenReturn(1L);
+        when(newsFeedRepository.countByUserIdIn(List.of(3L))).thenReturn(1L);
+
+        Page<Long> result = newsFeedTimelineService.getTimelinePage(1L, createPageRequest());
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.getContent());
+        verify(feedTimelineRepository, never()).findPostIdsByOwnerId(any(), any());
+    }
+
+    @Test
+    void getTimelineSlice_whenMoreEntriesThanSize_shouldReportNext() {
+        LocalDateTime now = LocalDateTime.now();
+        FeedCursor cursor = new FeedCursor(now, 100L);
+
+        List<FeedTimelineEntry> entries = List.of(
+                FeedTimelineEntry.builder().ownerId(1L).postId(3L).authorId(2L).postCreatedAt(now.minusMinutes(1)).build(),
+                FeedTimelineEntry.builder().ownerId(1L).postId(2L).authorId(2L).postCreatedAt(now.minusMinutes(2)).build(),
+                FeedTimelineEntry.builder().ownerId(1L).postId(1L).authorId(2L).postCreatedAt(now.minusMinutes(3)).build()
+        );
+
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findByOwnerIdBefore(eq(1L), eq(now), eq(100L), any(Pageable.class)))
+                .thenReturn(entries);
+
+        TimelineSlice result = newsFeedTimelineService.getTimelineSlice(1L, cursor, 2);
+
+        assertTrue(result.hasNext());
+        assertEquals(List.of(3L, 2L), result.getPostIds());
+        assertEquals(new FeedCursor(now.minusMinutes(2), 2L), result.getNextCursor());
+        verify(feedTimelineOwnerRepository, never()).existsByOwnerId(any());
+        verify(feedTimelineRepository, never()).countByOwnerId(any());
+    }
+
+    @Test
+    void getTimelineSlice_whenPullAuthorPostIsLast_shouldUsePostCreatedAtForCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        FeedCursor cursor = new FeedCursor(now, 100L);
+        User pullAuthor = TestDataFactory.createTestUser(3L, "pull", "pull@example.com");
+        Post pulledPost = TestDataFactory.createTestPost(4L, pullAuthor, "Pulled", null);
+        pulledPost.setCreatedAt(now.minusMinutes(2));
+        Post olderPulledPost = TestDataFactory.createTestPost(1L, pullAuthor, "Older", null);
+        olderPulledPost.setCreatedAt(now.minusMinutes(5));
+
+        FeedTimelineEntry entry = FeedTimelineEntry.builder()
+                .ownerId(1L).postId(6L).authorId(2L).postCreatedAt(now.minusMinutes(1)).build();
+
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of(3L));
+        when(feedTimelineRepository.findByOwnerIdBeforeExcludingAuthors(
+                eq(1L), eq(List.of(3L)), eq(now), eq(100L), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(newsFeedRepository.findRecentPostsByAuthorIdsBefore(eq(List.of(3L)), eq(now), eq(100L), any(Pageable.class)))
+                .thenReturn(List.of(pulledPost, olderPulledPost));
+
+        TimelineSlice result = newsFeedTimelineService.getTimelineSlice(1L, cursor, 2);
+
+        assertEquals(List.of(6L, 4L), result.getPostIds());
+        assertEquals(new FeedCursor(now.minusMinutes(2), 4L), result.getNextCursor());
+    }
+
+    @Test
+    void getTimelineSlice_whenFirstSliceOfEmptyTimeline_shouldBackfill() {
+        when(feedTimelineOwnerRepository.existsByOwnerId(1L)).thenReturn(false);
+        when(feedTimelineOwnerRepository.markBackfilled(1L)).thenReturn(1);
+        when(feedTimelineRepository.backfillFromFriends(eq(1L), anyInt())).thenReturn(0);
+        when(feedPullAuthorRepository.findPullAuthorIdsAmongFriends(1L)).thenReturn(List.of());
+        when(feedTimelineRepository.findByOwnerIdBefore(eq(1L), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        TimelineSlice result = newsFeedTimelineService.getTimelineSlice(1L, FeedCursor.first(), 10);
+
+        assertFalse(result.hasNext());
+        assertTrue(result.getPostIds().isEmpty());
+        verify(feedTimelineRepository).backfillFromFriends(eq(1L), anyInt());
+    }
+
+    @Test
+    void applyFriendshipChange_whenFriendshipRemoved_shouldDeleteTimelineRowsInBothDirections() {
+        when(feedTimelineRepository.deleteBetween(1L, 2L)).thenReturn(4);
+
+        newsFeedTimelineService.applyFriendshipChange(1L, 2L, false);
+
+        verify(feedTimelineRepository).deleteBetween(1L, 2L);
+        verify(feedTimelineRepository, never()).backfillFromAuthor(any(), any(), anyInt());
+    }
+
+    @Test
+    void applyFriendshipChange_whenFriendshipAccepted_shouldBackfillPostsOfNewFriend() {
+        ReflectionTestUtils.setField(newsFeedTimelineService, "backfillSize", 200);
+        when(feedTimelineRepository.backfillFromAuthor(1L, 2L, 200)).thenReturn(3);
+        when(feedTimelineRepository.backfillFromAuthor(2L, 1L, 200)).thenReturn(5);
+
+        newsFeedTimelineService.applyFriendshipChange(1L, 2L, true);
+
+        verify(feedTimelineRepository).backfillFromAuthor(1L, 2L, 200);
+        verify(feedTimelineRepository).backfillFromAuthor(2L, 1L, 200);
+        verify(feedTimelineRepository, never()).deleteBetween(any(), any());
+    }
+}
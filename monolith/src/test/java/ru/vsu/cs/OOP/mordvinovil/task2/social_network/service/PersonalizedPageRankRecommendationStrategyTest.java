@@ -0,0 +1,77 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.recommendation.RecommendationFriendResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.RelationshipRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraph;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.graph.FriendshipGraphSnapshot;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.recommendation.strategy.PersonalizedPageRankRecommendationStrategy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonalizedPageRankRecommendationStrategyTest {
+    @Mock
+    private FriendshipGraphProvider graphProvider;
+
+    @Mock
+    private RelationshipRepository relationshipRepository;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private PersonalizedPageRankRecommendationStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(strategy, "walks", 500);
+        ReflectionTestUtils.setField(strategy, "restartProbability", 0.15);
+        ReflectionTestUtils.setField(strategy, "maxWalkLength", 20);
+    }
+
+    @Test
+    void generateTopRecommendations_shouldRankByVisitFrequencyAndExcludeFriends() {
+        FriendshipGraph graph = FriendshipGraph.fromEdges(
+                new long[]{1L, 2L, 2L, 3L}, new long[]{2L, 3L, 4L, 4L}, 4);
+        when(graphProvider.getGraph()).thenReturn(FriendshipGraphSnapshot.of(graph));
+
+        List<RecommendationFriendResponse> result =
+                strategy.generateTopRecommendations(1L, Map.of(), Set.of(2L), 10);
+
+        assertEquals(Set.of(3L, 4L), Set.copyOf(result.stream().map(RecommendationFriendResponse::getRecommendedUserId).toList()));
+        assertTrue(result.get(0).getScore() >= result.get(1).getScore());
+        assertTrue(result.get(0).getFactorScores().containsKey("visitFrequency"));
+        verifyNoInteractions(relationshipRepository);
+    }
+
+    @Test
+    void generateTopRecommendations_whenGraphNotLoaded_shouldLoadFriendsOncePerUser() {
+        when(graphProvider.getGraph()).thenReturn(null);
+        when(relationshipRepository.findFriendIdsByUserId(1L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(2L));
+        when(relationshipRepository.findFriendIdsByUserId(2L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(1L, 3L));
+        when(relationshipRepository.findFriendIdsByUserId(3L, FriendshipStatus.ACCEPTED)).thenReturn(Set.of(2L));
+
+        List<RecommendationFriendResponse> result =
+                strategy.generateTopRecommendations(1L, Map.of(), Set.of(2L), 10);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getRecommendedUserId());
+        verify(relationshipRepository, times(3)).findFriendIdsByUserId(anyLong(), eq(FriendshipStatus.ACCEPTED));
+    }
+}
@@ -20,6 +20,9 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPub
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.AccessDeniedException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.LikeService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.content.PostLikeCounterService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.feed.NewsFeedTimelineService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.storage.FileStorageServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.PostServiceImpl;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.EntityMapper;
@@ -30,6 +33,8 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.factory.ContentFacto
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.validations.services.PostValidator;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -62,6 +67,15 @@ class PostServiceImplTest {
     @Mock
     private CacheEventPublisherService cacheEventPublisherService;
 
+    @Mock
+    private NewsFeedTimelineService newsFeedTimelineService;
+
+    @Mock
+    private LikeService likeService;
+
+    @Mock
+    private PostLikeCounterService postLikeCounterService;
+
     @InjectMocks
     private PostServiceImpl postServiceImpl;
 
@@ -102,6 +116,7 @@ class PostServiceImplTest {
         verify(postValidator).validate(request, owner);
         verify(contentFactory).createPost(owner, request.getContent(), request.getImageUrl());
         verify(postRepository).save(any(Post.class));
+        verify(newsFeedTimelineService).fanOutPost(savedPost);
         verify(entityMapper).map(savedPost, PostResponse.class);
         verify(cacheEventPublisherService).publishPostCreate(eq(postServiceImpl), eq(savedPost), eq(1L));
     }
@@ -207,8 +222,8 @@ class PostServiceImplTest {
                 .direction(Sort.Direction.DESC)
                 .build();
 
-        Post post1 = createTestPost(owner, "Post 1", null);
-        Post post2 = createTestPost(owner, "Post 2", "img.jpg");
+        Post post1 = createTestPost(1L, owner, "Post 1", null);
+        Post post2 = createTestPost(2L, owner, "Post 2", "img.jpg");
         List<Post> posts = List.of(post1, post2);
         Page<Post> postPage = new PageImpl<>(posts, pageRequest.toPageable(), posts.size());
 
@@ -225,6 +240,8 @@ class PostServiceImplTest {
                 .thenReturn(postPage);
         when(entityMapper.mapWithName(any(Post.class), eq(PostResponse.class), eq("withDetails")))
                 .thenReturn(responses.get(0), responses.get(1));
+        when(likeService.getLikedPostIds(owner, List.of(1L, 2L))).thenReturn(Set.of(2L));
+        when(postLikeCounterService.getPendingDeltas(List.of(1L, 2L))).thenReturn(Map.of(1L, 3L));
 
         PageResponse<PostResponse> result = postServiceImpl.getAllPostsByUser(owner, pageRequest);
 
@@ -234,8 +251,13 @@ class PostServiceImplTest {
         assertEquals(2L, result.getTotalElements());
         assertEquals(10, result.getPageSize());
         assertEquals(0, result.getCurrentPage());
+        assertFalse(result.getContent().get(0).getLikedByMe());
+        assertTrue(result.getContent().get(1).getLikedByMe());
+        assertEquals(3L, result.getContent().get(0).getLikeCount());
+        assertEquals(0L, result.getContent().get(1).getLikeCount());
 
         verify(postRepository).getAllPostsByUserWithCommentsAndLikes(eq(owner), any());
+        verify(likeService).getLikedPostIds(owner, List.of(1L, 2L));
         verify(entityMapper, times(2)).mapWithName(any(Post.class), eq(PostResponse.class), eq("withDetails"));
     }
 
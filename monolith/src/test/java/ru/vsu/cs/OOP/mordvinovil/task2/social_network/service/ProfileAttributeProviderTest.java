@@ -0,0 +1,104 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ProfileRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.projection.ProfileAttributesProjection;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.factor.DemographicFactor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.factor.GeographicFactor;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeProvider;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.social.strength.profile.ProfileAttributeSnapshot;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.ProfileAgeCalculator;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileAttributeProviderTest {
+    @Mock
+    private ProfileRepository profileRepository;
+
+    @Spy
+    private ProfileAgeCalculator ageCalculator = new ProfileAgeCalculator();
+
+    @InjectMocks
+    private ProfileAttributeProvider profileAttributeProvider;
+
+    @Test
+    void load_insideScope_shouldQueryEachUserOnceForAllFactors() {
+        LocalDate today = LocalDate.now();
+        when(profileRepository.findAttributesByUserIdIn(anyCollection())).thenReturn(List.of(
+                attributes(1L, "Voronezh", today.minusYears(30)),
+                attributes(2L, "Voronezh", today.minusYears(33)),
+                attributes(3L, "Moscow", today.minusYears(50))));
+        GeographicFactor geographicFactor = new GeographicFactor(profileAttributeProvider);
+        DemographicFactor demographicFactor = new DemographicFactor(profileAttributeProvider);
+
+        Map<Long, Double> cityScores;
+        Map<Long, Double> ageScores;
+        try (ProfileAttributeProvider.Scope ignored = profileAttributeProvider.openScope()) {
+            cityScores = geographicFactor.calculateStrength(1L, List.of(2L, 3L, 4L));
+            ageScores = demographicFactor.calculateStrength(1L, List.of(2L, 3L, 4L));
+            assertEquals(0.15, geographicFactor.calculateStrength(1L, 2L));
+        }
+
+        assertEquals(Map.of(2L, 0.15, 3L, 0.0, 4L, 0.0), cityScores);
+        assertEquals(Map.of(2L, 0.13, 3L, 0.0, 4L, 0.0), ageScores);
+        verify(profileRepository, times(1)).findAttributesByUserIdIn(anyCollection());
+        verify(ageCalculator, times(3)).calculateAge(any());
+    }
+
+    @Test
+    void load_outsideScope_shouldNotKeepSnapshot() {
+        when(profileRepository.findAttributesByUserIdIn(anyCollection())).thenReturn(List.of());
+
+        ProfileAttributeSnapshot snapshot = profileAttributeProvider.load(List.of(1L));
+        profileAttributeProvider.load(List.of(1L));
+
+        assertTrue(snapshot.contains(1L));
+        assertEquals(ProfileAttributeSnapshot.UNKNOWN, snapshot.cityCode(1L));
+        verify(profileRepository, times(2)).findAttributesByUserIdIn(anyCollection());
+    }
+
+    @Test
+    void profileAttributeSnapshot_shouldGrowAndEncodeCities() {
+        ProfileAttributeSnapshot snapshot = new ProfileAttributeSnapshot();
+        for (long userId = 1; userId <= 1000; userId++) {
+            snapshot.put(userId, userId % 2 == 0 ? "Voronezh" : "Moscow", (int) (userId % 70));
+        }
+
+        assertEquals(1000, snapshot.size());
+        assertEquals(snapshot.cityCode(2L), snapshot.cityCode(1000L));
+        assertNotEquals(snapshot.cityCode(1L), snapshot.cityCode(2L));
+        assertEquals(999 % 70, snapshot.age(999L));
+        assertFalse(snapshot.contains(1001L));
+    }
+
+    private ProfileAttributesProjection attributes(Long userId, String city, LocalDate dateOfBirth) {
+        return new ProfileAttributesProjection() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getCity() {
+                return city;
+            }
+
+            @Override
+            public LocalDate getDateOfBirth() {
+                return dateOfBirth;
+            }
+        };
+    }
+}
@@ -11,6 +11,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.profile.Profi
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Profile;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.profile.ProfileAlreadyExistsException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.cache.CacheEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.ProfileRepository;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.storage.FileStorageServiceImpl;
@@ -60,6 +61,9 @@ public class ProfileServiceImplTest {
     @Mock
     private EntityUtils entityUtils;
 
+    @Mock
+    private CacheEventPublisherService cacheEventPublisherService;
+
     @InjectMocks
     private ProfileServiceImpl profileServiceImpl;
 
@@ -242,6 +246,7 @@ public class ProfileServiceImplTest {
         verify(entityUtils).getProfileByUser(user);
         verify(fileStorageServiceImpl).deleteFile("old.jpg");
         verify(profileRepository).save(any(Profile.class));
+        verify(cacheEventPublisherService).publishProfileUpdated(any(), eq(updatedProfile), eq(user.getId()));
         verify(entityMapper).map(updatedProfile, ProfileResponse.class);
     }
 
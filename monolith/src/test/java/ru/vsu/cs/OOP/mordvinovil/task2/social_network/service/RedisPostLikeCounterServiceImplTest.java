@@ -0,0 +1,235 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostLikeFlushBatchRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.repositories.PostRepository;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.content.counter.RedisPostLikeCounterServiceImpl;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisPostLikeCounterServiceImplTest {
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private SetOperations<String, Object> setOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostLikeFlushBatchRepository postLikeFlushBatchRepository;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private RedisPostLikeCounterServiceImpl postLikeCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postLikeCounterService, "shards", 2);
+        ReflectionTestUtils.setField(postLikeCounterService, "flushBatchSize", 100);
+    }
+
+    @Test
+    void increment_shouldUpdateShardAndMarkPostDirty() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+
+        postLikeCounterService.increment(10L, 1);
+
+        verify(valueOperations).increment(startsWith("{postLikes}::post:10:shard:"), eq(1L));
+        verify(setOperations).add("{postLikes}::dirty", 10L);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void increment_insideTransaction_shouldDeferRedisWriteUntilCommit() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postLikeCounterService.increment(10L, 1);
+
+            verifyNoInteractions(valueOperations, setOperations);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(valueOperations).increment(startsWith("{postLikes}::post:10:shard:"), eq(1L));
+        verify(setOperations).add("{postLikes}::dirty", 10L);
+    }
+
+    @Test
+    void getPendingDeltas_shouldSumShardsAndInFlightDeltasPerPost() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(valueOperations.multiGet(List.of(
+                "{postLikes}::post:1:shard:0", "{postLikes}::post:1:shard:1",
+                "{postLikes}::post:2:shard:0", "{postLikes}::post:2:shard:1")))
+                .thenReturn(Arrays.asList(3, 2, null, null));
+        when(hashOperations.multiGet("{postLikes}::processing", List.of("1", "2")))
+                .thenReturn(Arrays.asList(1, null));
+        when(valueOperations.get("{postLikes}::processing-batch")).thenReturn("batch-1");
+        when(postLikeFlushBatchRepository.existsByBatchId("batch-1")).thenReturn(false);
+
+        Map<Long, Long> result = postLikeCounterService.getPendingDeltas(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, 6L), result);
+    }
+
+    @Test
+    void getPendingDeltas_whenProcessingBatchAlreadyApplied_shouldNotCountItTwice() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(valueOperations.multiGet(List.of("{postLikes}::post:1:shard:0", "{postLikes}::post:1:shard:1")))
+                .thenReturn(Arrays.asList(2, null));
+        when(hashOperations.multiGet("{postLikes}::processing", List.of("1"))).thenReturn(Arrays.asList(5));
+        when(valueOperations.get("{postLikes}::processing-batch")).thenReturn("batch-1");
+        when(postLikeFlushBatchRepository.existsByBatchId("batch-1")).thenReturn(true);
+
+        assertEquals(Map.of(1L, 2L), postLikeCounterService.getPendingDeltas(List.of(1L)));
+    }
+
+    @Test
+    void getPendingPostIds_shouldCombineDirtyAndInFlightPosts() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(setOperations.members("{postLikes}::dirty")).thenReturn(Set.of(1, 2));
+        when(hashOperations.keys("{postLikes}::processing")).thenReturn(Set.of("2", "3"));
+
+        assertEquals(Set.of(1L, 2L, 3L), postLikeCounterService.getPendingPostIds());
+    }
+
+    @Test
+    void flush_shouldApplyDrainedBatchInOneUpdateAndThenCompleteIt() {
+        stubFlushLock();
+        when(setOperations.distinctRandomMembers("{postLikes}::dirty", 100)).thenReturn(Set.<Object>of(1));
+        when(redisTemplate.execute(eq(drainScript()), anyList(), any(Object[].class)))
+                .thenReturn(List.of("batch-1", 1, 3));
+        when(postRepository.applyLikeCountDeltas(eq("batch-1"), any(Long[].class), any(Long[].class))).thenReturn(1);
+
+        int flushed = postLikeCounterService.flush();
+
+        assertEquals(1, flushed);
+        var order = inOrder(postRepository, redisTemplate);
+        order.verify(postRepository).applyLikeCountDeltas(eq("batch-1"),
+                argThat(ids -> Arrays.equals(ids, new Long[]{1L})),
+                argThat(deltas -> Arrays.equals(deltas, new Long[]{3L})));
+        order.verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("{postLikes}::processing", "{postLikes}::processing-batch")), eq("batch-1"));
+        verify(postLikeFlushBatchRepository).deleteCreatedBefore(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldPassEveryShardKeyToDrainScript() {
+        stubFlushLock();
+        when(setOperations.distinctRandomMembers("{postLikes}::dirty", 100)).thenReturn(Set.<Object>of(7));
+
+        postLikeCounterService.flush();
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(eq(drainScript()), keys.capture(), any(Object[].class));
+        assertEquals(List.of("{postLikes}::dirty", "{postLikes}::processing", "{postLikes}::processing-batch",
+                "{postLikes}::post:7:shard:0", "{postLikes}::post:7:shard:1"), keys.getValue());
+    }
+
+    @Test
+    void flush_whenDatabaseFails_shouldKeepProcessingBatchForRetry() {
+        stubFlushLock();
+        when(redisTemplate.execute(eq(drainScript()), anyList(), any(Object[].class)))
+                .thenReturn(List.of("batch-1", 1, 2));
+        when(postRepository.applyLikeCountDeltas(eq("batch-1"), any(Long[].class), any(Long[].class)))
+                .thenThrow(new RuntimeException("Database error"));
+
+        int flushed = postLikeCounterService.flush();
+
+        assertEquals(0, flushed);
+        verify(redisTemplate, never()).execute(any(RedisScript.class),
+                eq(List.of("{postLikes}::processing", "{postLikes}::processing-batch")), any());
+        verify(centralLogger).logError(eq("ЛАЙКИ_СЧЕТЧИК_ОШИБКА_СБРОСА"), anyString(), any(), any());
+    }
+
+    @Test
+    void flush_whenNothingIsDirty_shouldNotTouchDatabase() {
+        stubFlushLock();
+        when(redisTemplate.execute(eq(drainScript()), anyList(), any(Object[].class))).thenReturn(List.of());
+
+        assertEquals(0, postLikeCounterService.flush());
+        verify(postRepository, never()).applyLikeCountDeltas(any(), any(), any());
+    }
+
+    @Test
+    void flush_shouldReleaseLockWithItsOwnToken() {
+        stubFlushLock();
+        when(redisTemplate.execute(eq(drainScript()), anyList(), any(Object[].class))).thenReturn(List.of());
+
+        postLikeCounterService.flush();
+
+        ArgumentCaptor<Object> token = ArgumentCaptor.forClass(Object.class);
+        verify(valueOperations).setIfAbsent(eq("{postLikes}::flush-lock"), token.capture(), any(Duration.class));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("{postLikes}::flush-lock")), eq(token.getValue()));
+        verify(redisTemplate, never()).delete("{postLikes}::flush-lock");
+    }
+
+    @Test
+    void flush_whenAnotherInstanceIsFlushing_shouldSkip() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("{postLikes}::flush-lock"), any(), any(Duration.class))).thenReturn(false);
+
+        assertEquals(0, postLikeCounterService.flush());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        verifyNoInteractions(postRepository);
+    }
+
+    private void stubFlushLock() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(valueOperations.setIfAbsent(eq("{postLikes}::flush-lock"), any(), any(Duration.class))).thenReturn(true);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisScript<List> drainScript() {
+        return (RedisScript<List>) ReflectionTestUtils.getField(RedisPostLikeCounterServiceImpl.class, "DRAIN_SCRIPT");
+    }
+}
@@ -16,6 +16,7 @@ import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.Relationship;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.enums.FriendshipStatus;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.notification.NotificationEventPublisherService;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.events.relationship.FriendshipEventPublisherService;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.custom.AccessDeniedException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.relationship.DuplicateRelationshipException;
 import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.relationship.RelationshipNotFoundException;
@@ -61,6 +62,9 @@ public class RelationshipServiceImplTest {
     @Mock
     private NotificationEventPublisherService notificationEventPublisherService;
 
+    @Mock
+    private FriendshipEventPublisherService friendshipEventPublisherService;
+
     @InjectMocks
     private RelationshipServiceImpl relationshipServiceImpl;
 
@@ -175,6 +179,7 @@ public class RelationshipServiceImplTest {
         verify(relationshipRepository).save(any(Relationship.class));
         verify(entityMapper).map(updatedRelationship, RelationshipResponse.class);
         verify(notificationEventPublisherService).publishFriendRequestAccepted(any(), eq(senderUser.getId()), eq(currentUser.getId()));
+        verify(friendshipEventPublisherService).publishFriendshipAdded(any(), eq(currentUser.getId()), eq(senderUser.getId()));
     }
 
     @Test
@@ -240,6 +245,7 @@ public class RelationshipServiceImplTest {
         verify(relationshipRepository).findRelationshipBetweenUsers(currentUser.getId(), targetUser.getId());
         verify(relationshipRepository).save(any(Relationship.class));
         verify(entityMapper).map(updatedRelationship, RelationshipResponse.class);
+        verify(friendshipEventPublisherService).publishFriendshipRemoved(any(), eq(currentUser.getId()), eq(targetUser.getId()));
     }
 
     @Test
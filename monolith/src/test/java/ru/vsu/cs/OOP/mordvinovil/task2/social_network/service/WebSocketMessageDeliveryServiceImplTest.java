@@ -0,0 +1,140 @@
+package ru.vsu.cs.OOP.mordvinovil.task2.social_network.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.SimpleMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationResult;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.MessageResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.response.messaging.TypingResponse;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.dto.websocket.WebSocketMessage;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.entities.User;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.exceptions.entity.message.SelfMessageException;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.logging.CentralLogger;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.security.config.UserIdHandshakeHandler;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.security.filters.UserDetailsImpl;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.service.servicesImpl.messaging.WebSocketMessageDeliveryServiceImpl;
+import ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.entity.EntityUtils;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.vsu.cs.OOP.mordvinovil.task2.social_network.utils.TestDataFactory.createTestUser;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketMessageDeliveryServiceImplTest {
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private EntityUtils entityUtils;
+
+    @Mock
+    private CentralLogger centralLogger;
+
+    @InjectMocks
+    private WebSocketMessageDeliveryServiceImpl deliveryService;
+
+    @Test
+    void deliverMessage_shouldSendMessageFrameToReceiverQueue() {
+        MessageResponse message = MessageResponse.builder().id(10L).content("привет").build();
+
+        deliveryService.deliverMessage(2L, message);
+
+        ArgumentCaptor<WebSocketMessage> frame = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/messages"), frame.capture());
+        assertEquals("MESSAGE", frame.getValue().getType());
+        assertSame(message, frame.getValue().getPayload());
+    }
+
+    @Test
+    void deliverMessage_whenBrokerFails_shouldNotThrow() {
+        MessageResponse message = MessageResponse.builder().id(10L).build();
+        doThrow(new IllegalStateException("broker unavailable"))
+                .when(messagingTemplate).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+
+        assertDoesNotThrow(() -> deliveryService.deliverMessage(2L, message));
+    }
+
+    @Test
+    void sendTyping_shouldSendTypingFrameFromCurrentUser() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        User receiver = createTestUser(2L, "receiver", "receiver@example.com");
+        when(entityUtils.getUser(2L)).thenReturn(receiver);
+
+        deliveryService.sendTyping(2L, currentUser, true);
+
+        ArgumentCaptor<WebSocketMessage> frame = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/messages"), frame.capture());
+        assertEquals("TYPING", frame.getValue().getType());
+        TypingResponse payload = (TypingResponse) frame.getValue().getPayload();
+        assertEquals(1L, payload.getSenderUserId());
+        assertTrue(payload.isTyping());
+    }
+
+    @Test
+    void sendTyping_toSelf_shouldThrow() {
+        User currentUser = createTestUser(1L, "user", "user@example.com");
+        when(entityUtils.getUser(1L)).thenReturn(currentUser);
+
+        assertThrows(SelfMessageException.class, () -> deliveryService.sendTyping(1L, currentUser, true));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void deliverMessage_shouldResolveToSessionOfHandshakePrincipal() {
+        UserDetailsImpl userDetails = new UserDetailsImpl(2L, "receiver", "receiver@example.com", "password", List.of());
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setUserPrincipal(new UsernamePasswordAuthenticationToken(userDetails, null, List.of()));
+        Principal principal = new UserIdHandshakeHandler() {
+            Principal handshake() {
+                return determineUser(new ServletServerHttpRequest(httpRequest), null, new HashMap<>());
+            }
+        }.handshake();
+
+        StompHeaderAccessor connected = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        connected.setSessionId("session-1");
+        connected.setUser(principal);
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        userRegistry.onApplicationEvent(new SessionConnectedEvent(this,
+                MessageBuilder.createMessage(new byte[0], connected.getMessageHeaders()), principal));
+
+        List<Message<?>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        template.setMessageConverter(new SimpleMessageConverter());
+        WebSocketMessageDeliveryServiceImpl service =
+                new WebSocketMessageDeliveryServiceImpl(template, entityUtils, centralLogger);
+
+        service.deliverMessage(2L, MessageResponse.builder().id(10L).build());
+
+        assertEquals(1, sent.size());
+        UserDestinationResult result = new DefaultUserDestinationResolver(userRegistry).resolveDestination(sent.get(0));
+        assertNotNull(result);
+        assertEquals(Set.of("/queue/messages-usersession-1"), result.getTargetDestinations());
+    }
+}
@@ -96,6 +96,7 @@ public class TestDataFactory {
         return Message.builder()
                 .sender(sender)
                 .receiver(receiver)
+                .conversationId(Message.conversationIdOf(sender.getId(), receiver.getId()))
                 .content(content)
                 .imageUrl(imageUrl)
                 .status(status)
@@ -105,12 +105,20 @@ INSERT INTO likes (id, user_id, post_id, comment_id, created_at) VALUES
 (9, 1, NULL, 2, CURRENT_TIMESTAMP),
 (10, 7, NULL, 2, CURRENT_TIMESTAMP);
 
+-- ==================== СЧЕТЧИКИ ЛАЙКОВ И КОММЕНТАРИЕВ ====================
+UPDATE posts p SET
+    like_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id),
+    comment_count = (SELECT COUNT(*) FROM comment c WHERE c.post_id = p.id);
+
+UPDATE comment c SET
+    like_count = (SELECT COUNT(*) FROM likes l WHERE l.comment_id = c.id);
+
 -- ==================== СООБЩЕНИЯ ====================
-INSERT INTO messages (id, sender_id, receiver_id, content, image_url, status, time_update, created_at) VALUES
+INSERT INTO messages (id, sender_id, receiver_id, conversation_id, content, image_url, status, time_update, created_at) VALUES
 -- Иванов общался с Волковым (сильный фактор общения)
-(1, 1, 7, 'Привет! Как дела?', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(2, 7, 1, 'Привет! Все отлично, работаю над новым проектом', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-(3, 1, 7, 'Здорово! Расскажешь поподробнее?', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(1, 1, 7, '1:7', 'Привет! Как дела?', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(2, 7, 1, '1:7', 'Привет! Все отлично, работаю над новым проектом', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+(3, 1, 7, '1:7', 'Здорово! Расскажешь поподробнее?', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
 -- Иванов общался с Федоровым (одно сообщение)
-(4, 1, 9, 'Здравствуйте!', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+(4, 1, 9, '1:9', 'Здравствуйте!', NULL, 'SENT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);